@@ -0,0 +1,71 @@
+package benchmark;
+
+import engine.IStepKernel;
+import engine.impl.ActiveRowsStepKernel;
+import engine.impl.GreenVsRed;
+import engine.impl.ParallelStepKernel;
+import engine.impl.ScalarStepKernel;
+import engine.impl.SwarStepKernel;
+import model.Generation;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the creation of a single generation by each kernel - the score is generations per second.
+ * The buffers are swapped after every generation as in the game, so the grid keeps evolving instead of recreating the same generation.
+ * Run with "-prof gc" for the allocation per generation ( gc.alloc.rate.norm ), which should be 0 for the sequential kernels.
+ *
+ * @author - Viktor Kurtev
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GenerationStepBenchmark {
+
+    @Param({"10", "100", "999"})
+    private int size;
+
+    @Param({"0.1", "0.5"})
+    private double greenDensity;
+
+    @Param({"SCALAR", "SWAR", "PARALLEL_SCALAR", "PARALLEL_SWAR", "ACTIVE_SCALAR", "ACTIVE_SWAR"})
+    private String kernel;
+
+    private IStepKernel stepKernel;
+    private Generation currentGeneration;
+    private Generation nextGeneration;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        GreenVsRed rules = new GreenVsRed();
+        IStepKernel bandStepKernel = kernel.endsWith("SWAR") ? new SwarStepKernel(rules) : new ScalarStepKernel(rules);
+        if (kernel.startsWith("ACTIVE")) {
+            bandStepKernel = new ActiveRowsStepKernel(bandStepKernel);
+        }
+        stepKernel = kernel.startsWith("PARALLEL") ? new ParallelStepKernel(bandStepKernel, ForkJoinPool.commonPool()) : bandStepKernel;
+        currentGeneration = new Generation(size, size);
+        nextGeneration = new Generation(size, size);
+        Random random = new Random(42);
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                currentGeneration.setGreen(i, j, random.nextDouble() < greenDensity);
+            }
+        }
+    }
+
+    @Benchmark
+    public Generation createNewCells() {
+        stepKernel.createNewCells(currentGeneration, nextGeneration, 0, size);
+        Generation swappedGeneration = currentGeneration;
+        currentGeneration = nextGeneration;
+        nextGeneration = swappedGeneration;
+        return currentGeneration;
+    }
+
+}
@@ -0,0 +1,102 @@
+package benchmark;
+
+import engine.enumeration.StepKernelEnum;
+import engine.enumeration.StepModeEnum;
+import engine.impl.GreenVsRed;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of a whole game - GreenVsRed.start() for N generations, including the cycle detection and fast-forward.
+ * Every invocation plays a new game set up from the same generated user input, which is fed through System.in.
+ * Run with "-prof gc" for the allocation rate of a game.
+ *
+ * @author - Viktor Kurtev
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GreenVsRedBenchmark {
+
+    @Param({"10", "100", "999"})
+    private int size;
+
+    @Param({"0.1", "0.5"})
+    private double greenDensity;
+
+    @Param({"1000", "1000000"})
+    private long n;
+
+    @Param({"SCALAR", "SWAR", "TILED"})
+    private StepKernelEnum stepKernel;
+
+    @Param({"SEQUENTIAL", "PARALLEL", "HASHLIFE"})
+    private StepModeEnum stepMode;
+
+    private byte[] userInput;
+    private InputStream systemIn;
+    private PrintStream systemOut;
+    private GreenVsRed greenVsRed;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        userInput = createUserInput(size, size, greenDensity, n, 42).getBytes(StandardCharsets.US_ASCII);
+        systemIn = System.in;
+        systemOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @Setup(Level.Invocation)
+    public void setupGame() {
+        System.setIn(new ByteArrayInputStream(userInput));
+        greenVsRed = new GreenVsRed(stepMode, stepKernel);
+        greenVsRed.setup();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        System.setIn(systemIn);
+        System.setOut(systemOut);
+    }
+
+    @Benchmark
+    public void start() {
+        greenVsRed.start();
+    }
+
+    /**
+     * Method responsible for the creation of user input for a game with a random Generation Zero.
+     * The observed cell is in the middle of the grid.
+     *
+     * @param height       of the grid.
+     * @param width        of the grid.
+     * @param greenDensity chance of each cell to be GREEN.
+     * @param n            number of generations.
+     * @param seed         of the random cells.
+     * @return user input lines in the order in which the game reads them.
+     */
+    private static String createUserInput(int height, int width, double greenDensity, long n, long seed) {
+        Random random = new Random(seed);
+        StringBuilder userInput = new StringBuilder(height * (width + 1) + 32);
+        userInput.append(height).append(',').append(width).append('\n');
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                userInput.append(random.nextDouble() < greenDensity ? '1' : '0');
+            }
+            userInput.append('\n');
+        }
+        userInput.append(height / 2).append(',').append(width / 2).append(',').append(n).append('\n');
+        return userInput.toString();
+    }
+
+}
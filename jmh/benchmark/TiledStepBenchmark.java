@@ -0,0 +1,79 @@
+package benchmark;
+
+import engine.impl.GreenVsRed;
+import engine.impl.SwarStepKernel;
+import engine.impl.TiledStepKernel;
+import model.Generation;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the creation of a block of generations - the row sweep of the SWAR kernel, one generation at a time,
+ * against the tiles of the TILED kernel, all generations of a block per tile. The score is generations per second.
+ * The larger grids don't fit the caches, which is where the tiles should gain.
+ *
+ * @author - Viktor Kurtev
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(TiledStepKernel.DEFAULT_GENERATIONS_PER_BLOCK)
+public class TiledStepBenchmark {
+
+    @Param({"999", "4096"})
+    private int size;
+
+    @Param({"0.1", "0.5"})
+    private double greenDensity;
+
+    private SwarStepKernel swarStepKernel;
+    private TiledStepKernel tiledStepKernel;
+    private Generation currentGeneration;
+    private Generation nextGeneration;
+    private long[] greenCounts;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        GreenVsRed rules = new GreenVsRed();
+        swarStepKernel = new SwarStepKernel(rules);
+        tiledStepKernel = new TiledStepKernel(rules);
+        currentGeneration = new Generation(size, size);
+        nextGeneration = new Generation(size, size);
+        greenCounts = new long[1];
+        Random random = new Random(42);
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                currentGeneration.setGreen(i, j, random.nextDouble() < greenDensity);
+            }
+        }
+    }
+
+    @Benchmark
+    public Generation rowSweep() {
+        for (int i = 0; i < TiledStepKernel.DEFAULT_GENERATIONS_PER_BLOCK; i++) {
+            swarStepKernel.createNewCells(currentGeneration, nextGeneration, 0, size);
+            swapGenerations();
+        }
+        return currentGeneration;
+    }
+
+    @Benchmark
+    public Generation tiled() {
+        tiledStepKernel.createNewCells(currentGeneration, nextGeneration, TiledStepKernel.DEFAULT_GENERATIONS_PER_BLOCK,
+                new int[0], new int[0], greenCounts);
+        swapGenerations();
+        return currentGeneration;
+    }
+
+    private void swapGenerations() {
+        Generation swappedGeneration = currentGeneration;
+        currentGeneration = nextGeneration;
+        nextGeneration = swappedGeneration;
+    }
+
+}
@@ -1,10 +1,116 @@
-import engine.IGame;
+import engine.IGreenVsRed;
+import engine.cache.ResultCache;
+import engine.distributed.DistributedGreenVsRed;
+import engine.enumeration.StepKernelEnum;
+import engine.enumeration.StepModeEnum;
+import engine.impl.BatchGreenVsRed;
 import engine.impl.GreenVsRed;
+import engine.metrics.SimulationMetrics;
+import engine.server.SimulationServer;
+import engine.service.GridLoaderService;
+import engine.service.ValidatorService;
+import exception.InvalidUserInputException;
+import model.Generation;
+import model.ObservedCellInfo;
+import model.RuleSet;
+
+import javax.management.JMException;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 public class Main {
-    public static void main(String[] args) {
-        IGame game = new GreenVsRed();
+    public static void main(String[] args) throws IOException {
+        StepKernelEnum stepKernel = StepKernelEnum.valueOf(System.getProperty("gvr.stepKernel", StepKernelEnum.SCALAR.name()));
+        // The large-grid mode bounds every grid - of the user input, of the batch and of a seed file.
+        boolean largeGrids = System.getProperty("gvr.maxHeight") != null || System.getProperty("gvr.maxWidth") != null;
+        int maxHeight = Integer.getInteger("gvr.maxHeight", Integer.MAX_VALUE);
+        int maxWidth = Integer.getInteger("gvr.maxWidth", Integer.MAX_VALUE);
+        ValidatorService validatorService = largeGrids ? new ValidatorService(maxHeight, maxWidth) : new ValidatorService();
+        RuleSet ruleSet = validatorService.validateRulesInput(System.getProperty("gvr.rules", RuleSet.GREEN_VS_RED.toString()))
+                .orElseThrow(() -> new InvalidUserInputException("Invalid rules - expected B<counts>/S<counts> with counts 0 to 8, e.g. " + RuleSet.GREEN_VS_RED + "!"));
+        String batchFile = System.getProperty("gvr.batchFile");
+        if (batchFile != null) {
+            new BatchGreenVsRed(Path.of(batchFile), System.out, stepKernel, Runtime.getRuntime().availableProcessors(), ruleSet, validatorService).execute();
+            return;
+        }
+        String serverPort = System.getProperty("gvr.serverPort");
+        if (serverPort != null) {
+            int processors = Runtime.getRuntime().availableProcessors();
+            SimulationServer simulationServer = new SimulationServer(Integer.parseInt(serverPort), stepKernel, ruleSet,
+                    processors, Math.max(1, processors / 4), SimulationServer.DEFAULT_QUEUE_CAPACITY, SimulationServer.DEFAULT_LARGE_GAME_CELL_UPDATES,
+                    largeGrids ? maxHeight : SimulationServer.DEFAULT_MAX_GRID_SIZE, largeGrids ? maxWidth : SimulationServer.DEFAULT_MAX_GRID_SIZE);
+            if (System.getProperty("gvr.resultCacheBytes") != null) {
+                simulationServer.enableResultCache(new ResultCache(Long.getLong("gvr.resultCacheBytes")));
+            }
+            simulationServer.execute();
+            return;
+        }
+        String workers = System.getProperty("gvr.workers");
+        if (workers != null) {
+            // The grid is read from a grid file, the observed cells from a list of x,y,N separated by ';'.
+            new DistributedGreenVsRed(Path.of(System.getProperty("gvr.gridFile")), getObservedCellsInfo(), System.out,
+                    Integer.parseInt(workers), true, ruleSet,
+                    Integer.getInteger("gvr.workerTimeoutMillis", DistributedGreenVsRed.DEFAULT_RESULT_TIMEOUT_MILLIS)).execute();
+            return;
+        }
+        IGreenVsRed game = new GreenVsRed(
+                StepModeEnum.valueOf(System.getProperty("gvr.stepMode", StepModeEnum.SEQUENTIAL.name())),
+                stepKernel, ForkJoinPool.commonPool(), ruleSet);
+        if (largeGrids) {
+            game.enableLargeGrids(maxHeight, maxWidth);
+        }
+        if (Boolean.getBoolean("gvr.offHeap")) {
+            game.enableOffHeapGrids();
+        }
+        if (Boolean.getBoolean("gvr.metrics")) {
+            SimulationMetrics metrics = new SimulationMetrics();
+            try {
+                metrics.register("GreenVsRed");
+            } catch (JMException e) {
+                throw new IllegalStateException("The metrics can't be registered!", e);
+            }
+            game.enableMetrics(metrics);
+        }
+        String checkpointFile = System.getProperty("gvr.checkpointFile");
+        if (checkpointFile != null) {
+            game.enableCheckpoints(Path.of(checkpointFile), Long.getLong("gvr.checkpointInterval", 1_000_000L));
+            if (Boolean.getBoolean("gvr.resume")) {
+                System.out.println("Resuming from " + checkpointFile + " ...");
+                long[] greenCounts = game.resume(Path.of(checkpointFile));
+                System.out.println("The observed cells were green for " + Arrays.toString(greenCounts) + " generations!");
+                return;
+            }
+        }
+        String seedFile = System.getProperty("gvr.seedFile");
+        if (seedFile != null) {
+            // The grid is loaded at once from a text file in the format of the user input, the observed cells from a list of x,y,N separated by ';'.
+            Generation generationZero = new GridLoaderService(validatorService).loadGrid(Path.of(seedFile), Boolean.getBoolean("gvr.offHeap"));
+            List<ObservedCellInfo> observedCellsInfo = getObservedCellsInfo();
+            long[] greenCounts = game.simulate(generationZero, observedCellsInfo);
+            for (int i = 0; i < greenCounts.length; i++) {
+                ObservedCellInfo observedCellInfo = observedCellsInfo.get(i);
+                System.out.println(observedCellInfo.getX() + "," + observedCellInfo.getY() + "," + observedCellInfo.getN() + "," + greenCounts[i]);
+            }
+            return;
+        }
         System.out.println("Executing ...");
         game.execute();
     }
+
+    /**
+     * Reads the observed cells of the non-interactive modes from the gvr.observedCells property - x,y,N separated by ';'.
+     * The bounds of the cells are validated by the game, against its grid.
+     */
+    private static List<ObservedCellInfo> getObservedCellsInfo() throws InvalidUserInputException {
+        List<ObservedCellInfo> observedCellsInfo = new ArrayList<>();
+        for (String observedCellInfoInput : System.getProperty("gvr.observedCells", "").split(";")) {
+            observedCellsInfo.add(new ValidatorService().validateObservedCellInfoInput(observedCellInfoInput, Integer.MAX_VALUE, Integer.MAX_VALUE)
+                    .orElseThrow(() -> new InvalidUserInputException("Invalid observed cells - expected x,y,N;x,y,N ...!")));
+        }
+        return observedCellsInfo;
+    }
 }
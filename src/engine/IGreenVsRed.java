@@ -1,7 +1,17 @@
 package engine;
 
+import engine.cache.ResultCache;
 import engine.enumeration.CellTypeEnum;
+import engine.metrics.SimulationMetrics;
+import engine.stream.GenerationPublisher;
 import exception.InvalidUserInputException;
+import model.Generation;
+import model.ObservedCellInfo;
+import model.RuleSet;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
 
 /**
  * Interface for the so called "GreenVsRed" mutation of "Game of Life"
@@ -15,12 +25,12 @@ public interface IGreenVsRed extends IGame {
      * Method responsible for the initialization of the so called "Generation Zero".
      *
      * @throws InvalidUserInputException contains the INVALID_GRID_SIZE_INPUT_EXCEPTION_MESSAGE
-     *                                   thrown when the height and width given by the user aren't in the scope of 0 < x <= y < 1000
+     *                                   thrown when the height and width given by the user aren't in the scope of 0 < x <= y < 1000 ( or the bounds of the large-grid mode )
      */
     void initGenerationZero() throws InvalidUserInputException;
 
     /**
-     * Method responsible for the assignment of cell data into Generation Zero's grid (2D matrix) of Cell objects row by row
+     * Method responsible for the assignment of cell data into Generation Zero's bit-packed grid row by row
      * It's row by row cause of the way user input is treated - each row of user input represents 1 entire row of the grid
      *
      * @throws InvalidUserInputException contains two messages depending on the case :
@@ -39,11 +49,109 @@ public interface IGreenVsRed extends IGame {
     void setObservedCell() throws InvalidUserInputException;
 
     /**
-     * Method responsible for initialization of the so called "Generation History".
-     * Initializes a List of Generation objects.
-     * Adds "Generation Zero"during initialization.
+     * Method responsible for initialization of the so called "Generation Buffers".
+     * Initializes the current and next Generation, which are swapped after every generation is created.
+     * Copies "Generation Zero" into the current Generation and counts it for the observed cell during initialization.
+     */
+    void initGenerationBuffers();
+
+    /**
+     * Method responsible for running the game without user input and output.
+     * Library entry point - doesn't touch System.in, System.out or the "Generation Zero" instance.
+     *
+     * @param generationZero   first generation of cells, which is left unchanged.
+     * @param observedCellInfo the cell to be observed and the number of generations N.
+     * @return number of generations ( Generation Zero through generation N ) in which the observed cell was green.
+     * @throws IllegalArgumentException when the observed cell isn't in the grid or N is negative.
+     */
+    long simulate(Generation generationZero, ObservedCellInfo observedCellInfo);
+
+    /**
+     * Method responsible for running the game without user input and output, observing many cells in a single pass.
+     *
+     * @param generationZero    first generation of cells, which is left unchanged.
+     * @param observedCellsInfo the cells to be observed, all with the same number of generations N.
+     * @return numbers of generations in which each observed cell was green, in the order of the observed cells.
+     * @throws IllegalArgumentException when there are no observed cells, one of them isn't in the grid or their N differ or are negative.
+     */
+    long[] simulate(Generation generationZero, List<ObservedCellInfo> observedCellsInfo);
+
+    /**
+     * Method responsible for running the game without user input and output, observing every cell of the grid in a single pass.
+     *
+     * @param generationZero first generation of cells, which is left unchanged.
+     * @param n              number of generations.
+     * @return numbers of generations in which each cell was green, indexed by x * width + y.
+     * @throws IllegalArgumentException when N is negative or the grid has more cells than an array can hold.
+     */
+    long[] simulateHeatmap(Generation generationZero, long n);
+
+    /**
+     * Method responsible for enabling the large-grid mode - grids of up to maxHeight x maxWidth cells, in any proportion,
+     * instead of the classic 0 < height <= width < 1000.
+     *
+     * @param maxHeight maximum height of a grid ( inclusive ).
+     * @param maxWidth  maximum width of a grid ( inclusive ).
+     * @throws IllegalArgumentException when the bounds aren't positive.
+     */
+    void enableLargeGrids(int maxHeight, int maxWidth);
+
+    /**
+     * Method responsible for enabling periodic checkpoints of the current generation, the generation index and the green counts.
+     * Checkpoints are written in the background and never block the game.
+     *
+     * @param checkpointFile     into which the checkpoints are written, replacing the last one.
+     * @param checkpointInterval number of generations between two checkpoints.
+     * @throws IllegalArgumentException when the interval isn't positive.
+     */
+    void enableCheckpoints(Path checkpointFile, long checkpointInterval);
+
+    /**
+     * Method responsible for enabling the off-heap mode - the Generation Zero and the generation buffers are held in direct buffers,
+     * so the heap and the GC pauses don't grow with the grid. Takes effect for the grids created afterwards.
+     */
+    void enableOffHeapGrids();
+
+    /**
+     * Method responsible for enabling the result cache - games of a cached seed are answered from the trajectories of their observed cells
+     * and the cycle of the seed, or resumed from the last cached generation, instead of being played from Generation Zero.
+     * Games played in HASHLIFE mode bypass the cache.
+     *
+     * @param resultCache shared by any number of instances, or null to disable the cache.
+     */
+    void enableResultCache(ResultCache resultCache);
+
+    /**
+     * Method responsible for enabling the streaming of the generations - while the publisher has a subscriber,
+     * every generation of a game is published as it is created, whole or as the diff of the last one.
+     *
+     * @param generationPublisher to which the generations are streamed, or null to disable the streaming.
+     */
+    void enableGenerationStream(GenerationPublisher generationPublisher);
+
+    /**
+     * Method responsible for enabling the metrics of the games played by this instance - generations per second, nanoseconds per step,
+     * allocation per step, the current generation index and the observed cell's green count. Disabled by default, at the cost of a single check per generation.
+     *
+     * @param metrics into which the games are recorded, or null to disable the metrics.
+     */
+    void enableMetrics(SimulationMetrics metrics);
+
+    /**
+     * Method responsible for resuming a game from its latest checkpoint and playing it until its N generations.
+     *
+     * @param checkpointFile from which the game is resumed.
+     * @return numbers of generations in which each observed cell was green, as returned by the game that wrote the checkpoint.
+     * @throws IOException when the checkpoint can't be loaded.
+     */
+    long[] resume(Path checkpointFile) throws IOException;
+
+    /**
+     * Method responsible for the access to the Rules that form the next generation, as data.
+     *
+     * @return the rule set of the game.
      */
-    void initGenerationHistory();
+    RuleSet getRuleSet();
 
     /**
      * Method responsible for execution and application of the Rules that form the next generation.
@@ -0,0 +1,24 @@
+package engine;
+
+import model.Generation;
+
+/**
+ * Interface for the kernels responsible for the creation of the cells of the next generation.
+ * Kernels read the last generation only and write a given range of rows of the new generation,
+ * so different row ranges can be created independently of each other.
+ *
+ * @author - Viktor Kurtev
+ */
+public interface IStepKernel {
+
+    /**
+     * Method responsible for the creation of the cells in the rows fromRow (inclusive) to toRow (exclusive) of the new generation.
+     *
+     * @param lastGeneration holds the last generation of cells.
+     * @param newGeneration  will hold the new generation of cells.
+     * @param fromRow        first row to be created.
+     * @param toRow          row after the last row to be created.
+     */
+    void createNewCells(Generation lastGeneration, Generation newGeneration, int fromRow, int toRow);
+
+}
@@ -0,0 +1,199 @@
+package engine.cache;
+
+import model.Generation;
+import model.RuleSet;
+
+/**
+ * Class responsible for holding what a played game tells about later games of the same seed and rules.
+ * The trajectory of every observed cell - a bit per generation, set when the cell was green - answers any N it covers,
+ * the cycle the game entered ( if it was found ) answers any N past it, and the last Generation lets a game with a larger N resume where this one stopped.
+ * Immutable - a resumed game is cached as a new CachedGame.
+ *
+ * @author - Viktor Kurtev
+ */
+public final class CachedGame {
+
+    /**
+     * Constant for the cycle start of a game that didn't enter a cycle.
+     */
+    public static final long NO_CYCLE = -1;
+
+    private final Generation generationZero;
+    private final RuleSet ruleSet;
+    private final int[] observedCellsX;
+    private final int[] observedCellsY;
+
+    /**
+     * Variable containing the trajectory of every observed cell, bit g of a trajectory is set if the cell was green in generation g.
+     */
+    private final long[][] trajectories;
+
+    /**
+     * Variable containing the number of generations in the trajectories - Generation Zero to the last Generation.
+     */
+    private final long recordedGenerations;
+
+    /**
+     * Variables containing the generation from which the game repeats every cycleLength generations, or NO_CYCLE.
+     */
+    private final long cycleStart;
+    private final long cycleLength;
+
+    /**
+     * Variable containing the last Generation, of index recordedGenerations - 1, or null when the game entered a cycle.
+     */
+    private final Generation lastGeneration;
+
+    CachedGame(Generation generationZero, RuleSet ruleSet, int[] observedCellsX, int[] observedCellsY, long[][] trajectories,
+               long recordedGenerations, long cycleStart, long cycleLength, Generation lastGeneration) {
+        this.generationZero = generationZero;
+        this.ruleSet = ruleSet;
+        this.observedCellsX = observedCellsX;
+        this.observedCellsY = observedCellsY;
+        this.trajectories = trajectories;
+        this.recordedGenerations = recordedGenerations;
+        this.cycleStart = cycleStart;
+        this.cycleLength = cycleLength;
+        this.lastGeneration = lastGeneration;
+    }
+
+    /**
+     * Method responsible for answering a game from the cache.
+     *
+     * @param observedCellsX height coordinates of the observed cells.
+     * @param observedCellsY width coordinates of the observed cells.
+     * @param n              number of generations N.
+     * @return numbers of generations in which each observed cell was green, or null when a cell isn't cached or N is past the trajectories and no cycle is known.
+     */
+    public long[] getGreenCounts(int[] observedCellsX, int[] observedCellsY, long n) {
+        if (n >= recordedGenerations && cycleStart == NO_CYCLE) {
+            return null;
+        }
+        long[] greenCounts = new long[observedCellsX.length];
+        for (int i = 0; i < observedCellsX.length; i++) {
+            int observedCell = indexOf(observedCellsX[i], observedCellsY[i]);
+            if (observedCell < 0) {
+                return null;
+            }
+            greenCounts[i] = getGreenCount(trajectories[observedCell], n);
+        }
+        return greenCounts;
+    }
+
+    /**
+     * Method responsible for counting a trajectory until generation N, through the cycle when N is past the trajectory.
+     * From the cycle start on, generation g is the same as generation cycleStart + ( g - cycleStart ) % cycleLength.
+     *
+     * @return number of generations 0 to N in which the cell was green.
+     */
+    private long getGreenCount(long[] trajectory, long n) {
+        if (n < recordedGenerations) {
+            return countBits(trajectory, 0, n + 1);
+        }
+        long cycleGenerations = n - cycleStart + 1;
+        return countBits(trajectory, 0, cycleStart)
+                + cycleGenerations / cycleLength * countBits(trajectory, cycleStart, cycleStart + cycleLength)
+                + countBits(trajectory, cycleStart, cycleStart + cycleGenerations % cycleLength);
+    }
+
+    /**
+     * Static method responsible for counting the set bits of a trajectory in a range.
+     *
+     * @param from first bit.
+     * @param to   bit after the last bit.
+     * @return number of set bits.
+     */
+    private static long countBits(long[] trajectory, long from, long to) {
+        long count = 0;
+        for (long bit = from; bit < to; ) {
+            int word = (int) (bit >>> 6);
+            long wordEnd = Math.min(((long) word + 1) << 6, to);
+            long mask = (-1L << bit) & (wordEnd == ((long) word + 1) << 6 ? -1L : (1L << wordEnd) - 1); // Shifts by bit % 64 and wordEnd % 64.
+            count += Long.bitCount(trajectory[word] & mask);
+            bit = wordEnd;
+        }
+        return count;
+    }
+
+    /**
+     * Method responsible for checking whether every given cell is observed by the cached game.
+     */
+    public boolean hasCells(int[] observedCellsX, int[] observedCellsY) {
+        for (int i = 0; i < observedCellsX.length; i++) {
+            if (indexOf(observedCellsX[i], observedCellsY[i]) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int indexOf(int x, int y) {
+        for (int i = 0; i < observedCellsX.length; i++) {
+            if (observedCellsX[i] == x && observedCellsY[i] == y) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Method responsible for the green counts of the observed cells until the last Generation, from which a game is resumed.
+     */
+    public long[] getLastGreenCounts() {
+        long[] greenCounts = new long[trajectories.length];
+        for (int i = 0; i < trajectories.length; i++) {
+            greenCounts[i] = countBits(trajectories[i], 0, recordedGenerations);
+        }
+        return greenCounts;
+    }
+
+    /**
+     * Method responsible for the estimation of the memory taken by the cached game.
+     *
+     * @return size in bytes.
+     */
+    long getSizeBytes() {
+        long gridBytes = (long) generationZero.getHeight() * generationZero.getWordsPerRow() * Long.BYTES;
+        long trajectoriesBytes = 0;
+        for (long[] trajectory : trajectories) {
+            trajectoriesBytes += (long) trajectory.length * Long.BYTES;
+        }
+        return (lastGeneration != null ? 2 : 1) * gridBytes + trajectoriesBytes + (long) observedCellsX.length * Integer.BYTES * 2;
+    }
+
+    public Generation getGenerationZero() {
+        return generationZero;
+    }
+
+    public RuleSet getRuleSet() {
+        return ruleSet;
+    }
+
+    public int[] getObservedCellsX() {
+        return observedCellsX;
+    }
+
+    public int[] getObservedCellsY() {
+        return observedCellsY;
+    }
+
+    long[][] getTrajectories() {
+        return trajectories;
+    }
+
+    public long getRecordedGenerations() {
+        return recordedGenerations;
+    }
+
+    public long getCycleStart() {
+        return cycleStart;
+    }
+
+    public long getCycleLength() {
+        return cycleLength;
+    }
+
+    public Generation getLastGeneration() {
+        return lastGeneration;
+    }
+}
@@ -0,0 +1,153 @@
+package engine.cache;
+
+import model.Generation;
+import model.RuleSet;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Class responsible for caching the played games by their seed and rules, so repeated games aren't played again.
+ * A seed is found by the hash of its cells, then compared cell by cell, so two seeds never share a cached game.
+ * The cache is bounded by the memory of its games and evicts the least recently used ones first.
+ * Thread-safe - a single cache can be shared by every engine of a JVM.
+ *
+ * @author - Viktor Kurtev
+ */
+public final class ResultCache {
+
+    /**
+     * Constant for the default memory of the cached games - 64 MB.
+     */
+    public static final long DEFAULT_MAX_BYTES = 64L << 20;
+
+    private final long maxBytes;
+
+    /**
+     * Variable containing the cached games in access order - the least recently used first.
+     */
+    private final LinkedHashMap<SeedKey, CachedGame> cachedGames;
+
+    private long sizeBytes;
+    private long hitsCount;
+    private long missesCount;
+
+    public ResultCache() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * @param maxBytes memory of the cached games, beyond which the least recently used ones are evicted.
+     */
+    public ResultCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("The size of the cache should be positive, got " + maxBytes + "!");
+        }
+        this.maxBytes = maxBytes;
+        this.cachedGames = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Method responsible for finding the cached game of a seed.
+     *
+     * @param generationZero seed of the game.
+     * @param ruleSet        rules of the game.
+     * @return the cached game, or null when the seed isn't cached with these rules.
+     */
+    public synchronized CachedGame get(Generation generationZero, RuleSet ruleSet) {
+        CachedGame cachedGame = cachedGames.get(new SeedKey(generationZero, ruleSet));
+        if (cachedGame == null) {
+            missesCount++;
+        } else {
+            hitsCount++;
+        }
+        return cachedGame;
+    }
+
+    /**
+     * Method responsible for caching a game, replacing the cached game of the same seed and rules.
+     * A game bigger than the whole cache isn't cached.
+     *
+     * @param cachedGame to be cached.
+     */
+    public synchronized void put(CachedGame cachedGame) {
+        long gameSizeBytes = cachedGame.getSizeBytes();
+        if (gameSizeBytes > maxBytes) {
+            return;
+        }
+        CachedGame replacedGame = cachedGames.put(new SeedKey(cachedGame.getGenerationZero(), cachedGame.getRuleSet()), cachedGame);
+        if (replacedGame != null) {
+            sizeBytes -= replacedGame.getSizeBytes();
+        }
+        sizeBytes += gameSizeBytes;
+        Iterator<Map.Entry<SeedKey, CachedGame>> leastRecentlyUsed = cachedGames.entrySet().iterator();
+        while (sizeBytes > maxBytes) {
+            sizeBytes -= leastRecentlyUsed.next().getValue().getSizeBytes();
+            leastRecentlyUsed.remove();
+        }
+    }
+
+    /**
+     * Method responsible for the calculation of the number of generations that the trajectories of a game can take.
+     *
+     * @param observedCellsCount number of observed cells of the game.
+     * @return number of generations after which a game can't be cached.
+     */
+    public long getMaxRecordedGenerations(int observedCellsCount) {
+        return maxBytes / Math.max(1, observedCellsCount) * Byte.SIZE;
+    }
+
+    public synchronized long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public synchronized int getGamesCount() {
+        return cachedGames.size();
+    }
+
+    public synchronized long getHitsCount() {
+        return hitsCount;
+    }
+
+    public synchronized long getMissesCount() {
+        return missesCount;
+    }
+
+    /**
+     * Class responsible for the identity of a seed - its cells and the rules it is played with.
+     */
+    private static final class SeedKey {
+
+        private final Generation generationZero;
+        private final RuleSet ruleSet;
+        private final int hash;
+
+        private SeedKey(Generation generationZero, RuleSet ruleSet) {
+            this.generationZero = generationZero;
+            this.ruleSet = ruleSet;
+            this.hash = 31 * (31 * generationZero.getCellsHash() + generationZero.getWidth()) + ruleSet.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SeedKey)) {
+                return false;
+            }
+            SeedKey seedKey = (SeedKey) o;
+            return hash == seedKey.hash
+                    && ruleSet.equals(seedKey.ruleSet)
+                    && generationZero.getHeight() == seedKey.generationZero.getHeight()
+                    && generationZero.getWidth() == seedKey.generationZero.getWidth()
+                    && generationZero.hasSameCells(seedKey.generationZero);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
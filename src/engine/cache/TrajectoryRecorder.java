@@ -0,0 +1,115 @@
+package engine.cache;
+
+import model.Generation;
+import model.RuleSet;
+
+import java.util.Arrays;
+
+/**
+ * Class responsible for recording the trajectories of the observed cells of a game while it is played, for the ResultCache.
+ * Fed with the green counts after every counted generation - a cell was green in a generation when its count grew.
+ * Stops recording once the trajectories couldn't fit the cache, the game is then played on without being cached.
+ *
+ * @author - Viktor Kurtev
+ */
+public final class TrajectoryRecorder {
+
+    private final long[][] trajectories;
+    private final long[] lastGreenCounts;
+    private final long maxRecordedGenerations;
+    private long recordedGenerations;
+    private long cycleStart = CachedGame.NO_CYCLE;
+    private long cycleLength;
+    private boolean overflowed;
+
+    /**
+     * @param observedCellsCount     number of observed cells of the game.
+     * @param maxRecordedGenerations number of generations after which the recording stops.
+     */
+    public TrajectoryRecorder(int observedCellsCount, long maxRecordedGenerations) {
+        this.trajectories = new long[observedCellsCount][1];
+        this.lastGreenCounts = new long[observedCellsCount];
+        this.maxRecordedGenerations = maxRecordedGenerations;
+    }
+
+    /**
+     * Creates a recorder that extends the trajectories of a cached game, to be resumed from its last Generation.
+     *
+     * @param cachedGame             resumed, which has a last Generation.
+     * @param maxRecordedGenerations number of generations after which the recording stops.
+     */
+    public TrajectoryRecorder(CachedGame cachedGame, long maxRecordedGenerations) {
+        long[][] cachedTrajectories = cachedGame.getTrajectories();
+        this.trajectories = new long[cachedTrajectories.length][];
+        for (int i = 0; i < trajectories.length; i++) {
+            trajectories[i] = cachedTrajectories[i].clone();
+        }
+        this.lastGreenCounts = cachedGame.getLastGreenCounts();
+        this.maxRecordedGenerations = maxRecordedGenerations;
+        this.recordedGenerations = cachedGame.getRecordedGenerations();
+    }
+
+    /**
+     * Method responsible for recording the next generation.
+     *
+     * @param greenCounts of the observed cells, including the next generation.
+     */
+    public void record(long[] greenCounts) {
+        if (overflowed) {
+            return;
+        }
+        if (recordedGenerations == maxRecordedGenerations) {
+            overflowed = true;
+            return;
+        }
+        int word = (int) (recordedGenerations >>> 6);
+        for (int i = 0; i < trajectories.length; i++) {
+            if (word == trajectories[i].length) {
+                trajectories[i] = Arrays.copyOf(trajectories[i], word * 2);
+            }
+            if (greenCounts[i] != lastGreenCounts[i]) {
+                trajectories[i][word] |= 1L << recordedGenerations; // Shifts by recordedGenerations % 64.
+                lastGreenCounts[i] = greenCounts[i];
+            }
+        }
+        recordedGenerations++;
+    }
+
+    /**
+     * Method responsible for recording the cycle the game entered.
+     *
+     * @param cycleStart  generation from which the game repeats.
+     * @param cycleLength number of generations after which it repeats, or a multiple of it.
+     */
+    public void recordCycle(long cycleStart, long cycleLength) {
+        this.cycleStart = cycleStart;
+        this.cycleLength = cycleLength;
+    }
+
+    /**
+     * Method responsible for the creation of the cached game from the recording.
+     * A game in a cycle is cached once the trajectories hold a whole cycle, so it needs no last Generation.
+     *
+     * @param generationZero copy of the seed, owned by the cached game.
+     * @param lastGeneration copy of the last Generation, owned by the cached game, or null when the game entered a cycle.
+     * @return the cached game, or null when the recording stopped before the end of the game.
+     */
+    public CachedGame toCachedGame(Generation generationZero, RuleSet ruleSet, int[] observedCellsX, int[] observedCellsY, Generation lastGeneration) {
+        if (overflowed || (cycleStart != CachedGame.NO_CYCLE && recordedGenerations < cycleStart + cycleLength)) {
+            return null;
+        }
+        return new CachedGame(generationZero, ruleSet, observedCellsX, observedCellsY, trajectories, recordedGenerations,
+                cycleStart, cycleLength, cycleStart == CachedGame.NO_CYCLE ? lastGeneration : null);
+    }
+
+    /**
+     * @return True until the recording stops at the bounds of the cache - the generations are recorded one at a time until then.
+     */
+    public boolean isRecording() {
+        return !overflowed && recordedGenerations < maxRecordedGenerations;
+    }
+
+    public boolean hasCycle() {
+        return cycleStart != CachedGame.NO_CYCLE;
+    }
+}
@@ -0,0 +1,399 @@
+package engine.distributed;
+
+import engine.IGame;
+import engine.service.GridFileService;
+import exception.InvalidUserInputException;
+import model.Generation;
+import model.ObservedCellInfo;
+import model.RuleSet;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class responsible for running a "GreenVsRed" game across several worker processes, for grids too big for a single one.
+ * The grid is split into strips of rows, one per worker ( see StripWorker ). The coordinator sends every worker its strip
+ * and its observed cells, the workers exchange their border rows between themselves, and every worker sends back the green counts of its observed cells.
+ * The workers are started as JVMs on this machine and connect over the loopback address, or run as threads of this JVM.
+ * The coordinator never holds the grid - the strips are read straight from a mapped grid file, or from a given Generation.
+ * Writes one result line per observed cell, in the order of the observed cells : x,y,N,greenCount
+ *
+ * @author - Viktor Kurtev
+ */
+public class DistributedGreenVsRed implements IGame {
+
+    /**
+     * Constant for the maximum depth of the halos - the number of generations created between two halo exchanges.
+     */
+    public static final int DEFAULT_HALO_DEPTH = 8;
+
+    /**
+     * Constant for the time given to the workers to connect to the coordinator.
+     */
+    private static final int CONNECT_TIMEOUT_MILLIS = 60_000;
+
+    /**
+     * Constant for the default time given to the workers to play the game and send their green counts.
+     */
+    public static final int DEFAULT_RESULT_TIMEOUT_MILLIS = 3_600_000;
+
+    /**
+     * Constant for the time given to a worker to exit once it is destroyed or interrupted - a JVM is destroyed forcibly after it.
+     */
+    private static final long WORKER_EXIT_TIMEOUT_MILLIS = 5_000;
+
+    private final String INVALID_OBSERVED_CELL_EXCEPTION_MESSAGE = "Invalid observed cell - expected x,y in bounds of the grid and the same N for every cell!";
+
+    /**
+     * Variable containing the grid file of the game, played by start().
+     */
+    private final Path gridFile;
+
+    /**
+     * Variable containing the cells observed by start().
+     */
+    private final List<ObservedCellInfo> observedCellsInfo;
+
+    /**
+     * Variable containing the stream to which the results are written.
+     */
+    private final PrintStream resultsOut;
+
+    /**
+     * Variable containing the maximum number of workers - a grid has at least a row per worker.
+     */
+    private final int workersCount;
+
+    /**
+     * Variable containing whether the workers are started as JVMs or as threads of this JVM.
+     */
+    private final boolean workerProcesses;
+
+    /**
+     * Variable containing the rules with which the games are played.
+     */
+    private final RuleSet ruleSet;
+
+    /**
+     * Variable containing the time given to the workers to play the game and send their green counts, so a hung worker fails the game.
+     */
+    private final int resultTimeoutMillis;
+
+    /**
+     * Variable containing the grid of the grid file, held by the mappings of its rows from setup on.
+     */
+    private Generation gridFileGeneration;
+
+    /**
+     * @param gridFile          binary grid file ( see GridFileService ) of the game played by start().
+     * @param observedCellsInfo the cells observed by start(), all with the same number of generations N.
+     * @param resultsOut        to which a result line per observed cell is written.
+     * @param workersCount      maximum number of workers.
+     * @param workerProcesses   True to start every worker as a JVM, False to run the workers as threads of this JVM.
+     * @param ruleSet           rules with which the games are played.
+     */
+    public DistributedGreenVsRed(Path gridFile, List<ObservedCellInfo> observedCellsInfo, PrintStream resultsOut,
+                                 int workersCount, boolean workerProcesses, RuleSet ruleSet) {
+        this(gridFile, observedCellsInfo, resultsOut, workersCount, workerProcesses, ruleSet, DEFAULT_RESULT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @param gridFile            binary grid file ( see GridFileService ) of the game played by start().
+     * @param observedCellsInfo   the cells observed by start(), all with the same number of generations N.
+     * @param resultsOut          to which a result line per observed cell is written.
+     * @param workersCount        maximum number of workers.
+     * @param workerProcesses     True to start every worker as a JVM, False to run the workers as threads of this JVM.
+     * @param ruleSet             rules with which the games are played.
+     * @param resultTimeoutMillis time given to a worker to send its green counts once it has its strip, after which the game fails.
+     */
+    public DistributedGreenVsRed(Path gridFile, List<ObservedCellInfo> observedCellsInfo, PrintStream resultsOut,
+                                 int workersCount, boolean workerProcesses, RuleSet ruleSet, int resultTimeoutMillis) {
+        if (workersCount <= 0) {
+            throw new IllegalArgumentException("The number of workers should be positive, got " + workersCount + "!");
+        }
+        if (resultTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("The result timeout should be positive, got " + resultTimeoutMillis + "!");
+        }
+        this.gridFile = gridFile;
+        this.observedCellsInfo = observedCellsInfo;
+        this.resultsOut = resultsOut;
+        this.workersCount = workersCount;
+        this.workerProcesses = workerProcesses;
+        this.ruleSet = ruleSet;
+        this.resultTimeoutMillis = resultTimeoutMillis;
+    }
+
+    /**
+     * Method responsible for the execution of the distributed game.
+     */
+    @Override
+    public void execute() {
+        setup();
+        start();
+    }
+
+    /**
+     * Method responsible for mapping the grid file and validating the observed cells before playing the game.
+     */
+    @Override
+    public void setup() {
+        try {
+            gridFileGeneration = new GridFileService().loadGrid(gridFile).getGeneration();
+            validateObservedCells(gridFileGeneration.getHeight(), gridFileGeneration.getWidth(), observedCellsInfo);
+        } catch (IOException e) {
+            System.out.println("Setup failed!");
+            System.out.println(e.getMessage());
+            gridFileGeneration = null;
+        }
+    }
+
+    /**
+     * Method responsible for playing the game of the grid file on the workers and writing the results.
+     */
+    @Override
+    public void start() {
+        if (gridFileGeneration == null) {
+            return;
+        }
+        Generation generation = gridFileGeneration;
+        try {
+            long[] greenCounts = play(generation.getHeight(), generation.getWidth(), observedCellsInfo,
+                    (x, row) -> generation.readWords(x, 0, row, 0, row.length));
+            for (int i = 0; i < greenCounts.length; i++) {
+                ObservedCellInfo observedCellInfo = observedCellsInfo.get(i);
+                resultsOut.println(observedCellInfo.getX() + "," + observedCellInfo.getY() + "," + observedCellInfo.getN() + "," + greenCounts[i]);
+            }
+        } catch (IOException e) {
+            System.out.println("Distributed game failed!");
+            System.out.println(e.getMessage());
+        } finally {
+            resultsOut.flush();
+        }
+    }
+
+    /**
+     * Method responsible for running the game on a given Generation Zero across the workers, without output.
+     *
+     * @param generationZero    first generation of cells, which is left unchanged.
+     * @param observedCellsInfo the cells to be observed, all with the same number of generations N.
+     * @return numbers of generations in which each observed cell was green, in the order of the observed cells.
+     * @throws IllegalArgumentException when an observed cell is out of bounds or the cells have different N.
+     * @throws UncheckedIOException     when a worker fails.
+     */
+    public long[] simulate(Generation generationZero, List<ObservedCellInfo> observedCellsInfo) {
+        try {
+            validateObservedCells(generationZero.getHeight(), generationZero.getWidth(), observedCellsInfo);
+        } catch (InvalidUserInputException e) {
+            throw new IllegalArgumentException(e.getMessage());
+        }
+        try {
+            return play(generationZero.getHeight(), generationZero.getWidth(), observedCellsInfo,
+                    (x, row) -> generationZero.readWords(x, 0, row, 0, row.length));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Method responsible for the validation of the observed cells of a game.
+     *
+     * @throws InvalidUserInputException when there is no observed cell, one is out of bounds, N is negative or the cells have different N.
+     */
+    private void validateObservedCells(int height, int width, List<ObservedCellInfo> observedCellsInfo) throws InvalidUserInputException {
+        if (observedCellsInfo.isEmpty()) {
+            throw new InvalidUserInputException(INVALID_OBSERVED_CELL_EXCEPTION_MESSAGE);
+        }
+        for (ObservedCellInfo observedCellInfo : observedCellsInfo) {
+            if (observedCellInfo.getX() < 0 || observedCellInfo.getX() >= height || observedCellInfo.getY() < 0 || observedCellInfo.getY() >= width
+                    || observedCellInfo.getN() < 0 || observedCellInfo.getN() != observedCellsInfo.get(0).getN()) {
+                throw new InvalidUserInputException(INVALID_OBSERVED_CELL_EXCEPTION_MESSAGE);
+            }
+        }
+    }
+
+    /**
+     * Method responsible for playing a game on the workers - starting them, sending them their strips and collecting their green counts.
+     * The strips are as even as possible, and the halo depth is bounded by the shortest strip, since a halo is taken from a single neighbour.
+     *
+     * @param rowReader reads a row of Generation Zero into an array of wordsPerRow words.
+     * @return numbers of generations in which each observed cell was green.
+     * @throws IOException when a worker can't be started, fails or doesn't answer in time.
+     */
+    private long[] play(int height, int width, List<ObservedCellInfo> observedCellsInfo, RowReader rowReader) throws IOException {
+        int workers = Math.min(workersCount, height);
+        int haloDepth = Math.min(DEFAULT_HALO_DEPTH, height / workers);
+        long n = observedCellsInfo.get(0).getN();
+        long[] greenCounts = new long[observedCellsInfo.size()];
+        List<Process> processes = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        List<Socket> connections = new ArrayList<>();
+        try (ServerSocket server = new ServerSocket(0, workers, InetAddress.getLoopbackAddress())) {
+            server.setSoTimeout(CONNECT_TIMEOUT_MILLIS);
+            for (int i = 0; i < workers; i++) {
+                startWorker(server.getLocalPort(), processes, threads);
+            }
+            // The workers connect in any order, the order of the connections is the order of the strips.
+            for (int i = 0; i < workers; i++) {
+                Socket connection = server.accept();
+                connection.setSoTimeout(CONNECT_TIMEOUT_MILLIS);
+                connections.add(connection);
+            }
+            int[] haloPorts = new int[workers];
+            for (int i = 0; i < workers; i++) {
+                haloPorts[i] = new DataInputStream(connections.get(i).getInputStream()).readInt();
+            }
+            long[] row = new long[Generation.getWordsPerRow(width)];
+            for (int i = 0; i < workers; i++) {
+                int fromRow = (int) ((long) height * i / workers);
+                int toRow = (int) ((long) height * (i + 1) / workers);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(connections.get(i).getOutputStream()));
+                out.writeInt(i);
+                out.writeInt(workers);
+                out.writeInt(i > 0 ? haloPorts[i - 1] : -1);
+                out.writeInt(height);
+                out.writeInt(width);
+                out.writeInt(fromRow);
+                out.writeInt(toRow);
+                out.writeInt(haloDepth);
+                out.writeInt(ruleSet.getBirthMask());
+                out.writeInt(ruleSet.getSurviveMask());
+                out.writeLong(n);
+                List<Integer> stripObservedCells = getStripObservedCells(observedCellsInfo, fromRow, toRow);
+                out.writeInt(stripObservedCells.size());
+                for (int observedCell : stripObservedCells) {
+                    out.writeInt(observedCellsInfo.get(observedCell).getX());
+                    out.writeInt(observedCellsInfo.get(observedCell).getY());
+                }
+                for (int x = fromRow; x < toRow; x++) {
+                    rowReader.readRow(x, row);
+                    for (long word : row) {
+                        out.writeLong(word);
+                    }
+                }
+                out.flush();
+            }
+            for (int i = 0; i < workers; i++) {
+                connections.get(i).setSoTimeout(resultTimeoutMillis); // The time of the whole game, since the workers play it in parallel.
+                DataInputStream in = new DataInputStream(new BufferedInputStream(connections.get(i).getInputStream()));
+                for (int observedCell : getStripObservedCells(observedCellsInfo,
+                        (int) ((long) height * i / workers), (int) ((long) height * (i + 1) / workers))) {
+                    greenCounts[observedCell] = in.readLong();
+                }
+            }
+            return greenCounts;
+        } finally {
+            for (Socket connection : connections) {
+                connection.close(); // A worker gives up its game once its control connection is closed, even if the game failed.
+            }
+            for (Process process : processes) {
+                process.destroy();
+            }
+            for (Thread thread : threads) {
+                thread.interrupt(); // Also closes the halo connections a worker thread is blocked on.
+            }
+            for (Process process : processes) {
+                awaitExit(process);
+            }
+            for (Thread thread : threads) {
+                awaitExit(thread);
+            }
+        }
+    }
+
+    /**
+     * Method responsible for waiting until a destroyed worker JVM exits, destroying it forcibly if it doesn't exit in time.
+     */
+    private static void awaitExit(Process process) {
+        try {
+            if (!process.waitFor(WORKER_EXIT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            process.destroyForcibly();
+        }
+    }
+
+    /**
+     * Method responsible for waiting until an interrupted worker thread exits.
+     * A thread that doesn't exit in time is left behind as a daemon - it gives up at its next halo exchange.
+     */
+    private static void awaitExit(Thread thread) {
+        try {
+            thread.join(WORKER_EXIT_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Method responsible for starting a single worker, which connects to the coordinator by itself.
+     *
+     * @param coordinatorPort on the loopback address, on which the coordinator accepts its workers.
+     * @param processes       to which the process of the worker is added, when it is a JVM.
+     * @param threads         to which the thread of the worker is added, when it runs in this JVM.
+     * @throws IOException when the JVM of the worker can't be started.
+     */
+    private void startWorker(int coordinatorPort, List<Process> processes, List<Thread> threads) throws IOException {
+        if (workerProcesses) {
+            processes.add(new ProcessBuilder(
+                    Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                    "-cp", System.getProperty("java.class.path"),
+                    StripWorker.class.getName(), String.valueOf(coordinatorPort))
+                    .inheritIO()
+                    .start());
+            return;
+        }
+        Thread worker = new Thread(() -> {
+            try {
+                new StripWorker(coordinatorPort).run();
+            } catch (IOException e) {
+                if (!(e instanceof InterruptedIOException) && !Thread.currentThread().isInterrupted()) { // A cancelled worker exits quietly.
+                    System.out.println("Worker failed!");
+                    System.out.println(e.getMessage());
+                }
+            }
+        }, "gvr-strip-worker");
+        worker.setDaemon(true);
+        threads.add(worker);
+        worker.start();
+    }
+
+    /**
+     * Method responsible for finding the observed cells of a strip.
+     *
+     * @return indexes of the observed cells with fromRow <= x < toRow, in the order of the observed cells.
+     */
+    private static List<Integer> getStripObservedCells(List<ObservedCellInfo> observedCellsInfo, int fromRow, int toRow) {
+        List<Integer> stripObservedCells = new ArrayList<>();
+        for (int i = 0; i < observedCellsInfo.size(); i++) {
+            if (observedCellsInfo.get(i).getX() >= fromRow && observedCellsInfo.get(i).getX() < toRow) {
+                stripObservedCells.add(i);
+            }
+        }
+        return stripObservedCells;
+    }
+
+    /**
+     * Interface for reading the rows of Generation Zero, from a mapped grid file or from a Generation.
+     */
+    @FunctionalInterface
+    private interface RowReader {
+
+        void readRow(int x, long[] row);
+    }
+
+}
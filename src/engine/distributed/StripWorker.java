@@ -0,0 +1,288 @@
+package engine.distributed;
+
+import engine.IStepKernel;
+import engine.enumeration.StepKernelEnum;
+import engine.enumeration.StepModeEnum;
+import engine.impl.GreenVsRed;
+import engine.impl.SwarStepKernel;
+import model.Generation;
+import model.RuleSet;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Class responsible for playing a strip of rows of a distributed game - one worker per strip, usually one JVM per worker.
+ * The worker holds its strip with a halo of haloDepth rows of each neighbour strip, so it creates haloDepth generations
+ * between two halo exchanges - an error at the edge of a halo moves a single row per generation, so the rows of the strip itself stay exact
+ * ( the same ghost zones as the TiledStepKernel ). Only the haloDepth border rows of a strip are exchanged, straight between the neighbour workers.
+ * The protocol of the control connection of the coordinator is :
+ * worker - its halo port ( int ),
+ * coordinator - worker index, workers count, halo port of the worker above ( -1 for the first one ), height, width, first row, row after the last row,
+ * halo depth, birth mask, survive mask ( ints ), number of generations N ( long ), observed cells count and their coordinates ( ints ), the rows of the strip ( longs ),
+ * worker - the green counts of its observed cells ( longs ), once the N generations are created.
+ * The coordinator sends nothing else, so a worker checks its control connection without blocking between two halo exchanges,
+ * and gives up the game once the coordinator has closed it - or once the thread of the worker is interrupted.
+ *
+ * @author - Viktor Kurtev
+ */
+public final class StripWorker {
+
+    /**
+     * Constant for the time given to a worker to connect to the worker below it.
+     */
+    private static final int CONNECT_TIMEOUT_MILLIS = 60_000;
+
+    /**
+     * Constant for the number of words of a strip with its halos above which the strip is held off the heap, in direct buffers.
+     */
+    private static final long MAX_HEAP_STRIP_WORDS = 1L << 24;
+
+    /**
+     * Variable containing the port of the control connection of the coordinator.
+     */
+    private final int coordinatorPort;
+
+    /**
+     * @param coordinatorPort on the loopback address, on which the coordinator accepts its workers.
+     */
+    public StripWorker(int coordinatorPort) {
+        this.coordinatorPort = coordinatorPort;
+    }
+
+    /**
+     * Entry point of a worker started as its own JVM by the coordinator.
+     *
+     * @param args the port of the coordinator on the loopback address.
+     * @throws IOException when a connection fails, the worker exits then.
+     */
+    public static void main(String[] args) throws IOException {
+        new StripWorker(Integer.parseInt(args[0])).run();
+    }
+
+    /**
+     * Method responsible for playing a single strip, from the connection to the coordinator until the green counts are sent.
+     *
+     * @throws IOException when a connection fails or is closed by the other side, or InterruptedIOException when the game is cancelled.
+     */
+    public void run() throws IOException {
+        try (ServerSocketChannel haloServer = ServerSocketChannel.open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+             SocketChannel coordinator = SocketChannel.open(new InetSocketAddress(InetAddress.getLoopbackAddress(), coordinatorPort))) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(coordinator)));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(coordinator)));
+            out.writeInt(((InetSocketAddress) haloServer.getLocalAddress()).getPort());
+            out.flush();
+
+            int workerIndex = in.readInt();
+            int workersCount = in.readInt();
+            int upHaloPort = in.readInt();
+            int height = in.readInt();
+            int width = in.readInt();
+            int fromRow = in.readInt();
+            int toRow = in.readInt();
+            int haloDepth = in.readInt();
+            RuleSet ruleSet = new RuleSet(in.readInt(), in.readInt());
+            long n = in.readLong();
+            int[] observedCellsX = new int[in.readInt()];
+            int[] observedCellsY = new int[observedCellsX.length];
+            for (int i = 0; i < observedCellsX.length; i++) {
+                observedCellsX[i] = in.readInt();
+                observedCellsY[i] = in.readInt();
+            }
+
+            // The strip with the halos of both neighbours - rows out of the grid have no halo.
+            int localFromRow = Math.max(fromRow - haloDepth, 0);
+            int localToRow = Math.min(toRow + haloDepth, height);
+            Generation currentGeneration = allocateStrip(localToRow - localFromRow, width);
+            Generation nextGeneration = Generation.allocateLike(currentGeneration);
+            long[] row = new long[currentGeneration.getWordsPerRow()];
+            for (int i = fromRow; i < toRow; i++) {
+                for (int w = 0; w < row.length; w++) {
+                    row[w] = in.readLong();
+                }
+                currentGeneration.setRow(i - localFromRow, row);
+            }
+
+            try (SocketChannel up = workerIndex > 0 ? connect(upHaloPort) : null;
+                 SocketChannel down = workerIndex < workersCount - 1 ? accept(haloServer) : null) {
+                long[] greenCounts = new long[observedCellsX.length];
+                HaloExchange haloExchange = new HaloExchange(up, down, haloDepth, row.length);
+                IStepKernel stepKernel = new SwarStepKernel(new GreenVsRed(StepModeEnum.SEQUENTIAL, StepKernelEnum.SWAR, ForkJoinPool.commonPool(), ruleSet));
+                countObservedCells(currentGeneration, localFromRow, observedCellsX, observedCellsY, greenCounts);
+                Generation swappedGeneration;
+                int localHeight = currentGeneration.getHeight();
+                ByteBuffer probe = ByteBuffer.allocate(1);
+                coordinator.configureBlocking(false);
+                for (long generationIndex = 0; generationIndex < n; ) {
+                    if (isCancelled(coordinator, probe)) {
+                        throw new InterruptedIOException("The game was cancelled by the coordinator!");
+                    }
+                    int generations = (int) Math.min(haloDepth, n - generationIndex);
+                    haloExchange.exchange(currentGeneration, fromRow - localFromRow, toRow - localFromRow, row);
+                    for (int generation = 1; generation <= generations; generation++) {
+                        // The rows next to a halo edge are wrong one more row deep every generation, so they are not created at all.
+                        stepKernel.createNewCells(currentGeneration, nextGeneration,
+                                localFromRow == 0 ? 0 : generation,
+                                localToRow == height ? localHeight : localHeight - generation);
+                        swappedGeneration = currentGeneration;
+                        currentGeneration = nextGeneration;
+                        nextGeneration = swappedGeneration;
+                        countObservedCells(currentGeneration, localFromRow, observedCellsX, observedCellsY, greenCounts);
+                    }
+                    generationIndex += generations;
+                }
+                coordinator.configureBlocking(true);
+                for (long greenCount : greenCounts) {
+                    out.writeLong(greenCount);
+                }
+                out.flush();
+            }
+        }
+    }
+
+    /**
+     * Method responsible for the allocation of a strip with its halos - on the heap, or off it when it is large.
+     */
+    private static Generation allocateStrip(int height, int width) {
+        if ((long) height * Generation.getWordsPerRow(width) > MAX_HEAP_STRIP_WORDS) {
+            return Generation.allocateOffHeap(height, width);
+        }
+        return new Generation(height, width);
+    }
+
+    /**
+     * Method responsible for checking whether the game was cancelled - the thread of the worker was interrupted,
+     * or the coordinator closed the control connection, which is read without blocking.
+     *
+     * @param coordinator control connection, in non-blocking mode.
+     * @param probe       buffer for the read.
+     */
+    private static boolean isCancelled(SocketChannel coordinator, ByteBuffer probe) throws IOException {
+        if (Thread.currentThread().isInterrupted()) {
+            return true;
+        }
+        probe.clear();
+        return coordinator.read(probe) < 0;
+    }
+
+    /**
+     * Method responsible for counting a generation of the strip for every observed cell that is green in it.
+     *
+     * @param localFromRow row of the grid of the first row held by the worker.
+     */
+    private static void countObservedCells(Generation generation, int localFromRow, int[] observedCellsX, int[] observedCellsY, long[] greenCounts) {
+        for (int i = 0; i < observedCellsX.length; i++) {
+            if (generation.isGreen(observedCellsX[i] - localFromRow, observedCellsY[i])) {
+                greenCounts[i]++;
+            }
+        }
+    }
+
+    /**
+     * Method responsible for connecting to the halo port of the worker above.
+     */
+    private static SocketChannel connect(int haloPort) throws IOException {
+        SocketChannel channel = SocketChannel.open(new InetSocketAddress(InetAddress.getLoopbackAddress(), haloPort));
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true); // A halo is a single small message, it should leave at once.
+        return channel;
+    }
+
+    /**
+     * Method responsible for accepting the connection of the worker below.
+     */
+    private static SocketChannel accept(ServerSocketChannel haloServer) throws IOException {
+        haloServer.socket().setSoTimeout(CONNECT_TIMEOUT_MILLIS);
+        SocketChannel channel = haloServer.socket().accept().getChannel();
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        return channel;
+    }
+
+    /**
+     * Class responsible for the exchange of the halos of a strip with the workers above and below.
+     * On every connection the upper worker sends first and the lower one receives first, so two workers never wait on each other's send -
+     * the waits follow the strips from the top to the bottom and back. The buffers are direct and reused, so an exchange allocates nothing.
+     */
+    private static final class HaloExchange {
+
+        private final SocketChannel up;
+        private final SocketChannel down;
+        private final int haloDepth;
+        private final ByteBuffer sendBuffer;
+        private final ByteBuffer receiveBuffer;
+        private final LongBuffer sendWords;
+        private final LongBuffer receiveWords;
+
+        private HaloExchange(SocketChannel up, SocketChannel down, int haloDepth, int wordsPerRow) {
+            this.up = up;
+            this.down = down;
+            this.haloDepth = haloDepth;
+            this.sendBuffer = ByteBuffer.allocateDirect(haloDepth * wordsPerRow * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            this.receiveBuffer = ByteBuffer.allocateDirect(haloDepth * wordsPerRow * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            this.sendWords = sendBuffer.asLongBuffer();
+            this.receiveWords = receiveBuffer.asLongBuffer();
+        }
+
+        /**
+         * Method responsible for sending the border rows of the strip to the neighbours and receiving theirs into the halos.
+         *
+         * @param generation holding the strip and its halos.
+         * @param stripFrom  local row of the first row of the strip.
+         * @param stripTo    local row after the last row of the strip.
+         * @param row        scratch row, wordsPerRow long.
+         */
+        private void exchange(Generation generation, int stripFrom, int stripTo, long[] row) throws IOException {
+            if (down != null) {
+                send(down, generation, stripTo - haloDepth, row);
+            }
+            if (up != null) {
+                receive(up, generation, stripFrom - haloDepth, row);
+                send(up, generation, stripFrom, row);
+            }
+            if (down != null) {
+                receive(down, generation, stripTo, row);
+            }
+        }
+
+        private void send(SocketChannel channel, Generation generation, int fromRow, long[] row) throws IOException {
+            sendWords.clear();
+            for (int i = fromRow; i < fromRow + haloDepth; i++) {
+                generation.readWords(i, 0, row, 0, row.length);
+                sendWords.put(row);
+            }
+            sendBuffer.clear();
+            while (sendBuffer.hasRemaining()) {
+                channel.write(sendBuffer);
+            }
+        }
+
+        private void receive(SocketChannel channel, Generation generation, int fromRow, long[] row) throws IOException {
+            receiveBuffer.clear();
+            while (receiveBuffer.hasRemaining()) {
+                if (channel.read(receiveBuffer) < 0) {
+                    throw new EOFException("The neighbour worker closed its halo connection!");
+                }
+            }
+            receiveWords.clear();
+            for (int i = fromRow; i < fromRow + haloDepth; i++) {
+                receiveWords.get(row);
+                generation.setRow(i, row);
+            }
+        }
+    }
+
+}
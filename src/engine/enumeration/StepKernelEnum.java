@@ -0,0 +1,11 @@
+package engine.enumeration;
+
+/**
+ * Enum that contains the kernels with which the cells of a generation can be created.
+ * SCALAR - cell by cell.
+ * SWAR - 64 cells at once, with bitwise operations on the words of the bit-packed grid.
+ * TILED - SWAR, creating several generations at once in cache-sized tiles of the grid ( temporal blocking ).
+ */
+public enum StepKernelEnum {
+    SCALAR, SWAR, TILED
+}
@@ -0,0 +1,12 @@
+package engine.enumeration;
+
+/**
+ * Enum that contains the modes in which a generation can be created.
+ * SEQUENTIAL - all rows are created by the calling thread.
+ * PARALLEL - the rows are split into bands which are created on a ForkJoinPool.
+ * HASHLIFE - the generation is held as a hash-consed quadtree whose nodes memoize their generations up to half their size later,
+ * so the observed cells are counted through jumps of many generations at once, for structured grids and large N.
+ */
+public enum StepModeEnum {
+    SEQUENTIAL, PARALLEL, HASHLIFE
+}
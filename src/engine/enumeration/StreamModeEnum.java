@@ -0,0 +1,10 @@
+package engine.enumeration;
+
+/**
+ * Enum that contains the modes in which the generations of a game are streamed.
+ * GENERATIONS - every frame holds every row of the generation.
+ * DIFFS - the first frame of a game holds every row, every later frame the rows that changed since the last frame, as masks of the changed cells.
+ */
+public enum StreamModeEnum {
+    GENERATIONS, DIFFS
+}
@@ -0,0 +1,86 @@
+package engine.impl;
+
+import engine.IStepKernel;
+import model.Generation;
+
+/**
+ * Class responsible for the creation of the next generation by recomputing only the rows that can change.
+ * A row can only change if it or one of its neighbour rows changed in the last step, so every other row is skipped.
+ * A skipped row is left as it is in the new generation's buffer - the buffer still holds the generation before the last one,
+ * whose row was the same, since the row itself didn't change.
+ * The runs of rows that can change are created by another kernel, after which each of them is compared to the last generation to track the changes.
+ * Holds no state of its own - the changes are tracked by the generations - so it can create bands of rows in parallel.
+ *
+ * @author - Viktor Kurtev
+ */
+public final class ActiveRowsStepKernel implements IStepKernel {
+
+    /**
+     * Variable containing the kernel used to create the rows that can change.
+     */
+    private final IStepKernel rowsKernel;
+
+    public ActiveRowsStepKernel(IStepKernel rowsKernel) {
+        this.rowsKernel = rowsKernel;
+    }
+
+    /**
+     * Method responsible for the creation of the rows of the new generation that can change.
+     * Relies on the new generation being the generation the last one was created from, as with the buffers of a game,
+     * otherwise the rows of the last generation are all marked as changed and nothing is skipped.
+     *
+     * @param lastGeneration holds the last generation of cells.
+     * @param newGeneration  will hold the new generation of cells.
+     * @param fromRow        first row to be created.
+     * @param toRow          row after the last row to be created.
+     */
+    @Override
+    public void createNewCells(Generation lastGeneration, Generation newGeneration, int fromRow, int toRow) {
+        int runStart = -1;
+        for (int i = fromRow; i < toRow; i++) {
+            if (canRowChange(lastGeneration, i)) {
+                if (runStart < 0) {
+                    runStart = i;
+                }
+            } else {
+                if (runStart >= 0) {
+                    createRun(lastGeneration, newGeneration, runStart, i);
+                    runStart = -1;
+                }
+                newGeneration.setRowChanged(i, false);
+            }
+        }
+        if (runStart >= 0) {
+            createRun(lastGeneration, newGeneration, runStart, toRow);
+        }
+    }
+
+    /**
+     * Method responsible for checking whether a row can change in the next generation.
+     *
+     * @param lastGeneration holds the last generation of cells.
+     * @param x              height coordinate of the row.
+     * @return True if the row or one of its neighbour rows changed in the last generation.
+     */
+    private static boolean canRowChange(Generation lastGeneration, int x) {
+        return lastGeneration.isRowChanged(x)
+                || (x > 0 && lastGeneration.isRowChanged(x - 1))
+                || (x < lastGeneration.getHeight() - 1 && lastGeneration.isRowChanged(x + 1));
+    }
+
+    /**
+     * Method responsible for the creation of a run of rows that can change and the tracking of which of them did.
+     *
+     * @param lastGeneration holds the last generation of cells.
+     * @param newGeneration  will hold the new generation of cells.
+     * @param fromRow        first row of the run.
+     * @param toRow          row after the last row of the run.
+     */
+    private void createRun(Generation lastGeneration, Generation newGeneration, int fromRow, int toRow) {
+        rowsKernel.createNewCells(lastGeneration, newGeneration, fromRow, toRow);
+        for (int i = fromRow; i < toRow; i++) {
+            newGeneration.setRowChanged(i, !newGeneration.hasSameRow(i, lastGeneration));
+        }
+    }
+
+}
@@ -0,0 +1,297 @@
+package engine.impl;
+
+import engine.IGame;
+import engine.enumeration.StepKernelEnum;
+import engine.enumeration.StepModeEnum;
+import engine.service.GridLoaderService;
+import engine.service.ValidatorService;
+import exception.InvalidUserInputException;
+import model.Generation;
+import model.ObservedCellInfo;
+import model.RuleSet;
+import model.Scenario;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParsePosition;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Class responsible for running a batch of "GreenVsRed" games read from a file of scenarios, across all cores of one JVM.
+ * The file holds seeds in the same format as the user input of a single game - a grid size line and the grid rows -
+ * each followed by one or more observed cell lines ( x,y,N ), one scenario per line. Blank lines and lines starting with # are skipped outside of the grid rows.
+ * Writes one result line per scenario, in the order of the file : seedIndex,x,y,N,greenCount
+ *
+ * @author - Viktor Kurtev
+ */
+public class BatchGreenVsRed implements IGame {
+
+    private final String INVALID_SCENARIOS_INPUT_EXCEPTION_MESSAGE = "Invalid scenarios input at line ";
+    private final String INVALID_GRID_SIZE_INPUT_EXCEPTION_MESSAGE = " - expected grid size height,width ( ";
+    private final String INVALID_GRID_VALUE_INPUT_EXCEPTION_MESSAGE = " - expected a grid row of 0 - Red or 1 - Green with length equal to grid width!";
+    private final String MISSING_OBSERVED_CELL_INFO_EXCEPTION_MESSAGE = " - expected at least one observed cell x,y,N for the seed!";
+
+    /**
+     * Variable used to access validation methods for the scenarios input.
+     */
+    private final ValidatorService validatorService;
+
+    /**
+     * Variable used to load the seeds of the scenarios input.
+     */
+    private final GridLoaderService gridLoaderService;
+
+    /**
+     * Variable containing the file from which the scenarios are read.
+     */
+    private final Path scenariosFile;
+
+    /**
+     * Variable containing the stream to which the results are written.
+     */
+    private final PrintStream resultsOut;
+
+    /**
+     * Variable containing the kernel with which the games are played.
+     */
+    private final StepKernelEnum stepKernel;
+
+    /**
+     * Variable containing the rules with which the games are played.
+     */
+    private final RuleSet ruleSet;
+
+    /**
+     * Variable containing the number of threads on which the games are played.
+     */
+    private final int threads;
+
+    /**
+     * Variable containing the scenarios read during setup.
+     */
+    private List<Scenario> scenarios;
+
+    public BatchGreenVsRed(Path scenariosFile, PrintStream resultsOut, StepKernelEnum stepKernel) {
+        this(scenariosFile, resultsOut, stepKernel, Runtime.getRuntime().availableProcessors());
+    }
+
+    public BatchGreenVsRed(Path scenariosFile, PrintStream resultsOut, StepKernelEnum stepKernel, int threads) {
+        this(scenariosFile, resultsOut, stepKernel, threads, RuleSet.GREEN_VS_RED);
+    }
+
+    public BatchGreenVsRed(Path scenariosFile, PrintStream resultsOut, StepKernelEnum stepKernel, int threads, RuleSet ruleSet) {
+        this(scenariosFile, resultsOut, stepKernel, threads, ruleSet, new ValidatorService());
+    }
+
+    /**
+     * @param scenariosFile    from which the scenarios are read.
+     * @param resultsOut       to which a result line per scenario is written.
+     * @param stepKernel       kernel with which the games are played.
+     * @param threads          number of threads on which the games are played.
+     * @param ruleSet          rules with which the games are played.
+     * @param validatorService with the bounds of the seeds - the classic ones, or those of the large-grid mode.
+     */
+    public BatchGreenVsRed(Path scenariosFile, PrintStream resultsOut, StepKernelEnum stepKernel, int threads, RuleSet ruleSet,
+                           ValidatorService validatorService) {
+        this.ruleSet = ruleSet;
+        this.validatorService = validatorService;
+        this.gridLoaderService = new GridLoaderService(validatorService);
+        this.scenariosFile = scenariosFile;
+        this.resultsOut = resultsOut;
+        this.stepKernel = stepKernel;
+        this.threads = threads;
+        this.scenarios = new ArrayList<>();
+    }
+
+    /**
+     * Method responsible for the execution of the batch.
+     */
+    @Override
+    public void execute() {
+        setup();
+        start();
+    }
+
+    /**
+     * Method responsible for reading the scenarios before playing them.
+     */
+    @Override
+    public void setup() {
+        try {
+            scenarios = readScenarios(Files.readAllBytes(scenariosFile));
+        } catch (IOException e) {
+            System.out.println("Setup failed!");
+            System.out.println(e.getMessage());
+            scenarios = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Method responsible for playing the scenarios and writing their results.
+     * Scenarios of the same seed and N are played in a single game that observes all of their cells.
+     * Every thread of the pool keeps a single GreenVsRed instance, whose generation buffers are reused by every game it plays.
+     * The results are written in the order of the scenarios, as soon as every game before them is done.
+     */
+    @Override
+    public void start() {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        ThreadLocal<GreenVsRed> engines = ThreadLocal.withInitial(() -> new GreenVsRed(StepModeEnum.SEQUENTIAL, stepKernel, ForkJoinPool.commonPool(), ruleSet));
+        try {
+            List<List<Scenario>> games = groupScenarios();
+            List<Future<long[]>> greenCounts = new ArrayList<>(games.size());
+            for (List<Scenario> game : games) {
+                List<ObservedCellInfo> observedCellsInfo = new ArrayList<>(game.size());
+                for (Scenario scenario : game) {
+                    observedCellsInfo.add(scenario.getObservedCellInfo());
+                }
+                greenCounts.add(executor.submit(() -> engines.get().simulate(game.get(0).getGenerationZero(), observedCellsInfo)));
+            }
+            for (int i = 0; i < games.size(); i++) {
+                long[] gameGreenCounts = greenCounts.get(i).get();
+                for (int j = 0; j < gameGreenCounts.length; j++) {
+                    printResult(games.get(i).get(j), gameGreenCounts[j]);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.out.println("Batch failed!");
+            System.out.println(e.getCause().getMessage());
+        } finally {
+            executor.shutdownNow();
+            resultsOut.flush();
+        }
+    }
+
+    /**
+     * Method responsible for grouping the consecutive scenarios of the same seed and N into games.
+     *
+     * @return games in the order of the scenarios, each holding at least one scenario.
+     */
+    private List<List<Scenario>> groupScenarios() {
+        List<List<Scenario>> games = new ArrayList<>();
+        List<Scenario> game = null;
+        for (Scenario scenario : scenarios) {
+            if (game == null || game.get(0).getSeedIndex() != scenario.getSeedIndex()
+                    || game.get(0).getObservedCellInfo().getN() != scenario.getObservedCellInfo().getN()) {
+                game = new ArrayList<>();
+                games.add(game);
+            }
+            game.add(scenario);
+        }
+        return games;
+    }
+
+    /**
+     * Method responsible for reading the seeds and their observed cells.
+     * Every seed is loaded by the GridLoaderService straight from the bytes of the file.
+     *
+     * @param scenariosInput bytes of the scenarios file, ASCII encoded.
+     * @return scenarios in the order of the input.
+     * @throws InvalidUserInputException when the input isn't valid, with the number of the invalid line.
+     */
+    private List<Scenario> readScenarios(byte[] scenariosInput) throws InvalidUserInputException {
+        List<Scenario> readScenarios = new ArrayList<>();
+        int seedIndex = 0;
+        int lineStart = skipBlankLines(scenariosInput, 0);
+        ParsePosition position = new ParsePosition(lineStart);
+        while (lineStart < scenariosInput.length) {
+            Generation generationZero;
+            try {
+                generationZero = gridLoaderService.loadGrid(scenariosInput, position);
+            } catch (InvalidUserInputException e) {
+                throw invalidInput(getLineNumber(scenariosInput, position.getErrorIndex()),
+                        position.getErrorIndex() == lineStart
+                                ? INVALID_GRID_SIZE_INPUT_EXCEPTION_MESSAGE + validatorService.getGridBoundsDescription() + " )!"
+                                : INVALID_GRID_VALUE_INPUT_EXCEPTION_MESSAGE).get();
+            }
+            int seedScenariosCount = 0;
+            lineStart = skipBlankLines(scenariosInput, position.getIndex());
+            int lineEnd = GridLoaderService.findLineEnd(scenariosInput, lineStart);
+            Optional<ObservedCellInfo> observedCellInfo;
+            while (lineStart < scenariosInput.length && (observedCellInfo = validatorService.validateObservedCellInfoInput(
+                    new String(scenariosInput, lineStart, lineEnd - lineStart, StandardCharsets.US_ASCII),
+                    generationZero.getHeight(), generationZero.getWidth())).isPresent()) {
+                readScenarios.add(new Scenario(seedIndex, generationZero, observedCellInfo.get()));
+                seedScenariosCount++;
+                lineStart = skipBlankLines(scenariosInput, GridLoaderService.skipLineEnding(scenariosInput, lineEnd));
+                lineEnd = GridLoaderService.findLineEnd(scenariosInput, lineStart);
+            }
+            if (seedScenariosCount == 0) {
+                throw invalidInput(getLineNumber(scenariosInput, lineStart), MISSING_OBSERVED_CELL_INFO_EXCEPTION_MESSAGE).get();
+            }
+            position.setIndex(lineStart);
+            seedIndex++;
+        }
+        return readScenarios;
+    }
+
+    /**
+     * Method responsible for skipping blank lines and comments.
+     *
+     * @param scenariosInput bytes of the scenarios file.
+     * @param lineStart      index of the start of a line.
+     * @return index of the start of the next line that isn't blank or a comment, or the length of the input.
+     */
+    private static int skipBlankLines(byte[] scenariosInput, int lineStart) {
+        while (lineStart < scenariosInput.length) {
+            int lineEnd = GridLoaderService.findLineEnd(scenariosInput, lineStart);
+            if (scenariosInput[lineStart] != '#' && !new String(scenariosInput, lineStart, lineEnd - lineStart, StandardCharsets.US_ASCII).isBlank()) {
+                break;
+            }
+            lineStart = GridLoaderService.skipLineEnding(scenariosInput, lineEnd);
+        }
+        return lineStart;
+    }
+
+    /**
+     * Method responsible for the number of the line at an index of the input, the last line for the end of the input.
+     *
+     * @param scenariosInput bytes of the scenarios file.
+     * @param index          in the input.
+     * @return number of the line, starting at 1.
+     */
+    private static int getLineNumber(byte[] scenariosInput, int index) {
+        int lineNumber = 1;
+        for (int i = 0; i < index; i++) {
+            if (scenariosInput[i] == '\n') {
+                lineNumber++;
+            }
+        }
+        return index == scenariosInput.length && index > 0 && scenariosInput[index - 1] == '\n' ? lineNumber - 1 : lineNumber;
+    }
+
+    /**
+     * Method responsible for the creation of the exception for an invalid line of the input.
+     *
+     * @param lineNumber of the invalid line.
+     * @param message    describing what was expected.
+     * @return supplier of the exception.
+     */
+    private Supplier<InvalidUserInputException> invalidInput(int lineNumber, String message) {
+        return () -> new InvalidUserInputException(INVALID_SCENARIOS_INPUT_EXCEPTION_MESSAGE + lineNumber + message);
+    }
+
+    /**
+     * Method responsible for the printing of the result of a single scenario.
+     *
+     * @param scenario   that was played.
+     * @param greenCount number of generations in which the observed cell was green.
+     */
+    private void printResult(Scenario scenario, long greenCount) {
+        ObservedCellInfo observedCellInfo = scenario.getObservedCellInfo();
+        resultsOut.println(scenario.getSeedIndex() + "," + observedCellInfo.getX() + "," + observedCellInfo.getY() + "," + observedCellInfo.getN() + "," + greenCount);
+    }
+
+}
@@ -1,18 +1,27 @@
 package engine.impl;
 
 import engine.IGreenVsRed;
+import engine.IStepKernel;
+import engine.cache.CachedGame;
+import engine.cache.ResultCache;
+import engine.cache.TrajectoryRecorder;
 import engine.enumeration.CellTypeEnum;
+import engine.enumeration.StepKernelEnum;
+import engine.enumeration.StepModeEnum;
+import engine.metrics.SimulationMetrics;
+import engine.stream.GenerationPublisher;
+import engine.service.CheckpointService;
 import engine.service.UserInputService;
 import engine.service.ValidatorService;
 import exception.InvalidUserInputException;
 import model.*;
 
 import java.io.IOException;
-import java.util.ArrayList;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Class responsible for holding the core logic for the "GreenVsRed" game, also called "Game of Life".
@@ -25,12 +34,38 @@ public class GreenVsRed implements IGreenVsRed {
     private final String INVALID_CELL_VALUE_INPUT_EXCEPTION_MESSAGE = "Please input: 0 for Red cell / 1 for Green cell!";
     private final String INVALID_CELL_NUMBER_INPUT_EXCEPTION_MESSAGE = "Please input correct number of cells for the row!";
     private final String INVALID_OBSERVED_CELL_INFO_INPUT_EXCEPTION_MESSAGE = "Please input x1,y1,N - Where x1 - height coordinate, y1 - width coordinate, N - number of generations to be created!";
-    private final String INVALID_GRID_SIZE_INPUT_EXCEPTION_MESSAGE = "The provided grid size isn't valid, it should be -> 0 < x <= y < 1000";
+    private final String INVALID_GRID_SIZE_INPUT_EXCEPTION_MESSAGE = "The provided grid size isn't valid, it should be -> ";
+
+    /**
+     * Constant for the maximum number of cells of a heatmap - the maximum length of an array.
+     */
+    private static final int MAX_HEATMAP_CELLS = Integer.MAX_VALUE - 8;
 
     /**
      * Variable used to access validation methods for user input.
+     * Replaced by a validator with larger bounds in the large-grid mode.
+     */
+    private ValidatorService validatorService;
+
+    /**
+     * Variable containing the first generation of the game, owned by this game only.
+     */
+    private final GenerationZero generationZero;
+
+    /**
+     * Variable containing the rules that form the next generation.
+     */
+    private final RuleSet ruleSet;
+
+    /**
+     * Variable containing the kernel used to create the next generation.
+     */
+    private final IStepKernel stepKernel;
+
+    /**
+     * Variable containing the kernel used to create blocks of generations at once with the TILED kernel, or null with the other kernels.
      */
-    private final ValidatorService validatorService;
+    private final TiledStepKernel tiledStepKernel;
 
     /**
      * Variable containing the info for a given cell that will be observed throughout the generations.
@@ -38,12 +73,160 @@ public class GreenVsRed implements IGreenVsRed {
     private ObservedCellInfo observedCellInfo;
 
     /**
-     * Variable containing the generations created throughout the workflow of the game.
+     * Variable containing the last created generation.
+     */
+    private Generation currentGeneration;
+
+    /**
+     * Variable containing the buffer into which the next generation is created.
+     * Swapped with the current generation after every iteration, so memory stays bound to two grids regardless of N.
+     */
+    private Generation nextGeneration;
+
+    /**
+     * Variable containing the copy of an earlier generation which the current one is compared to for cycle detection.
+     */
+    private Generation cycleCheckGeneration;
+
+    /**
+     * Variable containing the hash of the cells of the cycle check generation.
+     */
+    private int cycleCheckHash;
+
+    /**
+     * Variable containing the quadtree which creates the generations in HASHLIFE mode, or null in the other modes.
+     * Holds the current generation in HASHLIFE mode - the current Generation buffer only holds the first generation of a game.
+     */
+    private final HashLifeUniverse hashLifeUniverse;
+
+    /**
+     * Variable containing the number of generations N of the current game.
+     */
+    private long generationsCount;
+
+    /**
+     * Variable containing the height coordinates of the observed cells, or null when every cell of the grid is observed.
+     */
+    private int[] observedCellsX;
+
+    /**
+     * Variable containing the width coordinates of the observed cells, or null when every cell of the grid is observed.
+     */
+    private int[] observedCellsY;
+
+    /**
+     * Variable containing the number of generations throughout which each observed cell was green so far.
+     * Indexed as the observed cells, or by x * width + y when every cell of the grid is observed.
      */
-    private List<Generation> generationsHistory;
+    private long[] observedCellsGreenCounts;
+
+    /**
+     * Variable used to write and load checkpoints of the game.
+     */
+    private final CheckpointService checkpointService;
+
+    /**
+     * Variable containing the file into which checkpoints are written, or null when checkpoints are disabled.
+     */
+    private Path checkpointFile;
+
+    /**
+     * Variable containing the number of generations between two checkpoints.
+     */
+    private long checkpointInterval;
+
+    /**
+     * Variable containing the copy of the current generation that is being written as a checkpoint.
+     */
+    private Generation checkpointGeneration;
+
+    /**
+     * Variable containing the copy of the green counts that are being written as a checkpoint.
+     */
+    private long[] checkpointGreenCounts;
+
+    /**
+     * Variable containing the background thread writing the last checkpoint.
+     */
+    private Thread checkpointWriter;
+
+    /**
+     * Variable containing the metrics into which the games are recorded, or null when the metrics are disabled.
+     */
+    private SimulationMetrics metrics;
+
+    /**
+     * Variable containing whether the grids of this instance are held off the heap.
+     */
+    private boolean offHeapGrids;
+
+    /**
+     * Variable containing the cache of the games played through simulate(), or null when the games aren't cached.
+     */
+    private ResultCache resultCache;
+
+    /**
+     * Variable containing the recorder of the trajectories of the observed cells while a cached game is played, null otherwise.
+     */
+    private TrajectoryRecorder trajectoryRecorder;
+
+    /**
+     * Variable containing the publisher to which every generation is streamed, or null when the generations aren't streamed.
+     */
+    private GenerationPublisher generationPublisher;
+
+    /**
+     * Variable containing the copy of the quadtree that is streamed in HASHLIFE mode.
+     */
+    private Generation streamedGeneration;
 
     public GreenVsRed() {
+        this(StepModeEnum.SEQUENTIAL);
+    }
+
+    public GreenVsRed(StepModeEnum stepMode) {
+        this(stepMode, StepKernelEnum.SCALAR);
+    }
+
+    public GreenVsRed(StepModeEnum stepMode, StepKernelEnum stepKernel) {
+        this(stepMode, stepKernel, ForkJoinPool.commonPool());
+    }
+
+    public GreenVsRed(StepModeEnum stepMode, StepKernelEnum stepKernel, ForkJoinPool pool) {
+        this(stepMode, stepKernel, pool, RuleSet.GREEN_VS_RED);
+    }
+
+    /**
+     * @param stepMode   mode in which every generation is created.
+     * @param stepKernel kernel with which the cells of every generation ( or every band of rows in PARALLEL mode ) are created, unused in HASHLIFE mode.
+     * @param pool       on which the bands of rows are created in PARALLEL mode.
+     * @param ruleSet    rules that form the next generation, compiled by the kernels when they are created.
+     */
+    public GreenVsRed(StepModeEnum stepMode, StepKernelEnum stepKernel, ForkJoinPool pool, RuleSet ruleSet) {
+        this.ruleSet = ruleSet;
         this.validatorService = new ValidatorService();
+        this.generationZero = new GenerationZero();
+        this.checkpointService = new CheckpointService();
+        this.tiledStepKernel = stepKernel == StepKernelEnum.TILED && stepMode != StepModeEnum.HASHLIFE ? new TiledStepKernel(this) : null;
+        IStepKernel bandStepKernel = createStepKernel(stepKernel);
+        this.stepKernel = stepMode == StepModeEnum.PARALLEL ? new ParallelStepKernel(bandStepKernel, pool) : bandStepKernel;
+        this.hashLifeUniverse = stepMode == StepModeEnum.HASHLIFE ? new HashLifeUniverse(this) : null;
+    }
+
+    /**
+     * Method responsible for the creation of the kernel that creates the cells of a generation.
+     * The SWAR kernel compiles the rules once, executing them for every possible green neighbours count and cell type.
+     * Either kernel only creates the rows that can change, so the rows of the stable areas of the grid are skipped.
+     * The TILED kernel creates single generations with the SWAR kernel, its blocks of generations are created by the tiledStepKernel.
+     *
+     * @param stepKernel type of the kernel to be created.
+     * @return kernel of the given type, SCALAR by default.
+     */
+    private IStepKernel createStepKernel(StepKernelEnum stepKernel) {
+        if (stepKernel == StepKernelEnum.SWAR || stepKernel == StepKernelEnum.TILED) {
+            return new ActiveRowsStepKernel(new SwarStepKernel(this));
+        }
+        return new ActiveRowsStepKernel(new ScalarStepKernel(this));
     }
 
     /**
@@ -71,8 +254,8 @@ public class GreenVsRed implements IGreenVsRed {
             fillGenerationZeroGridByRow();
             // Set Observed cell
             setObservedCell();
-            // Init Generations history
-            initGenerationHistory();
+            // Init Generation buffers
+            initGenerationBuffers();
             System.out.println("Setup complete!");
         } catch (IOException e) {
             System.out.println("Setup failed!");
@@ -90,13 +273,13 @@ public class GreenVsRed implements IGreenVsRed {
      */
     @Override
     public void initGenerationZero() throws InvalidUserInputException {
-        System.out.println("Input grid size in order - height,width ( 0 < height <= width < 1000 ) :");
+        System.out.println("Input grid size in order - height,width ( " + validatorService.getGridBoundsDescription() + " ) :");
         String gridSizeInput = UserInputService.getUserInput();
         Optional<int[]> validatedGridSize =
                 Optional.ofNullable(
                         validatorService.validateInputSize(gridSizeInput)
-                                .orElseThrow(() -> new InvalidUserInputException(INVALID_GRID_SIZE_INPUT_EXCEPTION_MESSAGE)));
-        validatedGridSize.ifPresent(size -> GenerationZero.getInstance().initGrid(size[0], size[1])); // size[0] holds height, size[1] holds width
+                                .orElseThrow(() -> new InvalidUserInputException(INVALID_GRID_SIZE_INPUT_EXCEPTION_MESSAGE + validatorService.getGridBoundsDescription())));
+        validatedGridSize.ifPresent(size -> generationZero.initGrid(size[0], size[1], offHeapGrids)); // size[0] holds height, size[1] holds width
     }
 
     /**
@@ -109,21 +292,20 @@ public class GreenVsRed implements IGreenVsRed {
     @Override
     public void fillGenerationZeroGridByRow() throws InvalidUserInputException {
         String gridValueInput;
-        int height = GenerationZero.getInstance().getGridHeight();
-        int width = GenerationZero.getInstance().getGridWidth();
-        Cell[][] grid = GenerationZero.getInstance().getGrid();
+        int height = generationZero.getGridHeight();
+        int width = generationZero.getGridWidth();
+        Generation grid = generationZero.getGrid();
         System.out.println("Input grid rows with values of 0 - Red or 1 - Green and length equal to grid width :");
         for (int i = 0; i < height; i++) {
             gridValueInput = UserInputService.getUserInput();
             if (gridValueInput.length() == width) {
-                grid[i] = validatorService.validateGridValuesInput(gridValueInput)
-                        .orElseThrow(() -> new InvalidUserInputException(INVALID_GRID_VALUE_INPUT_EXCEPTION_MESSAGE + INVALID_CELL_VALUE_INPUT_EXCEPTION_MESSAGE))
-                        .toArray(new Cell[0]); // toArray() and toArray(new Cell[0]) are the same thing.
+                if (!validatorService.validateGridValuesInput(gridValueInput, grid, i)) {
+                    throw new InvalidUserInputException(INVALID_GRID_VALUE_INPUT_EXCEPTION_MESSAGE + INVALID_CELL_VALUE_INPUT_EXCEPTION_MESSAGE);
+                }
             } else {
                 throw new InvalidUserInputException(INVALID_GRID_VALUE_INPUT_EXCEPTION_MESSAGE + INVALID_CELL_NUMBER_INPUT_EXCEPTION_MESSAGE);
             }
         }
-        setNewGenerationCellsNeighbours(grid);
     }
 
     /**
@@ -135,154 +317,685 @@ public class GreenVsRed implements IGreenVsRed {
     public void setObservedCell() throws InvalidUserInputException {
         System.out.println("Input observed cell info in order - coordinate X, coordinate Y, number of generations N :");
         String observedCellInfoInput = UserInputService.getUserInput();
-        observedCellInfo = validatorService.validateObservedCellInfoInput(observedCellInfoInput).orElseThrow(() -> new InvalidUserInputException(INVALID_OBSERVED_CELL_INFO_INPUT_EXCEPTION_MESSAGE));
+        observedCellInfo = validatorService.validateObservedCellInfoInput(observedCellInfoInput, generationZero.getGridHeight(), generationZero.getGridWidth()).orElseThrow(() -> new InvalidUserInputException(INVALID_OBSERVED_CELL_INFO_INPUT_EXCEPTION_MESSAGE));
     }
 
     /**
-     * Method responsible for the initialization of Generation history.
-     * Adds Generation Zero to the history.
+     * Method responsible for the initialization of Generation buffers.
+     * Copies Generation Zero into the current Generation and counts it for the observed cell.
      */
     @Override
-    public void initGenerationHistory() {
-        generationsHistory = new ArrayList<>();
-        generationsHistory.add(new Generation(GenerationZero.getInstance().getGrid()));
+    public void initGenerationBuffers() {
+        observeCells(new int[]{observedCellInfo.getX()}, new int[]{observedCellInfo.getY()}, observedCellInfo.getN(), 1);
+        initGenerationBuffers(generationZero.getGrid());
+    }
+
+    /**
+     * Method responsible for the initialization of Generation buffers from a given Generation Zero.
+     * The buffers of the last game are reused when the grid bounds are the same, so running many games on one instance doesn't allocate grids.
+     *
+     * @param generationZero copied into the current Generation.
+     */
+    private void initGenerationBuffers(Generation generationZero) {
+        loadGenerationBuffers(generationZero);
+        countObservedCells();
+    }
+
+    /**
+     * Method responsible for copying a given Generation into the current Generation, and loading it into the quadtree in HASHLIFE mode.
+     *
+     * @param generation copied into the current Generation.
+     */
+    private void loadGenerationBuffers(Generation generation) {
+        int height = generation.getHeight();
+        int width = generation.getWidth();
+        if (currentGeneration == null || currentGeneration.getHeight() != height || currentGeneration.getWidth() != width
+                || currentGeneration.isOffHeap() != offHeapGrids) {
+            currentGeneration = offHeapGrids ? Generation.allocateOffHeap(height, width) : new Generation(height, width);
+            nextGeneration = Generation.allocateLike(currentGeneration);
+            cycleCheckGeneration = Generation.allocateLike(currentGeneration);
+        }
+        currentGeneration.copyFrom(generation);
+        if (hashLifeUniverse != null) {
+            hashLifeUniverse.load(generation);
+        }
+    }
+
+    /**
+     * Method responsible for setting the cells observed in the next game and resetting their green counts.
+     *
+     * @param observedCellsX   height coordinates of the observed cells, or null to observe every cell.
+     * @param observedCellsY   width coordinates of the observed cells, or null to observe every cell.
+     * @param generationsCount number of generations N.
+     * @param countsLength     number of green counts - one per observed cell, or one per cell of the grid.
+     */
+    private void observeCells(int[] observedCellsX, int[] observedCellsY, long generationsCount, int countsLength) {
+        this.observedCellsX = observedCellsX;
+        this.observedCellsY = observedCellsY;
+        this.generationsCount = generationsCount;
+        this.observedCellsGreenCounts = new long[countsLength];
     }
 
     /**
      * Method responsible for starting the core game logic.
-     * Iterates N times through creating new Generations, new Cells then adding them to the history.
-     * At the end prints the result.
+     * Creates the N generations and at the end prints the result.
      */
     @Override
     public void start() {
         System.out.println("Game has started!");
-        int height = GenerationZero.getInstance().getGridHeight();
-        int width = GenerationZero.getInstance().getGridWidth();
-        for (int iterationsCount = 0; iterationsCount < observedCellInfo.getN(); iterationsCount++) {
-            Cell[][] newGenerationGrid = new Cell[height][width];
-            createNewCells(newGenerationGrid, height, width);
-            setNewGenerationCellsNeighbours(newGenerationGrid);
-            generationsHistory.add(new Generation(newGenerationGrid));
-        }
+        createGenerations(0);
         printResult();
         System.out.println("Exiting!");
     }
 
     /**
-     * Method responsible for the execution of rules onto a given cell from the old generation grid to form the new generation grid.
+     * Method responsible for running the game on a given Generation Zero, without user input and output.
+     * The state of a game is held by this instance, so a single instance runs a single game at a time.
      *
-     * @param totalGreenNeighbours Long number of green neighbours around the Cell that we want to apply the rules for.
-     * @param cellType             current type of the Cell that we are going to use to determine the outcome.
-     * @return GREEN type for cells with 3 or 6 neighbours, cellType (Type doesn't change) for cells with 2 neighbours and RED for everyone else.
+     * @param generationZero   first generation of cells, which is left unchanged.
+     * @param observedCellInfo the cell to be observed and the number of generations N.
+     * @return number of generations in which the observed cell was green.
      */
     @Override
-    public CellTypeEnum executeNextGenerationRules(long totalGreenNeighbours, CellTypeEnum cellType) {
-        if (totalGreenNeighbours == 3 || totalGreenNeighbours == 6) {
-            return CellTypeEnum.GREEN;
-        } else if (totalGreenNeighbours == 2) {
-            return cellType;
-        }
-        return CellTypeEnum.RED;
+    public long simulate(Generation generationZero, ObservedCellInfo observedCellInfo) {
+        return simulate(generationZero, List.of(observedCellInfo))[0];
     }
 
     /**
-     * Method responsible for the creation of cells for the new Generation.
-     * Accesses the last Generation's grid from the Generation history,
-     * calculates the number of surrounding non null cells,
-     * calculates the number of green neighbours for the current cell
-     * and then creates the cell into the new Generation grid by getting its type after the execution of rules for new Generation cells.
+     * Method responsible for running the game on a given Generation Zero for many observed cells in a single pass.
      *
-     * @param newGenerationGrid will hold the new Generation of cells.
-     * @param height            of the new grid.
-     * @param width             of the new grid.
-     */
-    private void createNewCells(Cell[][] newGenerationGrid, int height, int width) {
-        Cell lastGenCell;
-        List<Cell> surroundingNonNullCells;
-        long totalGreenNeighbours;
-        for (int i = 0; i < height; i++) {
-            for (int j = 0; j < width; j++) {
-                lastGenCell = generationsHistory.get(generationsHistory.size() - 1).getGrid()[i][j];
-                surroundingNonNullCells = getSurroundingNonNullCells(lastGenCell);
-                totalGreenNeighbours = getSurroundingGreenCellsCount(surroundingNonNullCells);
-                newGenerationGrid[i][j] = new Cell(executeNextGenerationRules(totalGreenNeighbours, lastGenCell.getType()));
+     * @param generationZero    first generation of cells, which is left unchanged.
+     * @param observedCellsInfo the cells to be observed, all with the same number of generations N.
+     * @return numbers of generations in which each observed cell was green, in the order of the observed cells.
+     */
+    @Override
+    public long[] simulate(Generation generationZero, List<ObservedCellInfo> observedCellsInfo) {
+        if (observedCellsInfo.isEmpty()) {
+            throw new IllegalArgumentException("At least one observed cell is needed!");
+        }
+        long n = observedCellsInfo.get(0).getN();
+        validateGenerationsCount(n);
+        int[] xs = new int[observedCellsInfo.size()];
+        int[] ys = new int[observedCellsInfo.size()];
+        for (int i = 0; i < xs.length; i++) {
+            ObservedCellInfo observedCell = observedCellsInfo.get(i);
+            if (!generationZero.isInBounds(observedCell.getX(), observedCell.getY())) {
+                throw new IllegalArgumentException("The observed cell " + observedCell.getX() + "," + observedCell.getY() + " is out of bounds of the grid!");
             }
+            if (observedCell.getN() != n) {
+                throw new IllegalArgumentException("All observed cells should have the same number of generations N, got " + n + " and " + observedCell.getN() + "!");
+            }
+            xs[i] = observedCell.getX();
+            ys[i] = observedCell.getY();
+        }
+        // A streamed game is played, so every generation is published. A HASHLIFE game is played too - recording a trajectory takes every generation,
+        // which would turn its jumps into single steps.
+        if (resultCache != null && !isStreamed() && hashLifeUniverse == null) {
+            return simulateCached(generationZero, xs, ys, n);
         }
+        observeCells(xs, ys, n, xs.length);
+        initGenerationBuffers(generationZero);
+        createGenerations(0);
+        return observedCellsGreenCounts;
     }
 
     /**
-     * Method responsible for setting the links between cells and their neighbours.
+     * Method responsible for running a game through the result cache.
+     * A game whose cells are cached is answered from their trajectories when N is covered by them or by the cycle of the seed,
+     * and is resumed from the last cached Generation when N is larger. Otherwise the game is played from Generation Zero
+     * for its cells and the cells of the cached game, whose trajectories are recorded and cached.
      *
-     * @param generationGrid current Generation grid from which the given cells will be accessed.
+     * @param generationZero first generation of cells, which is left unchanged.
+     * @param xs             height coordinates of the observed cells.
+     * @param ys             width coordinates of the observed cells.
+     * @param n              number of generations N.
+     * @return numbers of generations in which each observed cell was green, in the order of the observed cells.
      */
-    private void setNewGenerationCellsNeighbours(Cell[][] generationGrid) {
-        for (int i = 0; i < GenerationZero.getInstance().getGridHeight(); i++) {
-            for (int j = 0; j < GenerationZero.getInstance().getGridWidth(); j++) {
-                if (isCellValid(i - 1, j)) {
-                    generationGrid[i][j].getNeighbourCells().setUp(generationGrid[i - 1][j]);
-                }
-                if (isCellValid(i + 1, j)) {
-                    generationGrid[i][j].getNeighbourCells().setDown(generationGrid[i + 1][j]);
+    private long[] simulateCached(Generation generationZero, int[] xs, int[] ys, long n) {
+        CachedGame cachedGame = resultCache.get(generationZero, ruleSet);
+        if (cachedGame != null) {
+            long[] greenCounts = cachedGame.getGreenCounts(xs, ys, n);
+            if (greenCounts != null) {
+                return greenCounts;
+            }
+        }
+        try {
+            if (cachedGame != null && cachedGame.hasCells(xs, ys) && cachedGame.getLastGeneration() != null) {
+                observeCells(cachedGame.getObservedCellsX(), cachedGame.getObservedCellsY(), n, cachedGame.getObservedCellsX().length);
+                observedCellsGreenCounts = cachedGame.getLastGreenCounts();
+                trajectoryRecorder = new TrajectoryRecorder(cachedGame, resultCache.getMaxRecordedGenerations(observedCellsX.length));
+                loadGenerationBuffers(cachedGame.getLastGeneration());
+                createGenerations(cachedGame.getRecordedGenerations() - 1);
+                generationZero = cachedGame.getGenerationZero();
+            } else {
+                int[][] observedCells = cachedGame != null ? mergeObservedCells(xs, ys, cachedGame) : new int[][]{xs, ys};
+                observeCells(observedCells[0], observedCells[1], n, observedCells[0].length);
+                trajectoryRecorder = new TrajectoryRecorder(observedCellsX.length, resultCache.getMaxRecordedGenerations(observedCellsX.length));
+                initGenerationBuffers(generationZero);
+                createGenerations(0);
+                Generation generationZeroCopy = Generation.allocateLike(generationZero);
+                generationZeroCopy.copyFrom(generationZero);
+                generationZero = generationZeroCopy;
+            }
+            Generation lastGeneration = null;
+            if (!trajectoryRecorder.hasCycle()) {
+                lastGeneration = Generation.allocateLike(currentGeneration);
+                if (hashLifeUniverse != null) {
+                    hashLifeUniverse.copyTo(lastGeneration);
+                } else {
+                    lastGeneration.copyFrom(currentGeneration);
                 }
-                if (isCellValid(i, j - 1)) {
-                    generationGrid[i][j].getNeighbourCells().setLeft(generationGrid[i][j - 1]);
+            }
+            CachedGame playedGame = trajectoryRecorder.toCachedGame(generationZero, ruleSet, observedCellsX, observedCellsY, lastGeneration);
+            if (playedGame == null) {
+                return getGreenCounts(xs, ys); // The game was too long to be cached.
+            }
+            resultCache.put(playedGame);
+            return playedGame.getGreenCounts(xs, ys, n);
+        } finally {
+            trajectoryRecorder = null;
+        }
+    }
+
+    /**
+     * Method responsible for picking the green counts of the given cells out of the counts of the observed cells, which include them.
+     *
+     * @return numbers of generations in which each given cell was green, in the order of the given cells.
+     */
+    private long[] getGreenCounts(int[] xs, int[] ys) {
+        long[] greenCounts = new long[xs.length];
+        for (int i = 0; i < xs.length; i++) {
+            for (int j = 0; j < observedCellsX.length; j++) {
+                if (observedCellsX[j] == xs[i] && observedCellsY[j] == ys[i]) {
+                    greenCounts[i] = observedCellsGreenCounts[j];
+                    break;
                 }
-                if (isCellValid(i, j + 1)) {
-                    generationGrid[i][j].getNeighbourCells().setRight(generationGrid[i][j + 1]);
+            }
+        }
+        return greenCounts;
+    }
+
+    /**
+     * Method responsible for merging the observed cells of a game with the cells of the cached game of its seed, so the cached cells stay cached.
+     *
+     * @return the height coordinates at index 0 and the width coordinates at index 1 - the given cells first, followed by the cached cells that aren't given.
+     */
+    private static int[][] mergeObservedCells(int[] xs, int[] ys, CachedGame cachedGame) {
+        int[] cachedXs = cachedGame.getObservedCellsX();
+        int[] cachedYs = cachedGame.getObservedCellsY();
+        int[] mergedXs = Arrays.copyOf(xs, xs.length + cachedXs.length);
+        int[] mergedYs = Arrays.copyOf(ys, ys.length + cachedYs.length);
+        int mergedLength = xs.length;
+        for (int i = 0; i < cachedXs.length; i++) {
+            boolean given = false;
+            for (int j = 0; j < xs.length && !given; j++) {
+                given = xs[j] == cachedXs[i] && ys[j] == cachedYs[i];
+            }
+            if (!given) {
+                mergedXs[mergedLength] = cachedXs[i];
+                mergedYs[mergedLength++] = cachedYs[i];
+            }
+        }
+        return new int[][]{Arrays.copyOf(mergedXs, mergedLength), Arrays.copyOf(mergedYs, mergedLength)};
+    }
+
+    /**
+     * Method responsible for running the game on a given Generation Zero, observing every cell of the grid in a single pass.
+     *
+     * @param generationZero first generation of cells, which is left unchanged.
+     * @param n              number of generations.
+     * @return numbers of generations in which each cell was green, indexed by x * width + y.
+     */
+    @Override
+    public long[] simulateHeatmap(Generation generationZero, long n) {
+        validateGenerationsCount(n);
+        if ((long) generationZero.getHeight() * generationZero.getWidth() > MAX_HEATMAP_CELLS) {
+            throw new IllegalArgumentException("The grid has too many cells for a heatmap, observe a list of cells instead!");
+        }
+        observeCells(null, null, n, generationZero.getHeight() * generationZero.getWidth());
+        initGenerationBuffers(generationZero);
+        createGenerations(0);
+        return observedCellsGreenCounts;
+    }
+
+    /**
+     * Method responsible for the validation of the number of generations given through the API.
+     *
+     * @param n number of generations.
+     * @throws IllegalArgumentException when N is negative.
+     */
+    private void validateGenerationsCount(long n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("The number of generations N should not be negative, got " + n + "!");
+        }
+    }
+
+    /**
+     * Method responsible for enabling the large-grid mode for the user input of this instance.
+     *
+     * @param maxHeight maximum height of a grid ( inclusive ).
+     * @param maxWidth  maximum width of a grid ( inclusive ).
+     */
+    @Override
+    public void enableLargeGrids(int maxHeight, int maxWidth) {
+        if (maxHeight <= 0 || maxWidth <= 0) {
+            throw new IllegalArgumentException("The grid bounds should be positive, got " + maxHeight + "," + maxWidth + "!");
+        }
+        this.validatorService = new ValidatorService(maxHeight, maxWidth);
+    }
+
+    /**
+     * Method responsible for enabling periodic checkpoints of the games played by this instance.
+     *
+     * @param checkpointFile     into which the checkpoints are written, replacing the last one.
+     * @param checkpointInterval number of generations between two checkpoints.
+     */
+    @Override
+    public void enableCheckpoints(Path checkpointFile, long checkpointInterval) {
+        if (checkpointInterval <= 0) {
+            throw new IllegalArgumentException("The checkpoint interval should be positive, got " + checkpointInterval + "!");
+        }
+        this.checkpointFile = checkpointFile;
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * Method responsible for enabling the result cache for the games played through simulate() by this instance.
+     * A game is recorded for the cache one generation at a time - with the TILED kernel it is created in blocks again once the recording stops
+     * at the bounds of the cache. HASHLIFE games bypass the cache, since the recording would take every generation of their jumps.
+     *
+     * @param resultCache shared by any number of instances, or null to disable the cache.
+     */
+    @Override
+    public void enableResultCache(ResultCache resultCache) {
+        this.resultCache = resultCache;
+    }
+
+    /**
+     * Method responsible for enabling the streaming of every generation of the games played by this instance.
+     * While the publisher has a subscriber, a game creates every one of its generations - it isn't answered from the result cache,
+     * nor fast-forwarded from a cycle, nor created in blocks. Without a subscriber the game is played as an unstreamed one.
+     * In HASHLIFE mode every streamed generation is also flattened from the quadtree into a grid, which costs as much as a step of a kernel.
+     *
+     * @param generationPublisher to which the generations are streamed, or null to disable the streaming.
+     */
+    @Override
+    public void enableGenerationStream(GenerationPublisher generationPublisher) {
+        this.generationPublisher = generationPublisher;
+    }
+
+    /**
+     * Method responsible for enabling the off-heap mode for the grids of this instance.
+     * The buffers of the last game are replaced by off-heap ones at the start of the next game.
+     */
+    @Override
+    public void enableOffHeapGrids() {
+        this.offHeapGrids = true;
+    }
+
+    /**
+     * Method responsible for enabling the metrics of the games played by this instance.
+     *
+     * @param metrics into which the games are recorded, or null to disable the metrics.
+     */
+    @Override
+    public void enableMetrics(SimulationMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Method responsible for resuming a game from a checkpoint and playing it until its N generations.
+     *
+     * @param checkpointFile from which the game is resumed.
+     * @return numbers of generations in which each observed cell was green - per observed cell, or per cell of the grid indexed by x * width + y.
+     * @throws IOException when the checkpoint can't be loaded.
+     */
+    @Override
+    public long[] resume(Path checkpointFile) throws IOException {
+        Checkpoint checkpoint = checkpointService.loadCheckpoint(checkpointFile);
+        GridSnapshot snapshot = checkpoint.getSnapshot();
+        if (snapshot.getBirthMask() != ruleSet.getBirthMask() || snapshot.getSurviveMask() != ruleSet.getSurviveMask()) {
+            throw new IllegalArgumentException("The checkpoint was created with different rules!");
+        }
+        observedCellsX = checkpoint.getObservedCellsX();
+        observedCellsY = checkpoint.getObservedCellsY();
+        generationsCount = checkpoint.getGenerationsCount();
+        observedCellsGreenCounts = checkpoint.getObservedCellsGreenCounts();
+        loadGenerationBuffers(snapshot.getGeneration());
+        createGenerations(snapshot.getGenerationIndex());
+        return observedCellsGreenCounts;
+    }
+
+    /**
+     * Method responsible for the creation of the N generations.
+     * Iterates through creating the next Generation, swapping it with the current one and counting the observed cells.
+     * Detects when a Generation repeats ( Brent's cycle detection - the current Generation is compared to a check Generation
+     * which is moved forward at power of two distances ) and fast-forwards the rest of the N generations arithmetically from the cycle.
+     * Writes a checkpoint every checkpoint interval generations if checkpoints are enabled.
+     * With the TILED kernel, and in HASHLIFE mode for observed cells, the generations are created in blocks, so only the last Generation of a block
+     * is compared and checkpointed - a repeat is then found up to a block later, with a cycle length that is a multiple of the real one,
+     * which fast-forwards just the same.
+     *
+     * Records every step into the metrics if they are enabled, and publishes every Generation if the generations are streamed.
+     *
+     * @param currentGenerationIndex index of the current Generation - 0 for Generation Zero, or the index of a resumed checkpoint.
+     */
+    private void createGenerations(long currentGenerationIndex) {
+        if (metrics != null) {
+            metrics.onGameStart(currentGeneration.getHeight(), currentGeneration.getWidth(), generationsCount, currentGenerationIndex, observedCellsGreenCounts[0]);
+        }
+        if (generationPublisher != null) {
+            generationPublisher.onGameStart(currentGeneration.getHeight(), currentGeneration.getWidth(), generationsCount);
+            if (isStreamed()) {
+                publishGeneration(currentGenerationIndex);
+            }
+        }
+        markCycleCheck();
+        long cycleCheckIndex = currentGenerationIndex;
+        long cycleCheckDistance = 1;
+        long generationIndex = currentGenerationIndex;
+        long stepStartNanos = 0;
+        int generations;
+        while (generationIndex < generationsCount) {
+            if (metrics != null) {
+                stepStartNanos = System.nanoTime();
+            }
+            generations = createNextGenerations(generationIndex);
+            generationIndex += generations;
+            countObservedCells();
+            if (isStreamed()) {
+                publishGeneration(generationIndex);
+            }
+            if (metrics != null) {
+                metrics.onGenerations(generationIndex, generations, System.nanoTime() - stepStartNanos, observedCellsGreenCounts[0]);
+            }
+            if (checkpointFile != null && generationIndex % checkpointInterval == 0) {
+                writeCheckpoint(generationIndex);
+            }
+            if (!isStreamed() && isCycleCheck()) {
+                if (trajectoryRecorder != null) {
+                    trajectoryRecorder.recordCycle(cycleCheckIndex, generationIndex - cycleCheckIndex);
                 }
+                fastForwardCycle(generationIndex - cycleCheckIndex, generationsCount - generationIndex);
+                break;
+            }
+            if (generationIndex - cycleCheckIndex >= cycleCheckDistance) {
+                markCycleCheck();
+                cycleCheckIndex = generationIndex;
+                cycleCheckDistance *= 2;
             }
         }
+        awaitCheckpointWriter();
+        if (metrics != null) {
+            metrics.onGameEnd(generationsCount, observedCellsGreenCounts[0]);
+        }
     }
 
     /**
-     * Method responsible for the validation of cell coordinates.
+     * Method responsible for checking whether the generations are streamed to a subscriber right now -
+     * without one, the game fast-forwards, creates blocks and uses the result cache as an unstreamed game does.
      *
-     * @param x height coordinate.
-     * @param y width coordinate.
-     * @return True if the cell is in bounds of the grid ( Using the Generation Zero bounds cause they are the same for every Generation ) or False if the cell is out of bounds for the grid.
+     * @return True if a generation stream is enabled and has a subscriber.
      */
-    private boolean isCellValid(int x, int y) {
-        return (x >= 0 && x < GenerationZero.getInstance().getGridHeight()) && (y >= 0 && y < GenerationZero.getInstance().getGridWidth());
+    private boolean isStreamed() {
+        return generationPublisher != null && generationPublisher.hasSubscriber();
     }
 
     /**
-     * Method responsible for getting the cells surrounding a given cell which aren't null.
-     * Uses Ternary operator to assure that methods aren't called on any null objects which would result in a NullPointerException.
+     * Method responsible for publishing the current Generation to the stream - a copy of the quadtree in HASHLIFE mode.
+     * So streaming a HASHLIFE game flattens the whole quadtree into a grid every generation, on top of creating the generations one at a time -
+     * a stepping kernel streams the same game for less.
      *
-     * @param cell given cell for which we want to find the non null surrounding cells.
-     * @return list of cell's surrounding the given cell.
-     */
-    private List<Cell> getSurroundingNonNullCells(Cell cell) {
-        NeighbourCells neighbourCells = cell.getNeighbourCells();
-        Cell up = neighbourCells.getUp();
-        Cell down = neighbourCells.getDown();
-        Cell left = neighbourCells.getLeft();
-        Cell right = neighbourCells.getRight();
-
-        return new ArrayList<Cell>() {{
-            add(up);
-            add(up != null ? up.getNeighbourCells().getLeft() : null); // Usage of ternary operator to check if the given cell is null - returns its left neighbour cell reference or null if the given cell is null.
-            add(up != null ? up.getNeighbourCells().getRight() : null);
-            add(down);
-            add(down != null ? down.getNeighbourCells().getLeft() : null);
-            add(down != null ? down.getNeighbourCells().getRight() : null);
-            add(left);
-            add(right);
-        }}.stream()
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList()); // filter(Objects::nonNull) returns only objects which aren't null and then uses .collect(Collectors.toList()) to add up the resulting non null cells in a list and return it.
-    }
-
-    /**
-     * Method responsible for counting the number of green cells surrounding the given cell.
+     * @param generationIndex index of the current Generation.
+     */
+    private void publishGeneration(long generationIndex) {
+        if (hashLifeUniverse == null) {
+            generationPublisher.onGeneration(generationIndex, currentGeneration);
+            return;
+        }
+        if (streamedGeneration == null || streamedGeneration.getHeight() != currentGeneration.getHeight()
+                || streamedGeneration.getWidth() != currentGeneration.getWidth() || streamedGeneration.isOffHeap() != offHeapGrids) {
+            streamedGeneration = Generation.allocateLike(currentGeneration);
+        }
+        hashLifeUniverse.copyTo(streamedGeneration);
+        generationPublisher.onGeneration(generationIndex, streamedGeneration);
+    }
+
+    /**
+     * Method responsible for marking the current Generation as the one that later generations are compared to for cycle detection.
+     */
+    private void markCycleCheck() {
+        if (hashLifeUniverse != null) {
+            hashLifeUniverse.markCycleCheck();
+            return;
+        }
+        cycleCheckGeneration.copyFrom(currentGeneration);
+        cycleCheckHash = cycleCheckGeneration.getCellsHash();
+    }
+
+    /**
+     * Method responsible for checking whether the current Generation repeats the one marked for cycle detection.
+     * The hashes are compared first, so the cells are only compared when the Generations are very likely the same.
      *
-     * @param surroundingNonNullCells list of the surrounding non null cells which will be stream and then filtered for the cells which type is green.
-     * @return number of surrounding green cells which is available after the iteration and filtration of the list.
+     * @return True if both Generations have the same cells.
      */
-    private long getSurroundingGreenCellsCount(List<Cell> surroundingNonNullCells) {
-        return surroundingNonNullCells.stream()
-                .filter(nonNullCell -> nonNullCell.getType() == CellTypeEnum.GREEN)
-                .count();
+    private boolean isCycleCheck() {
+        if (hashLifeUniverse != null) {
+            return hashLifeUniverse.isCycleCheck();
+        }
+        return currentGeneration.getCellsHash() == cycleCheckHash && currentGeneration.hasSameCells(cycleCheckGeneration);
+    }
+
+    /**
+     * Method responsible for writing a checkpoint of the current Generation without blocking the game.
+     * Copies the current Generation and the green counts, then writes the copies on a background thread.
+     * The checkpoint is skipped if the last one is still being written, so a slow disk never holds the game back.
+     *
+     * @param generationIndex index of the current Generation.
+     */
+    private void writeCheckpoint(long generationIndex) {
+        if (checkpointWriter != null && checkpointWriter.isAlive()) {
+            return;
+        }
+        if (checkpointGeneration == null || checkpointGeneration.getHeight() != currentGeneration.getHeight()
+                || checkpointGeneration.getWidth() != currentGeneration.getWidth() || checkpointGeneration.isOffHeap() != offHeapGrids) {
+            checkpointGeneration = Generation.allocateLike(currentGeneration);
+        }
+        if (checkpointGreenCounts == null || checkpointGreenCounts.length != observedCellsGreenCounts.length) {
+            checkpointGreenCounts = new long[observedCellsGreenCounts.length];
+        }
+        if (hashLifeUniverse != null) {
+            hashLifeUniverse.copyTo(checkpointGeneration);
+        } else {
+            checkpointGeneration.copyFrom(currentGeneration);
+        }
+        System.arraycopy(observedCellsGreenCounts, 0, checkpointGreenCounts, 0, checkpointGreenCounts.length);
+        Checkpoint checkpoint = new Checkpoint(
+                new GridSnapshot(checkpointGeneration, generationIndex, ruleSet.getBirthMask(), ruleSet.getSurviveMask()),
+                generationsCount, observedCellsX, observedCellsY, checkpointGreenCounts);
+        Path file = checkpointFile;
+        checkpointWriter = new Thread(() -> {
+            try {
+                checkpointService.writeCheckpoint(file, checkpoint);
+            } catch (IOException e) {
+                System.out.println("Checkpoint failed!");
+                System.out.println(e.getMessage());
+            }
+        }, "gvr-checkpoint-writer");
+        checkpointWriter.setDaemon(true);
+        checkpointWriter.start();
+    }
+
+    /**
+     * Method responsible for waiting until the last checkpoint is written, so no writer outlives the game.
+     */
+    private void awaitCheckpointWriter() {
+        if (checkpointWriter == null) {
+            return;
+        }
+        try {
+            checkpointWriter.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Method responsible for the creation of the next block of generations, which never passes N or the next checkpoint.
+     *
+     * @param generationIndex index of the current Generation.
+     * @return number of generations created.
+     */
+    private int createNextGenerations(long generationIndex) {
+        long generations = generationsCount - generationIndex;
+        if (checkpointFile != null) {
+            generations = Math.min(generations, checkpointInterval - generationIndex % checkpointInterval);
+        }
+        return createNextBlock(generations);
+    }
+
+    /**
+     * Method responsible for the creation of the next block of generations with the TILED kernel, or as a jump of the quadtree in HASHLIFE mode
+     * for observed cells, and of the next Generation otherwise. The generations inside a block are counted for the observed cells, its last Generation isn't.
+     *
+     * @param maxGenerations number of generations that the block can't pass, at least 1.
+     * @return number of generations created.
+     */
+    private int createNextBlock(long maxGenerations) {
+        // A trajectory that is being recorded or a stream takes every generation.
+        if (maxGenerations == 1 || (trajectoryRecorder != null && trajectoryRecorder.isRecording()) || isStreamed()) {
+            createNextGeneration();
+            return 1;
+        }
+        if (hashLifeUniverse != null && observedCellsX != null) {
+            return hashLifeUniverse.createNextGenerations(maxGenerations, observedCellsX, observedCellsY, observedCellsGreenCounts);
+        }
+        if (tiledStepKernel == null) {
+            createNextGeneration();
+            return 1;
+        }
+        int blockGenerations = (int) Math.min(maxGenerations, tiledStepKernel.getGenerationsPerBlock());
+        tiledStepKernel.createNewCells(currentGeneration, nextGeneration, blockGenerations, observedCellsX, observedCellsY, observedCellsGreenCounts);
+        Generation swappedGeneration = currentGeneration;
+        currentGeneration = nextGeneration;
+        nextGeneration = swappedGeneration;
+        return blockGenerations;
+    }
+
+    /**
+     * Method responsible for the creation of the next Generation from the current one.
+     * Swaps the buffers afterwards, so the current Generation holds the newly created one - or steps the quadtree in HASHLIFE mode.
+     */
+    private void createNextGeneration() {
+        if (hashLifeUniverse != null) {
+            hashLifeUniverse.createNextGeneration();
+            return;
+        }
+        stepKernel.createNewCells(currentGeneration, nextGeneration, 0, currentGeneration.getHeight());
+        Generation swappedGeneration = currentGeneration;
+        currentGeneration = nextGeneration;
+        nextGeneration = swappedGeneration;
+    }
+
+    /**
+     * Method responsible for counting the observed cells for the remaining generations once the game has entered a cycle.
+     * Creates a single cycle worth of generations ( or only the remainder if not even one full cycle remains ) in blocks that stop at the remainder,
+     * and multiplies the green counts of the cycle by the number of full cycles left.
+     *
+     * @param cycleLength          number of generations after which the current Generation repeats.
+     * @param remainingGenerations number of generations left until N.
+     */
+    private void fastForwardCycle(long cycleLength, long remainingGenerations) {
+        long fullCycles = remainingGenerations / cycleLength;
+        long remainderGenerations = remainingGenerations % cycleLength;
+        long generationsToCreate = fullCycles > 0 ? cycleLength : remainderGenerations;
+        long[] countsBeforeCycle = observedCellsGreenCounts.clone();
+        long[] countsAfterRemainder = countsBeforeCycle;
+        long generationIndex = 0;
+        while (generationIndex < generationsToCreate) {
+            generationIndex += createNextBlock(generationIndex < remainderGenerations
+                    ? remainderGenerations - generationIndex : generationsToCreate - generationIndex);
+            countObservedCells();
+            if (generationIndex == remainderGenerations) {
+                countsAfterRemainder = observedCellsGreenCounts.clone();
+            }
+        }
+        for (int i = 0; i < observedCellsGreenCounts.length; i++) {
+            long cycleGreenCount = observedCellsGreenCounts[i] - countsBeforeCycle[i];
+            long remainderGreenCount = countsAfterRemainder[i] - countsBeforeCycle[i];
+            observedCellsGreenCounts[i] = countsBeforeCycle[i] + fullCycles * cycleGreenCount + remainderGreenCount;
+        }
+    }
+
+    @Override
+    public RuleSet getRuleSet() {
+        return ruleSet;
+    }
+
+    /**
+     * Method responsible for the execution of rules onto a given cell from the old generation grid to form the new generation grid.
+     * Looks the outcome up in the rule set - the kernels use the rule set directly, this method serves single cells.
+     *
+     * @param totalGreenNeighbours Long number of green neighbours around the Cell that we want to apply the rules for.
+     * @param cellType             current type of the Cell that we are going to use to determine the outcome.
+     * @return GREEN or RED type of the cell as given by the rule set ( by default GREEN for cells with 3 or 6 neighbours,
+     * cellType (Type doesn't change) for cells with 2 neighbours and RED for everyone else ), RED for counts that no cell can have.
+     */
+    @Override
+    public CellTypeEnum executeNextGenerationRules(long totalGreenNeighbours, CellTypeEnum cellType) {
+        if (totalGreenNeighbours < 0 || totalGreenNeighbours >= RuleSet.COUNTS_PER_STATE) {
+            return CellTypeEnum.RED;
+        }
+        return ruleSet.getNextCellState((int) totalGreenNeighbours, cellType == CellTypeEnum.GREEN ? 1 : 0) == 1 ? CellTypeEnum.GREEN : CellTypeEnum.RED;
+    }
+
+    /**
+     * Method responsible for counting the current Generation for every observed cell that is green in it.
+     */
+    private void countObservedCells() {
+        if (observedCellsX == null) {
+            countAllCells();
+            return;
+        }
+        if (hashLifeUniverse != null) {
+            for (int i = 0; i < observedCellsX.length; i++) {
+                if (hashLifeUniverse.isGreen(observedCellsX[i], observedCellsY[i])) {
+                    observedCellsGreenCounts[i]++;
+                }
+            }
+        } else {
+            for (int i = 0; i < observedCellsX.length; i++) {
+                if (currentGeneration.isGreen(observedCellsX[i], observedCellsY[i])) {
+                    observedCellsGreenCounts[i]++;
+                }
+            }
+        }
+        if (trajectoryRecorder != null) {
+            trajectoryRecorder.record(observedCellsGreenCounts);
+        }
+    }
+
+    /**
+     * Method responsible for counting the current Generation for every green cell of the grid.
+     * Visits the set bits of each word only, so RED areas of the grid cost a single check per word.
+     */
+    private void countAllCells() {
+        if (hashLifeUniverse != null) {
+            hashLifeUniverse.countGreenCells(observedCellsGreenCounts);
+            return;
+        }
+        int width = currentGeneration.getWidth();
+        int wordsPerRow = currentGeneration.getWordsPerRow();
+        long word;
+        for (int i = 0; i < currentGeneration.getHeight(); i++) {
+            for (int w = 0; w < wordsPerRow; w++) {
+                word = currentGeneration.getWord(i, w);
+                while (word != 0) {
+                    observedCellsGreenCounts[i * width + w * Generation.CELLS_PER_WORD + Long.numberOfTrailingZeros(word)]++;
+                    word &= word - 1; // Clears the lowest set bit.
+                }
+            }
+        }
     }
 
     /**
@@ -291,11 +1004,7 @@ public class GreenVsRed implements IGreenVsRed {
      * @return long number representing the number of times the observed cell was green throughout the generations.
      */
     private long getResult() {
-        int observedCellX = observedCellInfo.getX();
-        int observedCellY = observedCellInfo.getY();
-        return generationsHistory.stream()
-                .filter(generation -> generation.getGrid()[observedCellX][observedCellY].getType().equals(CellTypeEnum.GREEN))
-                .count();
+        return observedCellsGreenCounts[0];
     }
 
     /**
@@ -0,0 +1,786 @@
+package engine.impl;
+
+import engine.IGreenVsRed;
+import model.Generation;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Class responsible for holding a generation as a hash-consed quadtree and creating the next generations HashLife style.
+ * Every distinct square of cells is stored once - equal squares are the same node - and a node of level k memoizes the centre half of itself
+ * up to 2^(k-2) generations later, so a repeating structure is created once no matter how often or how long it repeats,
+ * and the generations are created in jumps of up to half the grid size at a time.
+ * The observed cells are counted through a jump without creating its generations - the count of a cell is split along the same recursion as the result,
+ * and memoized per node, generations and position of the cell.
+ * The border of the grid is kept by a third cell state, WALL, for the cells out of bounds of the grid -
+ * a WALL cell is never green and never changes, so the future of a node depends on its cells only, never on where it is.
+ * Since equal generations are the same root node, a repeating generation is detected by a single reference comparison.
+ * The nodes and memoized counts are held in tables bounded by a number of entries, checked whenever an entry is added -
+ * past it, every node and memoized result is evicted and the tables are rebuilt from the live generations once the step ends.
+ * A jump that reaches the bound is abandoned and retried with fewer generations, down to single generations which always complete.
+ *
+ * @author - Viktor Kurtev
+ */
+public final class HashLifeUniverse {
+
+    /**
+     * Constant for the default number of nodes after which the node table is rebuilt.
+     */
+    public static final int DEFAULT_MAX_NODES = 1 << 20;
+
+    /**
+     * Constant for the number of generations of a jump as a power of two, unlimited.
+     */
+    private static final int UNLIMITED_JUMP_LOG = Integer.MAX_VALUE;
+
+    /**
+     * Constant for the level of the smallest root - a 4 x 4 square, the smallest node which has a result.
+     */
+    private static final int MIN_ROOT_LEVEL = 2;
+
+    /**
+     * Constant for the initial length of the node table.
+     */
+    private static final int INITIAL_TABLE_LENGTH = 1 << 10;
+
+    /**
+     * Constant for the number of levels a quadtree can have - a 2^63 x 2^63 square.
+     */
+    private static final int MAX_LEVELS = 64;
+
+    /**
+     * Variable containing the rule set as a mask of green neighbours counts for which a RED cell becomes GREEN.
+     */
+    private final int birthMask;
+
+    /**
+     * Variable containing the rule set as a mask of green neighbours counts for which a GREEN cell stays GREEN.
+     */
+    private final int surviveMask;
+
+    /**
+     * Variable containing the number of nodes after which the node table is rebuilt, as configured.
+     */
+    private final int maxNodes;
+
+    /**
+     * Variable containing the number of nodes and memoized counts after which every one of them is evicted -
+     * never less than twice the nodes of the live generations, so a generation larger than maxNodes doesn't evict the tables every step.
+     */
+    private int nodesLimit;
+
+    /**
+     * Variable containing the largest number of generations of the next jump as a power of two -
+     * lowered when a jump reaches the nodes limit, raised again by every jump that doesn't.
+     */
+    private int jumpLogLimit = UNLIMITED_JUMP_LOG;
+
+    /**
+     * Variable containing whether the tables were evicted during the running step, so its nodes have to be rebuilt into the tables at its end.
+     */
+    private boolean evicted;
+
+    /**
+     * Variable containing whether the running step is a jump, which is abandoned rather than continued once the tables are evicted.
+     */
+    private boolean jumping;
+
+    /**
+     * Variable containing whether the tables are being rebuilt, during which nothing is evicted.
+     */
+    private boolean rebuilding;
+
+    private final Node redLeaf = new Node(1, 0);
+    private final Node greenLeaf = new Node(2, 1);
+    private final Node wallLeaf = new Node(3, 0);
+
+    /**
+     * Variable containing the node table - buckets of nodes chained through Node.next.
+     */
+    private Node[] table;
+
+    /**
+     * Variable containing the number of nodes in the node table.
+     */
+    private int nodesCount;
+
+    /**
+     * Variable containing the memoized counts of the generations in which a centre cell of a node is green during a number of generations.
+     */
+    private final Map<CountKey, Long> greenGenerationsCounts = new HashMap<>();
+
+    /**
+     * Variable containing the green counts of the observed cells during the running jump, added to the counts of the game once the jump completes.
+     */
+    private long[] jumpGreenCounts = new long[0];
+
+    /**
+     * Variable containing the squares of WALL cells per level, created on first use.
+     */
+    private Node[] wallNodes;
+
+    /**
+     * Variable containing the cells of the 4 x 4 square whose result is being created, reused for every such square.
+     */
+    private final Node[] baseCells = new Node[16];
+
+    /**
+     * Variable containing the last created generation, with the grid in its top left corner and WALL cells around it.
+     */
+    private Node root;
+
+    /**
+     * Variable containing the level of the root - the root is a 2^rootLevel x 2^rootLevel square.
+     */
+    private int rootLevel;
+
+    /**
+     * Variable containing the earlier generation which the current one is compared to for cycle detection.
+     */
+    private Node cycleCheckRoot;
+
+    private int height;
+    private int width;
+
+    public HashLifeUniverse(IGreenVsRed rules) {
+        this(rules, DEFAULT_MAX_NODES);
+    }
+
+    /**
+     * @param rules    of the game.
+     * @param maxNodes number of nodes and memoized counts after which every one of them is evicted.
+     */
+    public HashLifeUniverse(IGreenVsRed rules, int maxNodes) {
+        if (maxNodes <= 0) {
+            throw new IllegalArgumentException("The maximum number of nodes should be positive, got " + maxNodes + "!");
+        }
+        this.birthMask = rules.getRuleSet().getBirthMask();
+        this.surviveMask = rules.getRuleSet().getSurviveMask();
+        this.maxNodes = maxNodes;
+        this.nodesLimit = maxNodes;
+        this.table = new Node[INITIAL_TABLE_LENGTH];
+        this.wallNodes = new Node[MAX_LEVELS];
+    }
+
+    /**
+     * Method responsible for loading a Generation as the current generation.
+     * The nodes and results of earlier generations are kept until they are evicted, so similar grids share them.
+     *
+     * @param generation to be loaded, which is left unchanged.
+     */
+    public void load(Generation generation) {
+        height = generation.getHeight();
+        width = generation.getWidth();
+        rootLevel = MIN_ROOT_LEVEL;
+        while ((1L << rootLevel) < Math.max(height, width)) {
+            rootLevel++;
+        }
+        root = createNode(generation, rootLevel, 0, 0);
+        cycleCheckRoot = root;
+        jumpLogLimit = UNLIMITED_JUMP_LOG;
+        if (evicted) {
+            rebuildTable();
+        }
+    }
+
+    /**
+     * Method responsible for the creation of the next generation from the current one.
+     */
+    public void createNextGeneration() {
+        createNextGenerations(1, null, null, null);
+    }
+
+    /**
+     * Method responsible for the creation of the next generations in a single jump - the largest power of two of generations
+     * that is at most the given number, half the size of the root and the jump limit.
+     * Surrounds the root with WALL cells, so the result of the surrounding node - its centre 2^k generations later - is the whole next root.
+     * The generations inside the jump are counted for the observed cells, its last generation isn't.
+     *
+     * @param maxGenerations   number of generations that the jump can't pass, at least 1.
+     * @param observedCellsX   height coordinates of the observed cells, or null when no cells are counted.
+     * @param observedCellsY   width coordinates of the observed cells, or null when no cells are counted.
+     * @param greenCounts      of the observed cells, incremented for the generations inside the jump in which they are green.
+     * @return number of generations created.
+     */
+    public int createNextGenerations(long maxGenerations, int[] observedCellsX, int[] observedCellsY, long[] greenCounts) {
+        int stepLog = Math.min(Math.min(jumpLogLimit, rootLevel - 1), 63 - Long.numberOfLeadingZeros(maxGenerations));
+        while (!tryJump(stepLog, observedCellsX, observedCellsY, greenCounts)) {
+            stepLog--; // The jump reached the nodes limit, a shorter one needs fewer nodes.
+            jumpLogLimit = stepLog;
+        }
+        if (jumpLogLimit < rootLevel - 1 && stepLog == jumpLogLimit) {
+            jumpLogLimit++;
+        }
+        return 1 << stepLog;
+    }
+
+    /**
+     * Method responsible for a jump of 2^stepLog generations, which is abandoned if it reaches the nodes limit - a single generation never is.
+     *
+     * @return True if the jump completed, or False if it was abandoned, leaving the current generation and the green counts unchanged.
+     */
+    private boolean tryJump(int stepLog, int[] observedCellsX, int[] observedCellsY, long[] greenCounts) {
+        Node wall = getWallNode(rootLevel - 1);
+        Node surroundedRoot = join(
+                join(wall, wall, wall, root.nw),
+                join(wall, wall, root.ne, wall),
+                join(wall, root.sw, wall, wall),
+                join(root.se, wall, wall, wall));
+        long rootOffset = 1L << (rootLevel - 1);
+        int observedCellsCount = observedCellsX == null ? 0 : observedCellsX.length;
+        if (jumpGreenCounts.length < observedCellsCount) {
+            jumpGreenCounts = new long[observedCellsCount];
+        }
+        jumping = stepLog > 0;
+        try {
+            for (int i = 0; i < observedCellsCount; i++) {
+                jumpGreenCounts[i] = countGreenGenerations(surroundedRoot, stepLog, observedCellsX[i] + rootOffset, observedCellsY[i] + rootOffset);
+            }
+            root = getResult(surroundedRoot, stepLog);
+        } catch (JumpAbandonedException e) {
+            return false;
+        } finally {
+            jumping = false;
+            if (evicted) {
+                rebuildTable();
+            }
+        }
+        for (int i = 0; i < observedCellsCount; i++) {
+            greenCounts[i] += jumpGreenCounts[i] - (isGreen(observedCellsX[i], observedCellsY[i]) ? 1 : 0);
+        }
+        return true;
+    }
+
+    /**
+     * Method responsible for checking whether a cell of the current generation is green.
+     *
+     * @param x height coordinate of the cell.
+     * @param y width coordinate of the cell.
+     * @return True if the cell is green.
+     */
+    public boolean isGreen(int x, int y) {
+        return getCell(root, x, y) == greenLeaf;
+    }
+
+    /**
+     * Method responsible for counting the current generation for every green cell of the grid.
+     * Squares without green cells are skipped whole.
+     *
+     * @param greenCounts indexed by x * width + y, incremented for every green cell.
+     */
+    public void countGreenCells(long[] greenCounts) {
+        countGreenCells(root, rootLevel, 0, 0, greenCounts);
+    }
+
+    /**
+     * Method responsible for copying the current generation into a Generation of the same bounds.
+     *
+     * @param generation into which the cells are copied.
+     */
+    public void copyTo(Generation generation) {
+        generation.clear();
+        copyGreenCells(root, rootLevel, 0, 0, generation);
+    }
+
+    /**
+     * Method responsible for marking the current generation as the one that later generations are compared to for cycle detection.
+     */
+    public void markCycleCheck() {
+        cycleCheckRoot = root;
+    }
+
+    /**
+     * Method responsible for checking whether the current generation repeats the one marked for cycle detection.
+     *
+     * @return True if both generations have the same cells.
+     */
+    public boolean isCycleCheck() {
+        return root == cycleCheckRoot;
+    }
+
+    /**
+     * Method responsible for the creation of the node of a square of a Generation.
+     *
+     * @param generation holding the cells.
+     * @param level      of the node.
+     * @param x          height coordinate of the top left cell of the square.
+     * @param y          width coordinate of the top left cell of the square.
+     * @return node of the square, with WALL cells out of bounds of the grid.
+     */
+    private Node createNode(Generation generation, int level, long x, long y) {
+        if (x >= height || y >= width) {
+            return getWallNode(level);
+        }
+        if (level == 0) {
+            return generation.isGreen((int) x, (int) y) ? greenLeaf : redLeaf;
+        }
+        long half = 1L << (level - 1);
+        return join(
+                createNode(generation, level - 1, x, y),
+                createNode(generation, level - 1, x, y + half),
+                createNode(generation, level - 1, x + half, y),
+                createNode(generation, level - 1, x + half, y + half));
+    }
+
+    /**
+     * Method responsible for getting the result of a node - the centre half of its square 2^stepLog generations later.
+     * Memoized per node for the last number of generations, so the result of a square is created once.
+     * A full step ( 2^(level-2) generations ) steps the nine overlapping half-size squares by half of the generations and the four squares of their results
+     * by the other half, any shorter step takes the centres of the nine squares as they are and steps the four squares by all of the generations.
+     *
+     * @param node    of level 2 or more.
+     * @param stepLog number of generations as a power of two, at most level - 2.
+     * @return node one level lower than the given node.
+     */
+    private Node getResult(Node node, int stepLog) {
+        if (node.result != null && node.resultStepLog == stepLog) {
+            return node.result;
+        }
+        Node result;
+        if (node.greenCount == 0 && (birthMask & 1) == 0) {
+            // No cell of the square has a green neighbour, so no cell of the centre changes.
+            result = getCentre(node);
+        } else if (node.level == MIN_ROOT_LEVEL) {
+            result = createBaseResult(node);
+        } else {
+            boolean fullStep = stepLog == node.level - 2;
+            int quarterStepLog = fullStep ? stepLog - 1 : stepLog;
+            Node r00 = advance(getSubNode(node, 0, 0), fullStep, quarterStepLog);
+            Node r01 = advance(getSubNode(node, 0, 1), fullStep, quarterStepLog);
+            Node r02 = advance(getSubNode(node, 0, 2), fullStep, quarterStepLog);
+            Node r10 = advance(getSubNode(node, 1, 0), fullStep, quarterStepLog);
+            Node r11 = advance(getSubNode(node, 1, 1), fullStep, quarterStepLog);
+            Node r12 = advance(getSubNode(node, 1, 2), fullStep, quarterStepLog);
+            Node r20 = advance(getSubNode(node, 2, 0), fullStep, quarterStepLog);
+            Node r21 = advance(getSubNode(node, 2, 1), fullStep, quarterStepLog);
+            Node r22 = advance(getSubNode(node, 2, 2), fullStep, quarterStepLog);
+            result = join(
+                    getResult(join(r00, r01, r10, r11), quarterStepLog),
+                    getResult(join(r01, r02, r11, r12), quarterStepLog),
+                    getResult(join(r10, r11, r20, r21), quarterStepLog),
+                    getResult(join(r11, r12, r21, r22), quarterStepLog));
+        }
+        node.result = result;
+        node.resultStepLog = stepLog;
+        return result;
+    }
+
+    /**
+     * Method responsible for counting the generations in which a centre cell of a node is green, during the generations of a result of the node.
+     * Follows the cell through the same squares as getResult - one of the nine half-size squares for the first half of a full step,
+     * and one of the four squares of their results for the rest.
+     *
+     * @param node    of level 2 or more.
+     * @param stepLog number of generations as a power of two, at most level - 2.
+     * @param x       height coordinate of the cell in the node, in its centre half.
+     * @param y       width coordinate of the cell in the node, in its centre half.
+     * @return number of generations 1 to 2^stepLog in which the cell is green.
+     */
+    private long countGreenGenerations(Node node, int stepLog, long x, long y) {
+        if (node.greenCount == 0 && (birthMask & 1) == 0) {
+            return 0;
+        }
+        if (node.level == MIN_ROOT_LEVEL) {
+            return getCell(getResult(node, 0), x - 1, y - 1) == greenLeaf ? 1 : 0;
+        }
+        CountKey countKey = new CountKey(node, stepLog, x, y);
+        Long memoizedCount = greenGenerationsCounts.get(countKey);
+        if (memoizedCount != null) {
+            return memoizedCount;
+        }
+        long quarter = 1L << (node.level - 2);
+        long eighth = quarter >>> 1;
+        boolean fullStep = stepLog == node.level - 2;
+        int quarterStepLog = fullStep ? stepLog - 1 : stepLog;
+        long count = 0;
+        if (fullStep) {
+            int i = (int) ((x - eighth) / quarter);
+            int j = (int) ((y - eighth) / quarter);
+            count += countGreenGenerations(getSubNode(node, i, j), quarterStepLog, x - i * quarter, y - j * quarter);
+        }
+        int a = x < 2 * quarter ? 0 : 1;
+        int b = y < 2 * quarter ? 0 : 1;
+        Node quarterStepNode = join(
+                advance(getSubNode(node, a, b), fullStep, quarterStepLog),
+                advance(getSubNode(node, a, b + 1), fullStep, quarterStepLog),
+                advance(getSubNode(node, a + 1, b), fullStep, quarterStepLog),
+                advance(getSubNode(node, a + 1, b + 1), fullStep, quarterStepLog));
+        count += countGreenGenerations(quarterStepNode, quarterStepLog, x - a * quarter - eighth, y - b * quarter - eighth);
+        greenGenerationsCounts.put(countKey, count);
+        checkNodesLimit();
+        return count;
+    }
+
+    /**
+     * Method responsible for the first half of a step of a half-size square - its result for a full step, or its centre as it is for a shorter step.
+     */
+    private Node advance(Node node, boolean fullStep, int stepLog) {
+        return fullStep ? getResult(node, stepLog) : getCentre(node);
+    }
+
+    /**
+     * Method responsible for getting one of the nine overlapping half-size squares of a node, a quarter of the node apart.
+     *
+     * @param node of level 2 or more.
+     * @param i    row of the square, 0 to 2.
+     * @param j    column of the square, 0 to 2.
+     * @return node one level lower than the given node.
+     */
+    private Node getSubNode(Node node, int i, int j) {
+        Node nw = node.nw;
+        Node ne = node.ne;
+        Node sw = node.sw;
+        Node se = node.se;
+        switch (i * 3 + j) {
+            case 0:
+                return nw;
+            case 1:
+                return join(nw.ne, ne.nw, nw.se, ne.sw);
+            case 2:
+                return ne;
+            case 3:
+                return join(nw.sw, nw.se, sw.nw, sw.ne);
+            case 4:
+                return join(nw.se, ne.sw, sw.ne, se.nw);
+            case 5:
+                return join(ne.sw, ne.se, se.nw, se.ne);
+            case 6:
+                return sw;
+            case 7:
+                return join(sw.ne, se.nw, sw.se, se.sw);
+            default:
+                return se;
+        }
+    }
+
+    /**
+     * Method responsible for getting the centre half of a node as it is.
+     *
+     * @param node of level 2 or more.
+     * @return node one level lower than the given node.
+     */
+    private Node getCentre(Node node) {
+        return join(node.nw.se, node.ne.sw, node.sw.ne, node.se.nw);
+    }
+
+    /**
+     * Method responsible for getting a cell of a node.
+     *
+     * @param node holding the cell.
+     * @param x    height coordinate of the cell in the node.
+     * @param y    width coordinate of the cell in the node.
+     * @return leaf of the cell.
+     */
+    private static Node getCell(Node node, long x, long y) {
+        long half;
+        for (int level = node.level; level > 0; level--) {
+            half = 1L << (level - 1);
+            if (x < half) {
+                node = y < half ? node.nw : node.ne;
+            } else {
+                node = y < half ? node.sw : node.se;
+                x -= half;
+            }
+            if (y >= half) {
+                y -= half;
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Method responsible for the creation of the result of a 4 x 4 square by executing the rules for its four centre cells.
+     *
+     * @param node of level 2.
+     * @return node of the 2 x 2 centre one generation later.
+     */
+    private Node createBaseResult(Node node) {
+        putBaseCells(node.nw, 0, 0);
+        putBaseCells(node.ne, 0, 2);
+        putBaseCells(node.sw, 2, 0);
+        putBaseCells(node.se, 2, 2);
+        return join(createBaseCell(1, 1), createBaseCell(1, 2), createBaseCell(2, 1), createBaseCell(2, 2));
+    }
+
+    private void putBaseCells(Node node, int x, int y) {
+        baseCells[x * 4 + y] = node.nw;
+        baseCells[x * 4 + y + 1] = node.ne;
+        baseCells[(x + 1) * 4 + y] = node.sw;
+        baseCells[(x + 1) * 4 + y + 1] = node.se;
+    }
+
+    /**
+     * Method responsible for the creation of a centre cell of the 4 x 4 square held by baseCells one generation later.
+     *
+     * @param x height coordinate of the cell in the square.
+     * @param y width coordinate of the cell in the square.
+     * @return leaf of the cell - WALL cells stay WALL.
+     */
+    private Node createBaseCell(int x, int y) {
+        Node cell = baseCells[x * 4 + y];
+        if (cell == wallLeaf) {
+            return wallLeaf;
+        }
+        int greenNeighbours = 0;
+        for (int i = x - 1; i <= x + 1; i++) {
+            for (int j = y - 1; j <= y + 1; j++) {
+                if ((i != x || j != y) && baseCells[i * 4 + j] == greenLeaf) {
+                    greenNeighbours++;
+                }
+            }
+        }
+        int rulesMask = cell == greenLeaf ? surviveMask : birthMask;
+        return (rulesMask >>> greenNeighbours & 1) != 0 ? greenLeaf : redLeaf;
+    }
+
+    /**
+     * Method responsible for getting the node of a square of WALL cells.
+     *
+     * @param level of the node.
+     * @return the single node of WALL cells of the level.
+     */
+    private Node getWallNode(int level) {
+        if (level == 0) {
+            return wallLeaf;
+        }
+        Node wallNode = wallNodes[level];
+        if (wallNode == null) {
+            Node wall = getWallNode(level - 1);
+            wallNode = join(wall, wall, wall, wall);
+            wallNodes[level] = wallNode; // After the join, which may have evicted the nodes into new tables.
+        }
+        return wallNode;
+    }
+
+    /**
+     * Method responsible for getting the node of four quarters - the existing one if an equal node is in the table, or a new one.
+     *
+     * @return the single node of the four quarters.
+     */
+    private Node join(Node nw, Node ne, Node sw, Node se) {
+        int hash = ((nw.hash * 31 + ne.hash) * 31 + sw.hash) * 31 + se.hash;
+        int index = getTableIndex(hash, table.length);
+        for (Node node = table[index]; node != null; node = node.next) {
+            if (node.nw == nw && node.ne == ne && node.sw == sw && node.se == se) {
+                return node;
+            }
+        }
+        Node node = new Node(nw, ne, sw, se, hash);
+        node.next = table[index];
+        table[index] = node;
+        if (++nodesCount > table.length - (table.length >>> 2)) {
+            resizeTable();
+        }
+        checkNodesLimit();
+        return node;
+    }
+
+    private static int getTableIndex(int hash, int tableLength) {
+        int spreadHash = hash * 0x9E3779B9;
+        return (spreadHash ^ (spreadHash >>> 16)) & (tableLength - 1);
+    }
+
+    /**
+     * Method responsible for doubling the length of the node table.
+     */
+    private void resizeTable() {
+        Node[] resizedTable = new Node[table.length * 2];
+        Node next;
+        int index;
+        for (Node bucket : table) {
+            for (Node node = bucket; node != null; node = next) {
+                next = node.next;
+                index = getTableIndex(node.hash, resizedTable.length);
+                node.next = resizedTable[index];
+                resizedTable[index] = node;
+            }
+        }
+        table = resizedTable;
+    }
+
+    /**
+     * Method responsible for checking the number of nodes and memoized counts against the nodes limit, evicting every one of them past it.
+     * The nodes being used by the running step stay valid, just no longer shared - so the step completes, unless it is a jump,
+     * which is abandoned as it would need to create most of the evicted nodes again.
+     *
+     * @throws JumpAbandonedException when a jump reaches the nodes limit.
+     */
+    private void checkNodesLimit() {
+        if (rebuilding || nodesCount + greenGenerationsCounts.size() <= nodesLimit) {
+            return;
+        }
+        for (Node bucket : table) {
+            for (Node node = bucket; node != null; node = node.next) {
+                node.result = null; // A dropped node which is still used keeps no result alive.
+            }
+        }
+        table = new Node[INITIAL_TABLE_LENGTH];
+        nodesCount = 0;
+        wallNodes = new Node[MAX_LEVELS];
+        greenGenerationsCounts.clear();
+        evicted = true;
+        if (jumping) {
+            throw JumpAbandonedException.INSTANCE;
+        }
+    }
+
+    /**
+     * Method responsible for rebuilding the node table from the nodes of the current and the cycle check generations only.
+     * Every other node and every memoized result is dropped, and equal squares are the same node again.
+     */
+    private void rebuildTable() {
+        rebuilding = true;
+        table = new Node[INITIAL_TABLE_LENGTH];
+        nodesCount = 0;
+        wallNodes = new Node[MAX_LEVELS];
+        greenGenerationsCounts.clear();
+        Map<Node, Node> copies = new IdentityHashMap<>();
+        root = copyNode(root, copies);
+        cycleCheckRoot = copyNode(cycleCheckRoot, copies);
+        nodesLimit = Math.max(maxNodes, nodesCount * 2);
+        rebuilding = false;
+        evicted = false;
+    }
+
+    /**
+     * Method responsible for copying a node into the node table.
+     *
+     * @param node   to be copied.
+     * @param copies of the nodes copied so far, so a node shared by many squares is copied once.
+     * @return the copy of the node.
+     */
+    private Node copyNode(Node node, Map<Node, Node> copies) {
+        if (node.level == 0) {
+            return node;
+        }
+        Node copy = copies.get(node);
+        if (copy == null) {
+            copy = join(copyNode(node.nw, copies), copyNode(node.ne, copies), copyNode(node.sw, copies), copyNode(node.se, copies));
+            copies.put(node, copy);
+        }
+        return copy;
+    }
+
+    private void countGreenCells(Node node, int level, long x, long y, long[] greenCounts) {
+        if (node.greenCount == 0) {
+            return;
+        }
+        if (level == 0) {
+            greenCounts[(int) (x * width + y)]++;
+            return;
+        }
+        long half = 1L << (level - 1);
+        countGreenCells(node.nw, level - 1, x, y, greenCounts);
+        countGreenCells(node.ne, level - 1, x, y + half, greenCounts);
+        countGreenCells(node.sw, level - 1, x + half, y, greenCounts);
+        countGreenCells(node.se, level - 1, x + half, y + half, greenCounts);
+    }
+
+    private void copyGreenCells(Node node, int level, long x, long y, Generation generation) {
+        if (node.greenCount == 0) {
+            return;
+        }
+        if (level == 0) {
+            generation.setGreen((int) x, (int) y, true);
+            return;
+        }
+        long half = 1L << (level - 1);
+        copyGreenCells(node.nw, level - 1, x, y, generation);
+        copyGreenCells(node.ne, level - 1, x, y + half, generation);
+        copyGreenCells(node.sw, level - 1, x + half, y, generation);
+        copyGreenCells(node.se, level - 1, x + half, y + half, generation);
+    }
+
+    /**
+     * Class responsible for holding a square of cells - a single cell ( a leaf ) or four quarter squares of one level lower.
+     */
+    private static final class Node {
+        private final int level;
+        private final Node nw;
+        private final Node ne;
+        private final Node sw;
+        private final Node se;
+        /**
+         * Variable containing the number of green cells of the square.
+         */
+        private final long greenCount;
+        private final int hash;
+        /**
+         * Variable containing the memoized centre of the square 2^resultStepLog generations later, or null until it is needed.
+         */
+        private Node result;
+        private int resultStepLog;
+        /**
+         * Variable containing the next node of the same bucket of the node table.
+         */
+        private Node next;
+
+        private Node(int hash, long greenCount) {
+            this.level = 0;
+            this.nw = null;
+            this.ne = null;
+            this.sw = null;
+            this.se = null;
+            this.greenCount = greenCount;
+            this.hash = hash;
+        }
+
+        private Node(Node nw, Node ne, Node sw, Node se, int hash) {
+            this.level = nw.level + 1;
+            this.nw = nw;
+            this.ne = ne;
+            this.sw = sw;
+            this.se = se;
+            this.greenCount = nw.greenCount + ne.greenCount + sw.greenCount + se.greenCount;
+            this.hash = hash;
+        }
+    }
+
+    /**
+     * Class responsible for the identity of a memoized count - a node, a number of generations and a centre cell of the node.
+     */
+    private static final class CountKey {
+        private final Node node;
+        private final int stepLog;
+        private final long x;
+        private final long y;
+
+        private CountKey(Node node, int stepLog, long x, long y) {
+            this.node = node;
+            this.stepLog = stepLog;
+            this.x = x;
+            this.y = y;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof CountKey)) {
+                return false;
+            }
+            CountKey countKey = (CountKey) o;
+            return node == countKey.node && stepLog == countKey.stepLog && x == countKey.x && y == countKey.y;
+        }
+
+        @Override
+        public int hashCode() {
+            return ((node.hash * 31 + stepLog) * 31 + Long.hashCode(x)) * 31 + Long.hashCode(y);
+        }
+    }
+
+    /**
+     * Exception responsible for abandoning a jump that reached the nodes limit - thrown through the recursion of the jump, without a stack trace.
+     */
+    private static final class JumpAbandonedException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private static final JumpAbandonedException INSTANCE = new JumpAbandonedException();
+
+        private JumpAbandonedException() {
+            super(null, null, false, false);
+        }
+    }
+
+}
@@ -0,0 +1,117 @@
+package engine.impl;
+
+import engine.IStepKernel;
+import model.Generation;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Class responsible for the creation of the next generation in parallel.
+ * Splits the rows into bands which are created by another kernel on a ForkJoinPool.
+ * Returns only after every band is created, which acts as a barrier between generations.
+ * Each row of a Generation starts at a new word, so bands never write to the same word and the result matches the sequential one bit for bit.
+ *
+ * @author - Viktor Kurtev
+ */
+public final class ParallelStepKernel implements IStepKernel {
+
+    /**
+     * Constant for the minimum number of rows in a band - smaller bands cost more to schedule than to create.
+     */
+    private static final int MIN_ROWS_PER_BAND = 4;
+
+    /**
+     * Variable containing the kernel used to create each band.
+     */
+    private final IStepKernel bandKernel;
+
+    /**
+     * Variable containing the pool on which the bands are created.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Variable containing the task that creates all bands, reused for every generation.
+     */
+    private final StepTask stepTask;
+
+    /**
+     * Variable containing the tasks that create a single band each, reused for every generation while the number of bands stays the same.
+     */
+    private BandTask[] bandTasks;
+
+    public ParallelStepKernel(IStepKernel bandKernel, ForkJoinPool pool) {
+        this.bandKernel = bandKernel;
+        this.pool = pool;
+        this.stepTask = new StepTask();
+        this.bandTasks = new BandTask[0];
+    }
+
+    /**
+     * Method responsible for the creation of the cells of the new generation split into bands of rows.
+     * The tasks are reused between generations, so once the number of bands is settled no objects are created per generation.
+     * Not thread-safe - a single kernel creates a single generation at a time.
+     *
+     * @param lastGeneration holds the last generation of cells.
+     * @param newGeneration  will hold the new generation of cells.
+     * @param fromRow        first row to be created.
+     * @param toRow          row after the last row to be created.
+     */
+    @Override
+    public void createNewCells(Generation lastGeneration, Generation newGeneration, int fromRow, int toRow) {
+        int rowsCount = toRow - fromRow;
+        int bandsCount = Math.min(pool.getParallelism(), (rowsCount + MIN_ROWS_PER_BAND - 1) / MIN_ROWS_PER_BAND);
+        if (bandsCount <= 1) {
+            bandKernel.createNewCells(lastGeneration, newGeneration, fromRow, toRow);
+            return;
+        }
+        if (bandTasks.length != bandsCount) {
+            bandTasks = new BandTask[bandsCount];
+            for (int i = 0; i < bandsCount; i++) {
+                bandTasks[i] = new BandTask();
+            }
+        }
+        for (int i = 0; i < bandsCount; i++) {
+            bandTasks[i].reinitialize();
+            bandTasks[i].lastGeneration = lastGeneration;
+            bandTasks[i].newGeneration = newGeneration;
+            bandTasks[i].fromRow = fromRow + (int) ((long) rowsCount * i / bandsCount);
+            bandTasks[i].toRow = fromRow + (int) ((long) rowsCount * (i + 1) / bandsCount);
+        }
+        stepTask.reinitialize();
+        pool.invoke(stepTask);
+    }
+
+    /**
+     * Task responsible for the creation of all bands, waiting for every one of them to finish.
+     */
+    private final class StepTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected void compute() {
+            invokeAll(bandTasks);
+        }
+    }
+
+    /**
+     * Task responsible for the creation of a single band of rows.
+     */
+    private final class BandTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private Generation lastGeneration;
+        private Generation newGeneration;
+        private int fromRow;
+        private int toRow;
+
+        @Override
+        protected void compute() {
+            bandKernel.createNewCells(lastGeneration, newGeneration, fromRow, toRow);
+        }
+    }
+
+}
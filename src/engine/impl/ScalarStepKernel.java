@@ -0,0 +1,87 @@
+package engine.impl;
+
+import engine.IGreenVsRed;
+import engine.IStepKernel;
+import model.Generation;
+import model.RuleSet;
+
+/**
+ * Class responsible for the creation of the next generation cell by cell.
+ * Works on the bit-packed grids only, no objects are created per cell.
+ *
+ * @author - Viktor Kurtev
+ */
+public final class ScalarStepKernel implements IStepKernel {
+
+    /**
+     * Variable containing the rules that form the next generation.
+     */
+    private final RuleSet ruleSet;
+
+    public ScalarStepKernel(IGreenVsRed rules) {
+        this.ruleSet = rules.getRuleSet();
+    }
+
+    /**
+     * Method responsible for the creation of cells for the new Generation.
+     * Reads the cells of the last Generation's grid,
+     * calculates the number of green neighbours for the current cell
+     * and then writes the cell into the new Generation grid by looking its type up in the rule set, without branching on the count.
+     * The green neighbours are counted with a sliding window of three column sums ( the cells above, at and below the current row ),
+     * so moving to the next cell reads a single new column and nothing is allocated.
+     *
+     * @param lastGeneration holds the last Generation of cells.
+     * @param newGeneration  will hold the new Generation of cells.
+     * @param fromRow        first row to be created.
+     * @param toRow          row after the last row to be created.
+     */
+    @Override
+    public void createNewCells(Generation lastGeneration, Generation newGeneration, int fromRow, int toRow) {
+        int height = lastGeneration.getHeight();
+        int width = lastGeneration.getWidth();
+        boolean hasRowAbove;
+        boolean hasRowBelow;
+        int lastGenCellState;
+        int leftColumnGreenCount;
+        int middleColumnGreenCount;
+        int rightColumnGreenCount;
+        int totalGreenNeighbours;
+        for (int i = fromRow; i < toRow; i++) {
+            hasRowAbove = i > 0;
+            hasRowBelow = i < height - 1;
+            leftColumnGreenCount = 0; // The column left of the first cell is out of bounds.
+            middleColumnGreenCount = getColumnGreenCellsCount(lastGeneration, i, 0, hasRowAbove, hasRowBelow);
+            for (int j = 0; j < width; j++) {
+                rightColumnGreenCount = j + 1 < width ? getColumnGreenCellsCount(lastGeneration, i, j + 1, hasRowAbove, hasRowBelow) : 0;
+                lastGenCellState = lastGeneration.isGreen(i, j) ? 1 : 0;
+                totalGreenNeighbours = leftColumnGreenCount + middleColumnGreenCount + rightColumnGreenCount - lastGenCellState;
+                newGeneration.setGreen(i, j, ruleSet.getNextCellState(totalGreenNeighbours, lastGenCellState) == 1);
+                leftColumnGreenCount = middleColumnGreenCount;
+                middleColumnGreenCount = rightColumnGreenCount;
+            }
+        }
+    }
+
+    /**
+     * Method responsible for counting the green cells in a column of three cells - above, at and below the given row.
+     * Rows out of bounds of the grid are treated as absent.
+     *
+     * @param generation  holding the grid in which the cells are located.
+     * @param x           height coordinate of the middle cell.
+     * @param y           width coordinate of the column.
+     * @param hasRowAbove True if the row above the middle cell is in bounds.
+     * @param hasRowBelow True if the row below the middle cell is in bounds.
+     * @return number of green cells in the column.
+     */
+    private int getColumnGreenCellsCount(Generation generation, int x, int y, boolean hasRowAbove, boolean hasRowBelow) {
+        int greenCellsCount = generation.isGreen(x, y) ? 1 : 0;
+        if (hasRowAbove && generation.isGreen(x - 1, y)) {
+            greenCellsCount++;
+        }
+        if (hasRowBelow && generation.isGreen(x + 1, y)) {
+            greenCellsCount++;
+        }
+        return greenCellsCount;
+    }
+
+}
@@ -0,0 +1,260 @@
+package engine.impl;
+
+import engine.IGreenVsRed;
+import engine.IStepKernel;
+import model.Generation;
+import model.RuleSet;
+
+import java.util.Arrays;
+
+/**
+ * Class responsible for the creation of the next generation a whole word ( 64 cells ) at a time.
+ * SIMD within a register - the 8 neighbours of every cell in the word are added with a bit-sliced adder,
+ * which gives the green neighbours count as four words of count bits, and the rules are applied with bitwise operations only.
+ *
+ * @author - Viktor Kurtev
+ */
+public final class SwarStepKernel implements IStepKernel {
+
+    /**
+     * Variable containing the window of heap rows of every thread creating generations held off the heap.
+     */
+    private static final ThreadLocal<long[][]> ROWS_WINDOW = ThreadLocal.withInitial(() -> new long[4][0]);
+
+    /**
+     * Variable containing the green neighbours counts for which a cell is GREEN in the next generation regardless of its type.
+     */
+    private final int[] alwaysGreenCounts;
+
+    /**
+     * Variable containing the green neighbours counts for which only a GREEN cell stays GREEN in the next generation.
+     */
+    private final int[] greenIfGreenCounts;
+
+    /**
+     * Variable containing the green neighbours counts for which only a RED cell becomes GREEN in the next generation.
+     */
+    private final int[] greenIfRedCounts;
+
+    /**
+     * Compiles the rule set into the three groups of counts.
+     *
+     * @param rules used to form the next generation.
+     */
+    public SwarStepKernel(IGreenVsRed rules) {
+        RuleSet ruleSet = rules.getRuleSet();
+        int[] counts = new int[RuleSet.COUNTS_PER_STATE];
+        int alwaysGreenCountsSize = 0;
+        int greenIfGreenCountsSize = 0;
+        int greenIfRedCountsSize = 0;
+        int[] alwaysGreen = new int[counts.length];
+        int[] greenIfGreen = new int[counts.length];
+        int[] greenIfRed = new int[counts.length];
+        for (int count = 0; count < counts.length; count++) {
+            boolean greenStaysGreen = ruleSet.getNextCellState(count, 1) == 1;
+            boolean redBecomesGreen = ruleSet.getNextCellState(count, 0) == 1;
+            if (greenStaysGreen && redBecomesGreen) {
+                alwaysGreen[alwaysGreenCountsSize++] = count;
+            } else if (greenStaysGreen) {
+                greenIfGreen[greenIfGreenCountsSize++] = count;
+            } else if (redBecomesGreen) {
+                greenIfRed[greenIfRedCountsSize++] = count;
+            }
+        }
+        this.alwaysGreenCounts = Arrays.copyOf(alwaysGreen, alwaysGreenCountsSize);
+        this.greenIfGreenCounts = Arrays.copyOf(greenIfGreen, greenIfGreenCountsSize);
+        this.greenIfRedCounts = Arrays.copyOf(greenIfRed, greenIfRedCountsSize);
+    }
+
+    /**
+     * Method responsible for the creation of cells for the new Generation, word by word.
+     * Keeps the words left of, at and right of the current word for the rows above, at and below,
+     * so every word of the last Generation is read once per row that needs it.
+     *
+     * @param lastGeneration holds the last Generation of cells.
+     * @param newGeneration  will hold the new Generation of cells.
+     * @param fromRow        first row to be created.
+     * @param toRow          row after the last row to be created.
+     */
+    @Override
+    public void createNewCells(Generation lastGeneration, Generation newGeneration, int fromRow, int toRow) {
+        if (lastGeneration.isOffHeap() || newGeneration.isOffHeap()) {
+            createNewCellsOffHeap(lastGeneration, newGeneration, fromRow, toRow);
+            return;
+        }
+        int height = lastGeneration.getHeight();
+        int wordsPerRow = lastGeneration.getWordsPerRow();
+        long lastWordMask = getLastWordMask(lastGeneration.getWidth());
+        for (int i = fromRow; i < toRow; i++) {
+            createNewRow(
+                    i > 0 ? lastGeneration.getRow(i - 1) : null, // Rows out of bounds are absent.
+                    lastGeneration.getRow(i),
+                    i < height - 1 ? lastGeneration.getRow(i + 1) : null,
+                    newGeneration.getRow(i), wordsPerRow, lastWordMask);
+        }
+    }
+
+    /**
+     * Method responsible for the creation of cells of generations held off the heap, which have no row arrays.
+     * The rows above, at and below slide through a window of heap rows of the thread, read from the last Generation with a bulk copy each,
+     * and every new row is written back with a bulk copy - the words are created exactly as on the heap, and nothing is allocated per generation.
+     *
+     * @param lastGeneration holds the last Generation of cells.
+     * @param newGeneration  will hold the new Generation of cells.
+     * @param fromRow        first row to be created.
+     * @param toRow          row after the last row to be created.
+     */
+    private void createNewCellsOffHeap(Generation lastGeneration, Generation newGeneration, int fromRow, int toRow) {
+        if (fromRow >= toRow) {
+            return;
+        }
+        int height = lastGeneration.getHeight();
+        int wordsPerRow = lastGeneration.getWordsPerRow();
+        long lastWordMask = getLastWordMask(lastGeneration.getWidth());
+        long[][] window = getRowsWindow(wordsPerRow);
+        long[] upRow = window[0];
+        long[] middleRow = window[1];
+        long[] downRow = window[2];
+        long[] newRow = window[3];
+        long[] swappedRow;
+        if (fromRow > 0) {
+            lastGeneration.readWords(fromRow - 1, 0, upRow, 0, wordsPerRow);
+        }
+        lastGeneration.readWords(fromRow, 0, middleRow, 0, wordsPerRow);
+        for (int i = fromRow; i < toRow; i++) {
+            if (i < height - 1) {
+                lastGeneration.readWords(i + 1, 0, downRow, 0, wordsPerRow);
+            }
+            createNewRow(i > 0 ? upRow : null, middleRow, i < height - 1 ? downRow : null, newRow, wordsPerRow, lastWordMask);
+            newGeneration.writeWords(i, 0, newRow, 0, wordsPerRow);
+            swappedRow = upRow;
+            upRow = middleRow;
+            middleRow = downRow;
+            downRow = swappedRow;
+        }
+    }
+
+    /**
+     * Method responsible for getting the window of heap rows of the current thread, created or grown on first use.
+     *
+     * @param wordsPerRow of the grid.
+     * @return the rows above, at, below and the new row, wordsPerRow words each at least.
+     */
+    private static long[][] getRowsWindow(int wordsPerRow) {
+        long[][] window = ROWS_WINDOW.get();
+        if (window[0].length < wordsPerRow) {
+            window = new long[4][wordsPerRow];
+            ROWS_WINDOW.set(window);
+        }
+        return window;
+    }
+
+    /**
+     * Method responsible for the creation of a single row of the new Generation.
+     *
+     * @param upRow        row above, null when it is out of bounds.
+     * @param middleRow    row at the same height in the last Generation.
+     * @param downRow      row below, null when it is out of bounds.
+     * @param newRow       will hold the row of the new Generation.
+     * @param wordsPerRow  of the grid.
+     * @param lastWordMask mask of the cells in bounds of the last word of a row.
+     */
+    private void createNewRow(long[] upRow, long[] middleRow, long[] downRow, long[] newRow, int wordsPerRow, long lastWordMask) {
+        long upWord, upNextWord, upPreviousWord;
+        long middleWord, middleNextWord, middlePreviousWord;
+        long downWord, downNextWord, downPreviousWord;
+        long newWord;
+        upPreviousWord = middlePreviousWord = downPreviousWord = 0; // The words left of the first word are out of bounds.
+        upWord = upRow != null ? upRow[0] : 0;
+        middleWord = middleRow[0];
+        downWord = downRow != null ? downRow[0] : 0;
+        for (int w = 0; w < wordsPerRow; w++) {
+            boolean hasNextWord = w + 1 < wordsPerRow;
+            upNextWord = hasNextWord && upRow != null ? upRow[w + 1] : 0;
+            middleNextWord = hasNextWord ? middleRow[w + 1] : 0;
+            downNextWord = hasNextWord && downRow != null ? downRow[w + 1] : 0;
+            newWord = createNewWord(
+                    upPreviousWord, upWord, upNextWord,
+                    middlePreviousWord, middleWord, middleNextWord,
+                    downPreviousWord, downWord, downNextWord);
+            newRow[w] = hasNextWord ? newWord : newWord & lastWordMask;
+            upPreviousWord = upWord;
+            upWord = upNextWord;
+            middlePreviousWord = middleWord;
+            middleWord = middleNextWord;
+            downPreviousWord = downWord;
+            downWord = downNextWord;
+        }
+    }
+
+    /**
+     * Method responsible for the creation of a single word of the new Generation.
+     * Bit b of a word is the cell at column 64 * w + b, so the neighbour on the left of every cell in a word is the word shifted left by one
+     * with the top bit of the previous word carried in, and the neighbour on the right is the word shifted right with the lowest bit of the next word carried in.
+     *
+     * @return word of cells of the new Generation.
+     */
+    private long createNewWord(long upPreviousWord, long upWord, long upNextWord,
+                               long middlePreviousWord, long middleWord, long middleNextWord,
+                               long downPreviousWord, long downWord, long downNextWord) {
+        long upLeft = (upWord << 1) | (upPreviousWord >>> 63);
+        long upRight = (upWord >>> 1) | (upNextWord << 63);
+        long left = (middleWord << 1) | (middlePreviousWord >>> 63);
+        long right = (middleWord >>> 1) | (middleNextWord << 63);
+        long downLeft = (downWord << 1) | (downPreviousWord >>> 63);
+        long downRight = (downWord >>> 1) | (downNextWord << 63);
+
+        // Ones and twos of the three cells above and the three cells below, ones and twos of the two cells on the sides.
+        long upOnes = upLeft ^ upWord ^ upRight;
+        long upTwos = (upLeft & upWord) | (upRight & (upLeft ^ upWord));
+        long downOnes = downLeft ^ downWord ^ downRight;
+        long downTwos = (downLeft & downWord) | (downRight & (downLeft ^ downWord));
+        long sideOnes = left ^ right;
+        long sideTwos = left & right;
+
+        // Adding up the ones carries into the twos, adding up the twos carries into the fours and the eights.
+        long countBit0 = upOnes ^ downOnes ^ sideOnes;
+        long onesCarry = (upOnes & downOnes) | (sideOnes & (upOnes ^ downOnes));
+        long twosSum = upTwos ^ downTwos ^ sideTwos;
+        long twosCarry = (upTwos & downTwos) | (sideTwos & (upTwos ^ downTwos));
+        long countBit1 = twosSum ^ onesCarry;
+        long twosSumCarry = twosSum & onesCarry;
+        long countBit2 = twosCarry ^ twosSumCarry;
+        long countBit3 = twosCarry & twosSumCarry;
+
+        return getCountsMask(alwaysGreenCounts, countBit0, countBit1, countBit2, countBit3)
+                | (middleWord & getCountsMask(greenIfGreenCounts, countBit0, countBit1, countBit2, countBit3))
+                | (~middleWord & getCountsMask(greenIfRedCounts, countBit0, countBit1, countBit2, countBit3));
+    }
+
+    /**
+     * Method responsible for marking the cells whose green neighbours count is one of the given counts.
+     * A count bit is used as is when the same bit of the count is set ( ((count >> k) & 1) - 1 is 0 ) and inverted otherwise ( it is -1 ).
+     *
+     * @param counts green neighbours counts to be marked.
+     * @return word with the bits set for the cells with a matching count.
+     */
+    private static long getCountsMask(int[] counts, long countBit0, long countBit1, long countBit2, long countBit3) {
+        long countsMask = 0;
+        for (int count : counts) {
+            countsMask |= (countBit0 ^ ((count & 1) - 1))
+                    & (countBit1 ^ (((count >> 1) & 1) - 1))
+                    & (countBit2 ^ (((count >> 2) & 1) - 1))
+                    & (countBit3 ^ (((count >> 3) & 1) - 1));
+        }
+        return countsMask;
+    }
+
+    /**
+     * Method responsible for the calculation of the mask of the cells in bounds of the last word of a row.
+     * Keeps the bits past the width of the grid always RED, so they never count as neighbours.
+     *
+     * @param width of the grid.
+     * @return mask with the bits of the cells in bounds set.
+     */
+    private static long getLastWordMask(int width) {
+        int lastWordCells = width % Generation.CELLS_PER_WORD;
+        return lastWordCells == 0 ? -1L : (1L << lastWordCells) - 1;
+    }
+
+}
@@ -0,0 +1,226 @@
+package engine.impl;
+
+import engine.IGreenVsRed;
+import engine.IStepKernel;
+import model.Generation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class responsible for the creation of several generations at once, tile by tile ( temporal blocking ).
+ * Every tile of rows and words is copied with a ghost zone around it into a small tile grid that stays in the cache,
+ * where the SWAR kernel creates all the generations of the block before the tile is written back, so the grid is read and written once per block instead of once per generation.
+ * A ghost zone is as deep as the generations of the block - an error at the edge of a tile grid moves a single cell per generation,
+ * so after the block the cells of the tile itself are exact. The ghost zone is a whole word on the sides, which bounds a block to 64 generations.
+ * Where a tile touches the border of the grid it has no ghost zone, the border of the tile grid is the border of the grid.
+ * The intermediate generations exist in the tile grids only, so they are counted for the observed cells tile by tile.
+ * The tile grids are always on the heap, so a grid held off the heap is only read and written with bulk copies.
+ *
+ * @author - Viktor Kurtev
+ */
+public final class TiledStepKernel implements IStepKernel {
+
+    /**
+     * Constants for the default tile bounds - with the ghost zones, the two tile grids of a 64 x 1024 tile take about 20 KB, which stays in a L1 cache.
+     */
+    public static final int DEFAULT_TILE_ROWS = 64;
+    public static final int DEFAULT_TILE_WORDS = 16;
+    public static final int DEFAULT_GENERATIONS_PER_BLOCK = 4;
+
+    /**
+     * Constant for the maximum number of generations of a block - the depth of a ghost word.
+     */
+    private static final int MAX_GENERATIONS_PER_BLOCK = Generation.CELLS_PER_WORD;
+
+    /**
+     * Constant for the maximum number of pairs of tile grids kept - a kernel playing grids of many bounds drops the old ones.
+     */
+    private static final int MAX_TILE_BUFFERS = 16;
+
+    /**
+     * Variable containing the kernel used to create the generations of a tile grid, and single generations of the whole grid.
+     */
+    private final SwarStepKernel swarStepKernel;
+
+    private final int tileRows;
+    private final int tileWords;
+    private final int generationsPerBlock;
+
+    /**
+     * Variable containing the pairs of tile grids, one per tile bounds, reused for every block.
+     */
+    private final List<Generation[]> tileBuffers;
+
+    public TiledStepKernel(IGreenVsRed rules) {
+        this(rules, DEFAULT_TILE_ROWS, DEFAULT_TILE_WORDS, DEFAULT_GENERATIONS_PER_BLOCK);
+    }
+
+    /**
+     * @param rules               used to form the next generation.
+     * @param tileRows            number of rows of a tile.
+     * @param tileWords           number of words ( 64 cells each ) of a tile row.
+     * @param generationsPerBlock maximum number of generations created per tile at once.
+     */
+    public TiledStepKernel(IGreenVsRed rules, int tileRows, int tileWords, int generationsPerBlock) {
+        if (tileRows <= 0 || tileWords <= 0) {
+            throw new IllegalArgumentException("The tile bounds should be positive, got " + tileRows + "," + tileWords + "!");
+        }
+        if (generationsPerBlock <= 0 || generationsPerBlock > MAX_GENERATIONS_PER_BLOCK) {
+            throw new IllegalArgumentException("The generations per block should be 1 to " + MAX_GENERATIONS_PER_BLOCK + ", got " + generationsPerBlock + "!");
+        }
+        this.swarStepKernel = new SwarStepKernel(rules);
+        this.tileRows = tileRows;
+        this.tileWords = tileWords;
+        this.generationsPerBlock = generationsPerBlock;
+        this.tileBuffers = new ArrayList<>();
+    }
+
+    /**
+     * Method responsible for the creation of a single generation - a plain row sweep, a block of one generation gains nothing from the tiles.
+     *
+     * @param lastGeneration holds the last generation of cells.
+     * @param newGeneration  will hold the new generation of cells.
+     * @param fromRow        first row to be created.
+     * @param toRow          row after the last row to be created.
+     */
+    @Override
+    public void createNewCells(Generation lastGeneration, Generation newGeneration, int fromRow, int toRow) {
+        swarStepKernel.createNewCells(lastGeneration, newGeneration, fromRow, toRow);
+    }
+
+    public int getGenerationsPerBlock() {
+        return generationsPerBlock;
+    }
+
+    /**
+     * Method responsible for the creation of a block of generations, tile by tile.
+     * Counts the generations between the last and the new one for the observed cells, the new generation itself is left to the caller.
+     * Every row of the new generation is marked as changed. Not thread-safe - the tile grids are shared by the blocks of a kernel.
+     *
+     * @param lastGeneration           holds the last generation of cells.
+     * @param newGeneration            will hold the generation created after the given number of generations.
+     * @param generations              number of generations of the block, 1 to getGenerationsPerBlock().
+     * @param observedCellsX           height coordinates of the observed cells, or null when every cell of the grid is observed.
+     * @param observedCellsY           width coordinates of the observed cells, or null when every cell of the grid is observed.
+     * @param observedCellsGreenCounts incremented for every intermediate generation in which an observed cell is green.
+     */
+    public void createNewCells(Generation lastGeneration, Generation newGeneration, int generations,
+                               int[] observedCellsX, int[] observedCellsY, long[] observedCellsGreenCounts) {
+        if (generations <= 0 || generations > generationsPerBlock) {
+            throw new IllegalArgumentException("The generations of a block should be 1 to " + generationsPerBlock + ", got " + generations + "!");
+        }
+        int height = lastGeneration.getHeight();
+        int wordsPerRow = lastGeneration.getWordsPerRow();
+        for (int fromRow = 0; fromRow < height; fromRow += tileRows) {
+            for (int fromWord = 0; fromWord < wordsPerRow; fromWord += tileWords) {
+                createTile(lastGeneration, newGeneration, generations, fromRow, Math.min(fromRow + tileRows, height),
+                        fromWord, Math.min(fromWord + tileWords, wordsPerRow), observedCellsX, observedCellsY, observedCellsGreenCounts);
+            }
+        }
+    }
+
+    /**
+     * Method responsible for the creation of a block of generations of a single tile.
+     *
+     * @param fromRow  first row of the tile.
+     * @param toRow    row after the last row of the tile.
+     * @param fromWord first word of the tile rows.
+     * @param toWord   word after the last word of the tile rows.
+     */
+    private void createTile(Generation lastGeneration, Generation newGeneration, int generations, int fromRow, int toRow, int fromWord, int toWord,
+                            int[] observedCellsX, int[] observedCellsY, long[] observedCellsGreenCounts) {
+        int height = lastGeneration.getHeight();
+        int wordsPerRow = lastGeneration.getWordsPerRow();
+        int tileFromRow = Math.max(fromRow - generations, 0);
+        int tileToRow = Math.min(toRow + generations, height);
+        int tileFromWord = Math.max(fromWord - 1, 0);
+        int tileToWord = Math.min(toWord + 1, wordsPerRow);
+        int tileHeight = tileToRow - tileFromRow;
+        int tileWidth = tileToWord == wordsPerRow
+                ? lastGeneration.getWidth() - tileFromWord * Generation.CELLS_PER_WORD
+                : (tileToWord - tileFromWord) * Generation.CELLS_PER_WORD;
+        Generation[] buffers = getTileBuffers(tileHeight, tileWidth);
+        Generation currentTile = buffers[0];
+        Generation nextTile = buffers[1];
+        Generation swappedTile;
+        for (int i = tileFromRow; i < tileToRow; i++) {
+            lastGeneration.readWords(i, tileFromWord, currentTile.getRow(i - tileFromRow), 0, tileToWord - tileFromWord);
+        }
+        for (int generation = 1; generation <= generations; generation++) {
+            // The rows next to a ghost zone edge are wrong one more row deep every generation, so they are not created at all.
+            swarStepKernel.createNewCells(currentTile, nextTile,
+                    tileFromRow == 0 ? 0 : generation,
+                    tileToRow == height ? tileHeight : tileHeight - generation);
+            swappedTile = currentTile;
+            currentTile = nextTile;
+            nextTile = swappedTile;
+            if (generation < generations) {
+                countTile(currentTile, tileFromRow, tileFromWord, fromRow, toRow, fromWord, toWord,
+                        lastGeneration.getWidth(), observedCellsX, observedCellsY, observedCellsGreenCounts);
+            }
+        }
+        for (int i = fromRow; i < toRow; i++) {
+            newGeneration.writeWords(i, fromWord, currentTile.getRow(i - tileFromRow), fromWord - tileFromWord, toWord - fromWord);
+        }
+    }
+
+    /**
+     * Method responsible for counting an intermediate generation of a tile for every observed cell in the tile that is green in it.
+     *
+     * @param tile         holding the intermediate generation of the tile and its ghost zone.
+     * @param tileFromRow  row of the grid of the first row of the tile grid.
+     * @param tileFromWord word of the grid of the first word of the tile grid.
+     * @param width        of the grid.
+     */
+    private static void countTile(Generation tile, int tileFromRow, int tileFromWord, int fromRow, int toRow, int fromWord, int toWord, int width,
+                                  int[] observedCellsX, int[] observedCellsY, long[] observedCellsGreenCounts) {
+        int tileFromColumn = tileFromWord * Generation.CELLS_PER_WORD;
+        if (observedCellsX != null) {
+            for (int i = 0; i < observedCellsX.length; i++) {
+                int x = observedCellsX[i];
+                int y = observedCellsY[i];
+                if (x >= fromRow && x < toRow && y >>> 6 >= fromWord && y >>> 6 < toWord
+                        && tile.isGreen(x - tileFromRow, y - tileFromColumn)) {
+                    observedCellsGreenCounts[i]++;
+                }
+            }
+            return;
+        }
+        long[] row;
+        long word;
+        for (int i = fromRow; i < toRow; i++) {
+            row = tile.getRow(i - tileFromRow);
+            for (int w = fromWord; w < toWord; w++) {
+                word = row[w - tileFromWord];
+                while (word != 0) {
+                    observedCellsGreenCounts[i * width + w * Generation.CELLS_PER_WORD + Long.numberOfTrailingZeros(word)]++;
+                    word &= word - 1; // Clears the lowest set bit.
+                }
+            }
+        }
+    }
+
+    /**
+     * Method responsible for getting the pair of tile grids of the given bounds, created on first use.
+     * A grid has a few distinct tile bounds only - the inner tiles, and the tiles at its borders.
+     *
+     * @param height of the tile grid.
+     * @param width  of the tile grid.
+     * @return the current and the next tile grid.
+     */
+    private Generation[] getTileBuffers(int height, int width) {
+        for (Generation[] buffers : tileBuffers) {
+            if (buffers[0].getHeight() == height && buffers[0].getWidth() == width) {
+                return buffers;
+            }
+        }
+        if (tileBuffers.size() == MAX_TILE_BUFFERS) {
+            tileBuffers.clear();
+        }
+        Generation[] buffers = {new Generation(height, width), new Generation(height, width)};
+        tileBuffers.add(buffers);
+        return buffers;
+    }
+
+}
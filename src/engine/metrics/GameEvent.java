@@ -0,0 +1,42 @@
+package engine.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event of a single game, from its first to its last generation. Recorded only while a JFR recording is running.
+ *
+ * @author - Viktor Kurtev
+ */
+@Name("com.vdkurtev.gvr.Game")
+@Label("GreenVsRed Game")
+@Category("GreenVsRed")
+@Description("A game played from its first generation to its N generations")
+public final class GameEvent extends Event {
+
+    @Label("Height")
+    int height;
+
+    @Label("Width")
+    int width;
+
+    @Label("Generations Count")
+    @Description("Number of generations N of the game")
+    long generationsCount;
+
+    @Label("First Generation Index")
+    @Description("0, or the index of the checkpoint the game was resumed from")
+    long firstGenerationIndex;
+
+    @Label("Created Generations")
+    @Description("Generations created, without the ones fast-forwarded from a cycle")
+    long createdGenerations;
+
+    @Label("Observed Cell Green Count")
+    @Description("Green count of the first observed cell only - the cell 0,0 of a heatmap")
+    long observedCellGreenCount;
+
+}
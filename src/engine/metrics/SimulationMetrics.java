@@ -0,0 +1,238 @@
+package engine.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Class responsible for collecting the metrics of the games played by a single "GreenVsRed" instance.
+ * Written by the thread of the game only - the counters are published with lazySet, a plain store, so a generation costs two System.nanoTime() calls
+ * and a few stores, and allocates nothing. The rates are calculated when they are read, on the reading thread.
+ * The allocation is measured once per game, and read for the running game from the JVM's per thread allocation counter.
+ * A GameEvent is committed per game for JFR.
+ *
+ * @author - Viktor Kurtev
+ */
+public final class SimulationMetrics implements SimulationMetricsMXBean {
+
+    /**
+     * Constant for the domain of the JMX object names of the metrics.
+     */
+    public static final String JMX_DOMAIN = "com.vdkurtev.gvr";
+
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    /**
+     * Variable containing the JVM's allocation counter per thread, or null when the JVM doesn't have one.
+     */
+    private final com.sun.management.ThreadMXBean allocationCounter;
+
+    private final AtomicLong generationIndex = new AtomicLong();
+    private final AtomicLong generationsCount = new AtomicLong();
+    private final AtomicLong observedCellGreenCount = new AtomicLong();
+    private final AtomicLong createdGenerations = new AtomicLong();
+    private final AtomicLong createdCells = new AtomicLong();
+    private final AtomicLong stepNanos = new AtomicLong();
+    private final AtomicLong lastStepNanos = new AtomicLong();
+    private final AtomicLong gamesCount = new AtomicLong();
+    private final AtomicLong totalCreatedGenerations = new AtomicLong();
+
+    /**
+     * Variable containing the id of the thread of the last game, -1 once the game ended.
+     */
+    private final AtomicLong gameThreadId = new AtomicLong(-1);
+
+    /**
+     * Variable containing the bytes allocated by the thread of the last game before the game started.
+     */
+    private final AtomicLong gameStartAllocatedBytes = new AtomicLong();
+
+    /**
+     * Variable containing the bytes allocated by the thread of the last game during the game, once the game ended.
+     */
+    private final AtomicLong gameAllocatedBytes = new AtomicLong();
+
+    /**
+     * Variable containing the number of cells of a generation of the running game.
+     */
+    private long cellsPerGeneration;
+
+    /**
+     * Variable containing the JFR event of the running game.
+     */
+    private GameEvent gameEvent;
+
+    public SimulationMetrics() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threadMXBean).isThreadAllocatedMemorySupported()) {
+            allocationCounter = (com.sun.management.ThreadMXBean) threadMXBean;
+            allocationCounter.setThreadAllocatedMemoryEnabled(true);
+        } else {
+            allocationCounter = null;
+        }
+    }
+
+    /**
+     * Method responsible for registering the metrics with the platform MBean server.
+     *
+     * @param name of the metrics, unique among the registered ones - the object name is com.vdkurtev.gvr:type=SimulationMetrics,name=name.
+     * @return the object name of the metrics.
+     * @throws JMException when the metrics can't be registered, e.g. the name is taken.
+     */
+    public ObjectName register(String name) throws JMException {
+        ObjectName objectName = new ObjectName(JMX_DOMAIN + ":type=SimulationMetrics,name=" + ObjectName.quote(name));
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        mBeanServer.registerMBean(this, objectName);
+        return objectName;
+    }
+
+    /**
+     * Method responsible for recording the start of a game, on the thread of the game.
+     *
+     * @param height               of the grid.
+     * @param width                of the grid.
+     * @param generationsCount     number of generations N.
+     * @param firstGenerationIndex 0, or the index of the checkpoint the game is resumed from.
+     * @param greenCount           green count of the first observed cell in the first generation.
+     */
+    public void onGameStart(int height, int width, long generationsCount, long firstGenerationIndex, long greenCount) {
+        cellsPerGeneration = (long) height * width;
+        this.generationIndex.lazySet(firstGenerationIndex);
+        this.generationsCount.lazySet(generationsCount);
+        observedCellGreenCount.lazySet(greenCount);
+        createdGenerations.lazySet(0);
+        createdCells.lazySet(0);
+        stepNanos.lazySet(0);
+        lastStepNanos.lazySet(0);
+        gamesCount.lazySet(gamesCount.get() + 1);
+        if (allocationCounter != null) {
+            gameStartAllocatedBytes.lazySet(allocationCounter.getCurrentThreadAllocatedBytes());
+        }
+        gameThreadId.lazySet(Thread.currentThread().getId());
+        gameEvent = new GameEvent();
+        gameEvent.height = height;
+        gameEvent.width = width;
+        gameEvent.generationsCount = generationsCount;
+        gameEvent.firstGenerationIndex = firstGenerationIndex;
+        gameEvent.begin();
+    }
+
+    /**
+     * Method responsible for recording a created generation, or a block of them, on the thread of the game.
+     *
+     * @param generationIndex index of the created generation.
+     * @param generations     number of generations created - 1, or the generations of a block.
+     * @param nanos           taken by the creation and counting of the generations.
+     * @param greenCount      green count of the first observed cell so far.
+     */
+    public void onGenerations(long generationIndex, int generations, long nanos, long greenCount) {
+        this.generationIndex.lazySet(generationIndex);
+        observedCellGreenCount.lazySet(greenCount);
+        createdGenerations.lazySet(createdGenerations.get() + generations);
+        createdCells.lazySet(createdCells.get() + generations * cellsPerGeneration);
+        stepNanos.lazySet(stepNanos.get() + nanos);
+        lastStepNanos.lazySet(nanos / generations);
+        totalCreatedGenerations.lazySet(totalCreatedGenerations.get() + generations);
+    }
+
+    /**
+     * Method responsible for recording the end of a game, on the thread of the game.
+     *
+     * @param generationIndex index of the last generation - N.
+     * @param greenCount      green count of the first observed cell.
+     */
+    public void onGameEnd(long generationIndex, long greenCount) {
+        this.generationIndex.lazySet(generationIndex);
+        observedCellGreenCount.lazySet(greenCount);
+        if (allocationCounter != null) {
+            gameAllocatedBytes.lazySet(allocationCounter.getCurrentThreadAllocatedBytes() - gameStartAllocatedBytes.get());
+        }
+        gameThreadId.lazySet(-1);
+        gameEvent.end();
+        if (gameEvent.shouldCommit()) {
+            gameEvent.createdGenerations = createdGenerations.get();
+            gameEvent.observedCellGreenCount = greenCount;
+            gameEvent.commit();
+        }
+        gameEvent = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return gameThreadId.get() != -1;
+    }
+
+    @Override
+    public long getGenerationIndex() {
+        return generationIndex.get();
+    }
+
+    @Override
+    public long getGenerationsCount() {
+        return generationsCount.get();
+    }
+
+    @Override
+    public long getObservedCellGreenCount() {
+        return observedCellGreenCount.get();
+    }
+
+    @Override
+    public long getCreatedGenerations() {
+        return createdGenerations.get();
+    }
+
+    @Override
+    public long getLastStepNanos() {
+        return lastStepNanos.get();
+    }
+
+    @Override
+    public double getStepNanos() {
+        long generations = createdGenerations.get();
+        return generations == 0 ? 0 : (double) stepNanos.get() / generations;
+    }
+
+    @Override
+    public double getGenerationsPerSecond() {
+        long nanos = stepNanos.get();
+        return nanos == 0 ? 0 : createdGenerations.get() * NANOS_PER_SECOND / nanos;
+    }
+
+    @Override
+    public double getCellsPerSecond() {
+        long nanos = stepNanos.get();
+        return nanos == 0 ? 0 : createdCells.get() * NANOS_PER_SECOND / nanos;
+    }
+
+    @Override
+    public double getAllocatedBytesPerStep() {
+        if (allocationCounter == null) {
+            return -1;
+        }
+        long generations = createdGenerations.get();
+        if (generations == 0) {
+            return 0;
+        }
+        long threadId = gameThreadId.get();
+        long allocatedBytes = threadId == -1
+                ? gameAllocatedBytes.get()
+                : allocationCounter.getThreadAllocatedBytes(threadId) - gameStartAllocatedBytes.get();
+        return (double) allocatedBytes / generations;
+    }
+
+    @Override
+    public long getGamesCount() {
+        return gamesCount.get();
+    }
+
+    @Override
+    public long getTotalCreatedGenerations() {
+        return totalCreatedGenerations.get();
+    }
+
+}
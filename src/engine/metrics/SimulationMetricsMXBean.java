@@ -0,0 +1,76 @@
+package engine.metrics;
+
+/**
+ * Interface for the metrics of the games played by a single "GreenVsRed" instance, exposed through JMX.
+ * The attributes of the running game are updated once per created generation ( once per block with the TILED kernel or per jump in HASHLIFE mode ),
+ * the ones of the last game stay until the next game starts.
+ *
+ * @author - Viktor Kurtev
+ */
+public interface SimulationMetricsMXBean {
+
+    /**
+     * @return True while a game is being played.
+     */
+    boolean isRunning();
+
+    /**
+     * @return index of the last created generation - N once a game ends, also when the end was fast-forwarded from a cycle.
+     */
+    long getGenerationIndex();
+
+    /**
+     * @return number of generations N of the game.
+     */
+    long getGenerationsCount();
+
+    /**
+     * Only the first observed cell of a game is tracked - the first cell of the request, or the cell 0,0 of a heatmap,
+     * so a game with several observed cells reports the progress of the first one only.
+     * The counts of every observed cell are the result of the game itself.
+     *
+     * @return number of generations in which the first observed cell was green so far.
+     */
+    long getObservedCellGreenCount();
+
+    /**
+     * @return number of generations created by the game so far, without the ones fast-forwarded from a cycle.
+     */
+    long getCreatedGenerations();
+
+    /**
+     * @return nanoseconds taken by the creation and counting of the last generation ( of the last block with the TILED kernel ).
+     */
+    long getLastStepNanos();
+
+    /**
+     * @return average nanoseconds taken by the creation and counting of a generation of the game.
+     */
+    double getStepNanos();
+
+    /**
+     * @return average number of generations created per second of the game.
+     */
+    double getGenerationsPerSecond();
+
+    /**
+     * @return average number of cells created per second of the game.
+     */
+    double getCellsPerSecond();
+
+    /**
+     * @return average bytes allocated by the thread of the game per created generation, or -1 when the JVM doesn't measure allocation.
+     */
+    double getAllocatedBytesPerStep();
+
+    /**
+     * @return number of games started.
+     */
+    long getGamesCount();
+
+    /**
+     * @return number of generations created by all games.
+     */
+    long getTotalCreatedGenerations();
+
+}
@@ -0,0 +1,487 @@
+package engine.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import engine.IGame;
+import engine.cache.ResultCache;
+import engine.enumeration.StepKernelEnum;
+import engine.enumeration.StepModeEnum;
+import engine.impl.GreenVsRed;
+import engine.service.LineReader;
+import engine.service.ValidatorService;
+import exception.InvalidUserInputException;
+import model.Generation;
+import model.ObservedCellInfo;
+import model.RuleSet;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class responsible for serving "GreenVsRed" games over HTTP, so a query doesn't start a JVM and read the seed from stdin.
+ * POST /simulate takes the seed in the same format as the user input - a grid size line and the grid rows - followed by one or more observed cell lines ( x,y,N )
+ * with the same N, and answers one line per observed cell : x,y,N,greenCount
+ * The games are played by pools of engines that are created and warmed up before the server starts, and keep their generation buffers between games.
+ * Admission control - a game is small or large by its cell updates ( height * width * N ), and each kind has its own lane :
+ * a fixed number of threads, one engine per thread, and a bounded queue. A full lane answers 503 at once,
+ * so huge-N games only ever wait for each other and never take the threads of the small ones.
+ * A request is read only as far as its grid bounds allow - a Content-Length above the largest grid answers 413 before the body is read,
+ * and the body stops being read once it passes the bytes of the grid size it declares.
+ * The grid rows are decoded straight from the bytes of the body into a bit-packed grid, so a game waits in its lane without a copy of its text.
+ *
+ * @author - Viktor Kurtev
+ */
+public class SimulationServer implements IGame {
+
+    /**
+     * Constant for the cell updates above which a game is played in the large lane - about a second of a single core.
+     */
+    public static final long DEFAULT_LARGE_GAME_CELL_UPDATES = 1_000_000_000L;
+
+    /**
+     * Constant for the number of games that wait in a lane before the lane answers 503.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 64;
+
+    /**
+     * Constant for the default maximum height and width of a grid served, when no large-grid bounds are given.
+     */
+    public static final int DEFAULT_MAX_GRID_SIZE = 4_096;
+
+    /**
+     * Constants for the warm-up game of every engine - long enough for the JIT to compile the kernels.
+     */
+    private static final int WARM_UP_GRID_SIZE = 128;
+    private static final long WARM_UP_GENERATIONS = 2_000;
+
+    /**
+     * Constant for the bytes of a request allowed besides its grid rows - the grid size line, the observed cell lines and blank lines.
+     */
+    private static final long MAX_REQUEST_BYTES_BESIDES_GRID = 1 << 20;
+
+    /**
+     * Constant for the maximum length of a grid size line or an observed cell line.
+     */
+    private static final int MAX_LINE_LENGTH = 256;
+
+    private final String INVALID_GRID_SIZE_INPUT_EXCEPTION_MESSAGE = "Invalid grid size - expected height,width ( ";
+    private final String INVALID_GRID_VALUE_INPUT_EXCEPTION_MESSAGE = "Invalid grid row - expected 0 - Red or 1 - Green with length equal to grid width!";
+    private final String REQUEST_TOO_LARGE_MESSAGE = "Request too large for the grid bounds of the server!";
+    private final String INVALID_OBSERVED_CELL_INFO_INPUT_EXCEPTION_MESSAGE = "Invalid observed cell - expected x,y,N in bounds of the grid, with the same N for every cell!";
+
+    /**
+     * Variable used to validate the games, with the large-grid bounds of the server.
+     */
+    private final ValidatorService validatorService;
+
+    private final int port;
+    private final StepKernelEnum stepKernel;
+    private final RuleSet ruleSet;
+    private final int smallLaneThreads;
+    private final int largeLaneThreads;
+    private final int queueCapacity;
+    private final long largeGameCellUpdates;
+
+    /**
+     * Variable containing the bytes of a request of the largest grid allowed by the server.
+     */
+    private final long maxRequestBytes;
+
+    /**
+     * Variable containing the cache shared by every engine of the server, or null when the games aren't cached.
+     */
+    private ResultCache resultCache;
+
+    private HttpServer server;
+    private Lane smallLane;
+    private Lane largeLane;
+
+    /**
+     * @param port       on which the server listens, 0 for any free port.
+     * @param stepKernel kernel with which the games are played.
+     * @param ruleSet    rules with which the games are played.
+     */
+    public SimulationServer(int port, StepKernelEnum stepKernel, RuleSet ruleSet) {
+        this(port, stepKernel, ruleSet, Runtime.getRuntime().availableProcessors(), Math.max(1, Runtime.getRuntime().availableProcessors() / 4),
+                DEFAULT_QUEUE_CAPACITY, DEFAULT_LARGE_GAME_CELL_UPDATES, DEFAULT_MAX_GRID_SIZE, DEFAULT_MAX_GRID_SIZE);
+    }
+
+    /**
+     * @param port                 on which the server listens, 0 for any free port.
+     * @param stepKernel           kernel with which the games are played.
+     * @param ruleSet              rules with which the games are played.
+     * @param smallLaneThreads     number of threads ( and engines ) of the small games.
+     * @param largeLaneThreads     number of threads ( and engines ) of the large games.
+     * @param queueCapacity        number of games waiting in a lane before it rejects new ones.
+     * @param largeGameCellUpdates cell updates above which a game is large.
+     * @param maxHeight            maximum height of a grid ( inclusive ).
+     * @param maxWidth             maximum width of a grid ( inclusive ).
+     */
+    public SimulationServer(int port, StepKernelEnum stepKernel, RuleSet ruleSet, int smallLaneThreads, int largeLaneThreads,
+                            int queueCapacity, long largeGameCellUpdates, int maxHeight, int maxWidth) {
+        if (smallLaneThreads <= 0 || largeLaneThreads <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("The lane threads and the queue capacity should be positive!");
+        }
+        this.validatorService = new ValidatorService(maxHeight, maxWidth);
+        this.port = port;
+        this.stepKernel = stepKernel;
+        this.ruleSet = ruleSet;
+        this.smallLaneThreads = smallLaneThreads;
+        this.largeLaneThreads = largeLaneThreads;
+        this.queueCapacity = queueCapacity;
+        this.largeGameCellUpdates = largeGameCellUpdates;
+        this.maxRequestBytes = getMaxRequestBytes(maxHeight, maxWidth);
+    }
+
+    /**
+     * Method responsible for enabling a result cache shared by every engine, so repeated seeds aren't played again. Takes effect at setup.
+     *
+     * @param resultCache of the games, or null to disable the cache.
+     */
+    public void enableResultCache(ResultCache resultCache) {
+        this.resultCache = resultCache;
+    }
+
+    /**
+     * Method responsible for the execution of the server - it serves until it is stopped.
+     */
+    @Override
+    public void execute() {
+        setup();
+        start();
+    }
+
+    /**
+     * Method responsible for creating and warming up the engines of both lanes, and binding the server.
+     */
+    @Override
+    public void setup() {
+        smallLane = new Lane("gvr-small-game", smallLaneThreads);
+        largeLane = new Lane("gvr-large-game", largeLaneThreads);
+        try {
+            server = HttpServer.create(new InetSocketAddress(port), 0);
+        } catch (IOException e) {
+            System.out.println("Setup failed!");
+            System.out.println(e.getMessage());
+            return;
+        }
+        server.createContext("/simulate", this::handleSimulate);
+        // The handlers read and decode the games for the lanes, so there are as many of them as there are lane threads.
+        server.setExecutor(Executors.newFixedThreadPool(smallLaneThreads + largeLaneThreads));
+    }
+
+    /**
+     * Method responsible for starting to serve, on the threads of the server.
+     */
+    @Override
+    public void start() {
+        if (server == null) {
+            return;
+        }
+        server.start();
+        System.out.println("Serving on port " + getPort() + " ...");
+    }
+
+    /**
+     * Method responsible for stopping the server - the games being played are interrupted.
+     */
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            ((ExecutorService) server.getExecutor()).shutdownNow();
+        }
+        smallLane.executor.shutdownNow();
+        largeLane.executor.shutdownNow();
+    }
+
+    /**
+     * Method responsible for the access to the port on which the server listens, once it is set up.
+     *
+     * @return the port of the server.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Method responsible for reading a game and handing it to its lane, which answers it once it is played.
+     *
+     * @param exchange of the request.
+     */
+    private void handleSimulate(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            respond(exchange, 405, "Expected POST!");
+            return;
+        }
+        String contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+        if (contentLength != null && isTooLarge(contentLength)) {
+            respond(exchange, 413, REQUEST_TOO_LARGE_MESSAGE);
+            return;
+        }
+        int[] gridSize;
+        Generation generationZero;
+        List<ObservedCellInfo> observedCellsInfo = new ArrayList<>();
+        try (BoundedInputStream body = new BoundedInputStream(exchange.getRequestBody(), maxRequestBytes)) {
+            try {
+                LineReader lineReader = new LineReader(body);
+                gridSize = validateGridSize(readNonBlankLine(lineReader, MAX_LINE_LENGTH) ? lineReader.getLine() : null);
+                body.setLimit(getMaxRequestBytes(gridSize[0], gridSize[1]));
+                generationZero = new Generation(gridSize[0], gridSize[1]);
+                for (int i = 0; i < gridSize[0]; i++) {
+                    if (!readNonBlankLine(lineReader, gridSize[1]) || lineReader.getLineLength() != gridSize[1]
+                            || !validatorService.validateGridValuesInput(lineReader.getBuffer(), lineReader.getLineStart(), generationZero, i)) {
+                        throw new InvalidUserInputException(INVALID_GRID_VALUE_INPUT_EXCEPTION_MESSAGE);
+                    }
+                }
+                while (readNonBlankLine(lineReader, MAX_LINE_LENGTH)) {
+                    observedCellsInfo.add(validateObservedCell(lineReader.getLine(), observedCellsInfo, gridSize[0], gridSize[1]));
+                }
+                if (observedCellsInfo.isEmpty()) {
+                    throw new InvalidUserInputException(INVALID_OBSERVED_CELL_INFO_INPUT_EXCEPTION_MESSAGE);
+                }
+            } catch (InvalidUserInputException e) {
+                if (body.isLimitReached()) {
+                    respond(exchange, 413, REQUEST_TOO_LARGE_MESSAGE); // The body was cut at the limit, so it is invalid only as far as it was read.
+                } else {
+                    respond(exchange, 400, e.getMessage());
+                }
+                return;
+            }
+            if (body.isLimitReached()) {
+                respond(exchange, 413, REQUEST_TOO_LARGE_MESSAGE);
+                return;
+            }
+        }
+        long n = observedCellsInfo.get(0).getN();
+        boolean largeGame = n > 0 && (double) gridSize[0] * gridSize[1] * n > largeGameCellUpdates;
+        Lane lane = largeGame ? largeLane : smallLane;
+        try {
+            lane.executor.execute(() -> play(lane, exchange, generationZero, observedCellsInfo));
+        } catch (RejectedExecutionException e) {
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            respond(exchange, 503, (largeGame ? "Too many large games" : "Too many games") + ", retry later!");
+        }
+    }
+
+    /**
+     * Method responsible for playing a game on an engine of its lane and answering it.
+     * The engine copies Generation Zero into its generation buffers, which are reused while the grid bounds stay the same.
+     */
+    private void play(Lane lane, HttpExchange exchange, Generation generationZero, List<ObservedCellInfo> observedCellsInfo) {
+        Engine engine = null;
+        try {
+            engine = lane.engines.take();
+            long[] greenCounts = engine.greenVsRed.simulate(generationZero, observedCellsInfo);
+            StringBuilder results = new StringBuilder();
+            for (int i = 0; i < greenCounts.length; i++) {
+                ObservedCellInfo observedCellInfo = observedCellsInfo.get(i);
+                results.append(observedCellInfo.getX()).append(',').append(observedCellInfo.getY()).append(',')
+                        .append(observedCellInfo.getN()).append(',').append(greenCounts[i]).append('\n');
+            }
+            respond(exchange, 200, results.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exchange.close();
+        } catch (IOException | RuntimeException e) {
+            try {
+                respond(exchange, 500, "Game failed - " + e.getMessage());
+            } catch (IOException ignored) {
+                exchange.close();
+            }
+        } finally {
+            if (engine != null) {
+                lane.engines.add(engine);
+            }
+        }
+    }
+
+    /**
+     * Method responsible for the validation of the grid size line of a game, before the rest of the game is read.
+     *
+     * @param line grid size line, or null when the game has no lines.
+     * @return array with the height at index 0 and the width at index 1.
+     * @throws InvalidUserInputException when the line is missing or isn't valid.
+     */
+    private int[] validateGridSize(String line) throws InvalidUserInputException {
+        Optional<int[]> gridSize = line == null ? Optional.empty() : validatorService.validateInputSize(line);
+        if (gridSize.isEmpty()) {
+            throw new InvalidUserInputException(INVALID_GRID_SIZE_INPUT_EXCEPTION_MESSAGE + validatorService.getGridBoundsDescription() + " )!");
+        }
+        return gridSize.get();
+    }
+
+    /**
+     * Method responsible for reading the next line of a game that isn't blank.
+     *
+     * @param maxLength of a valid line.
+     * @return True if a line was read or False if the body has ended.
+     */
+    private static boolean readNonBlankLine(LineReader lineReader, int maxLength) throws IOException {
+        while (lineReader.readLine(maxLength)) {
+            if (!lineReader.isBlank()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Method responsible for checking the Content-Length of a request against the largest grid of the server.
+     *
+     * @return True if the request is larger than a request of the largest grid - or its length isn't a number.
+     */
+    private boolean isTooLarge(String contentLength) {
+        try {
+            return Long.parseLong(contentLength.trim()) > maxRequestBytes;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Method responsible for the bytes of a request of a grid - its rows with CRLF line endings, and the other lines.
+     */
+    private static long getMaxRequestBytes(int height, int width) {
+        return (long) height * (width + 2) + MAX_REQUEST_BYTES_BESIDES_GRID;
+    }
+
+    /**
+     * Method responsible for the validation of an observed cell line after the grid rows.
+     *
+     * @param observedCellsInfo validated before the line, whose N the cell should have.
+     * @return the observed cell.
+     * @throws InvalidUserInputException when the line isn't a valid observed cell or the cell has a different N.
+     */
+    private ObservedCellInfo validateObservedCell(String line, List<ObservedCellInfo> observedCellsInfo, int height, int width) throws InvalidUserInputException {
+        ObservedCellInfo observedCellInfo = validatorService.validateObservedCellInfoInput(line, height, width)
+                .orElseThrow(() -> new InvalidUserInputException(INVALID_OBSERVED_CELL_INFO_INPUT_EXCEPTION_MESSAGE));
+        if (!observedCellsInfo.isEmpty() && observedCellInfo.getN() != observedCellsInfo.get(0).getN()) {
+            throw new InvalidUserInputException(INVALID_OBSERVED_CELL_INFO_INPUT_EXCEPTION_MESSAGE);
+        }
+        return observedCellInfo;
+    }
+
+    /**
+     * Method responsible for answering a request with a text body.
+     */
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.US_ASCII);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=US-ASCII");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Class responsible for reading a request body up to a number of bytes - past it, the body reads as ended.
+     */
+    private static final class BoundedInputStream extends FilterInputStream {
+
+        private long limit;
+        private long position;
+
+        private BoundedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        /**
+         * Method responsible for lowering the number of bytes of the body, counted from its start.
+         */
+        private void setLimit(long limit) {
+            this.limit = Math.min(this.limit, limit);
+        }
+
+        /**
+         * @return True if the body was read up to the limit - a body of exactly the limit counts as too large.
+         */
+        private boolean isLimitReached() {
+            return position >= limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (position >= limit) {
+                return -1;
+            }
+            int b = super.read();
+            if (b != -1) {
+                position++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (position >= limit) {
+                return -1;
+            }
+            int read = super.read(b, off, (int) Math.min(len, limit - position));
+            if (read > 0) {
+                position += read;
+            }
+            return read;
+        }
+    }
+
+    /**
+     * Class responsible for a lane of games - its threads, its bounded queue and its warm engines, one per thread.
+     */
+    private final class Lane {
+
+        private final ThreadPoolExecutor executor;
+        private final BlockingQueue<Engine> engines;
+
+        private Lane(String name, int threads) {
+            this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.executor.prestartAllCoreThreads();
+            this.engines = new ArrayBlockingQueue<>(threads);
+            for (int i = 0; i < threads; i++) {
+                engines.add(new Engine());
+            }
+        }
+    }
+
+    /**
+     * Class responsible for an engine of a lane - a warmed up GreenVsRed instance, which keeps its generation buffers between games.
+     */
+    private final class Engine {
+
+        private final GreenVsRed greenVsRed;
+
+        private Engine() {
+            this.greenVsRed = new GreenVsRed(StepModeEnum.SEQUENTIAL, stepKernel, ForkJoinPool.commonPool(), ruleSet);
+            Random random = new Random(WARM_UP_GRID_SIZE);
+            Generation warmUpGeneration = new Generation(WARM_UP_GRID_SIZE, WARM_UP_GRID_SIZE);
+            for (int i = 0; i < WARM_UP_GRID_SIZE; i++) {
+                for (int j = 0; j < WARM_UP_GRID_SIZE; j++) {
+                    warmUpGeneration.setGreen(i, j, random.nextBoolean());
+                }
+            }
+            greenVsRed.simulate(warmUpGeneration, new ObservedCellInfo(0, 0, WARM_UP_GENERATIONS));
+            greenVsRed.enableResultCache(resultCache); // After the warm-up, which isn't a game of the clients.
+        }
+    }
+
+}
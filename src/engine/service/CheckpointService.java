@@ -0,0 +1,134 @@
+package engine.service;
+
+import exception.InvalidUserInputException;
+import model.Checkpoint;
+import model.Generation;
+import model.GridSnapshot;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Class (Service) responsible for reading and writing checkpoints of a game.
+ * A checkpoint file is a grid file ( see GridFileService ) of the generation the game had reached, so it can be loaded as a grid as well,
+ * followed by a little-endian checkpoint section :
+ * magic "GVRC", observed cells count ( int, -1 when every cell is observed ), number of generations N ( long ),
+ * the coordinates of the observed cells ( x, y as ints ) and the green counts ( longs ) - one per observed cell or one per cell of the grid.
+ * The grid and the section are mapped separately, so only the section is bounded by the 2 GB of a single mapping.
+ * A checkpoint is written into a temporary file which then replaces the checkpoint file, so the file always holds a whole checkpoint.
+ *
+ * @author - Viktor Kurtev
+ */
+public final class CheckpointService {
+
+    /**
+     * Constant for the first bytes of the checkpoint section - "GVRC" in ASCII.
+     */
+    public static final int MAGIC = 0x47_56_52_43;
+
+    /**
+     * Constant for the observed cells count written when every cell of the grid is observed.
+     */
+    private static final int ALL_CELLS_OBSERVED = -1;
+
+    private final String INVALID_CHECKPOINT_FILE_EXCEPTION_MESSAGE = "Invalid checkpoint file - ";
+
+    /**
+     * Variable used to read and write the grid at the start of a checkpoint.
+     */
+    private final GridFileService gridFileService;
+
+    public CheckpointService() {
+        this.gridFileService = new GridFileService();
+    }
+
+    /**
+     * Method responsible for loading a checkpoint file.
+     *
+     * @param checkpointFile to be loaded.
+     * @return checkpoint from which the game can be resumed.
+     * @throws IOException when the file can't be read or InvalidUserInputException when it isn't a valid checkpoint file.
+     */
+    public Checkpoint loadCheckpoint(Path checkpointFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(checkpointFile, StandardOpenOption.READ)) {
+            GridSnapshot snapshot = gridFileService.getGrid(channel);
+            Generation generation = snapshot.getGeneration();
+            long gridFileSize = GridFileService.getFileSize(generation.getHeight(), generation.getWidth());
+            if (channel.size() - gridFileSize > Integer.MAX_VALUE) {
+                throw new InvalidUserInputException(INVALID_CHECKPOINT_FILE_EXCEPTION_MESSAGE + "the checkpoint section is too big!");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, gridFileSize, channel.size() - gridFileSize);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.remaining() < Integer.BYTES * 2 + Long.BYTES || buffer.getInt() != MAGIC) {
+                throw new InvalidUserInputException(INVALID_CHECKPOINT_FILE_EXCEPTION_MESSAGE + "the checkpoint section is missing!");
+            }
+            int observedCellsCount = buffer.getInt();
+            long generationsCount = buffer.getLong();
+            int[] observedCellsX = null;
+            int[] observedCellsY = null;
+            int countsLength = generation.getHeight() * generation.getWidth();
+            if (observedCellsCount != ALL_CELLS_OBSERVED) {
+                if (observedCellsCount <= 0 || buffer.remaining() != (long) observedCellsCount * (Integer.BYTES * 2 + Long.BYTES)) {
+                    throw new InvalidUserInputException(INVALID_CHECKPOINT_FILE_EXCEPTION_MESSAGE + "the observed cells don't match the file!");
+                }
+                observedCellsX = new int[observedCellsCount];
+                observedCellsY = new int[observedCellsCount];
+                for (int i = 0; i < observedCellsCount; i++) {
+                    observedCellsX[i] = buffer.getInt();
+                    observedCellsY[i] = buffer.getInt();
+                    if (!generation.isInBounds(observedCellsX[i], observedCellsY[i])) {
+                        throw new InvalidUserInputException(INVALID_CHECKPOINT_FILE_EXCEPTION_MESSAGE + "an observed cell is out of bounds of the grid!");
+                    }
+                }
+                countsLength = observedCellsCount;
+            } else if (buffer.remaining() != (long) countsLength * Long.BYTES) {
+                throw new InvalidUserInputException(INVALID_CHECKPOINT_FILE_EXCEPTION_MESSAGE + "the green counts don't match the grid!");
+            }
+            long[] observedCellsGreenCounts = new long[countsLength];
+            buffer.asLongBuffer().get(observedCellsGreenCounts);
+            return new Checkpoint(snapshot, generationsCount, observedCellsX, observedCellsY, observedCellsGreenCounts);
+        }
+    }
+
+    /**
+     * Method responsible for writing a checkpoint file, replacing the last checkpoint only once the new one is complete.
+     *
+     * @param checkpointFile to be written.
+     * @param checkpoint     to be written.
+     * @throws IOException when the file can't be written.
+     */
+    public void writeCheckpoint(Path checkpointFile, Checkpoint checkpoint) throws IOException {
+        Generation generation = checkpoint.getSnapshot().getGeneration();
+        int[] observedCellsX = checkpoint.getObservedCellsX();
+        long[] observedCellsGreenCounts = checkpoint.getObservedCellsGreenCounts();
+        long gridFileSize = GridFileService.getFileSize(generation.getHeight(), generation.getWidth());
+        long sectionSize = Integer.BYTES * 2 + Long.BYTES
+                + (observedCellsX == null ? 0 : (long) observedCellsX.length * Integer.BYTES * 2)
+                + (long) observedCellsGreenCounts.length * Long.BYTES;
+        Path temporaryFile = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            gridFileService.putGrid(channel, checkpoint.getSnapshot());
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, gridFileSize, sectionSize);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC)
+                    .putInt(observedCellsX == null ? ALL_CELLS_OBSERVED : observedCellsX.length)
+                    .putLong(checkpoint.getGenerationsCount());
+            if (observedCellsX != null) {
+                for (int i = 0; i < observedCellsX.length; i++) {
+                    buffer.putInt(observedCellsX[i]).putInt(checkpoint.getObservedCellsY()[i]);
+                }
+            }
+            buffer.asLongBuffer().put(observedCellsGreenCounts);
+            buffer.force();
+        }
+        Files.move(temporaryFile, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+}
@@ -0,0 +1,218 @@
+package engine.service;
+
+import exception.InvalidUserInputException;
+import model.Generation;
+import model.GridSnapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Class (Service) responsible for reading and writing grids in the binary grid file format, through memory-mapped files.
+ * The format is little-endian :
+ * header ( 32 bytes ) - magic "GVRG", version ( short ), reserved ( short ), height ( int ), width ( int ), generation index ( long ),
+ * birth mask ( short ), survive mask ( short ), reserved ( int ),
+ * followed by the bit-packed rows exactly as a Generation holds them - every row starts at a new 64-bit word.
+ * So a loaded grid is an off-heap Generation held by the mappings of its rows, with no copy into the heap,
+ * and a grid is written with a bulk copy into the mapped rows.
+ * The rows are mapped in chunks of whole rows of up to 2 GB each, so the size of a grid file isn't bounded by a single mapping.
+ * Other files ( checkpoints ) embed a grid at their start and append their own sections after it.
+ *
+ * @author - Viktor Kurtev
+ */
+public final class GridFileService {
+
+    /**
+     * Constant for the first bytes of every grid file - "GVRG" in ASCII.
+     */
+    public static final int MAGIC = 0x47_56_52_47;
+
+    /**
+     * Constant for the version of the format written by this service.
+     */
+    public static final short VERSION = 1;
+
+    /**
+     * Constant for the size of the header in bytes, keeping the rows aligned to 8 bytes.
+     */
+    public static final int HEADER_SIZE = 32;
+
+    private final String INVALID_GRID_FILE_EXCEPTION_MESSAGE = "Invalid grid file - ";
+
+    /**
+     * Method responsible for loading a grid file.
+     *
+     * @param gridFile to be loaded.
+     * @return snapshot holding the loaded Generation, its index and rule set - the Generation is read-only and held by the mapped file.
+     * @throws IOException when the file can't be read or InvalidUserInputException when it isn't a valid grid file.
+     */
+    public GridSnapshot loadGrid(Path gridFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(gridFile, StandardOpenOption.READ)) {
+            GridSnapshot snapshot = getGrid(channel);
+            Generation generation = snapshot.getGeneration();
+            if (channel.size() != getFileSize(generation.getHeight(), generation.getWidth())) {
+                throw new InvalidUserInputException(INVALID_GRID_FILE_EXCEPTION_MESSAGE + "unexpected bytes after the last row!");
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Method responsible for writing a grid file, replacing the file if it exists.
+     *
+     * @param gridFile to be written.
+     * @param snapshot holding the Generation to be written, its index and rule set.
+     * @throws IOException when the file can't be written.
+     */
+    public void writeGrid(Path gridFile, GridSnapshot snapshot) throws IOException {
+        try (FileChannel channel = FileChannel.open(gridFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            putGrid(channel, snapshot);
+        }
+    }
+
+    /**
+     * Method responsible for reading the grid at the start of a file.
+     * The rows aren't read - the Generation is held by their read-only mappings, which stay valid after the channel is closed.
+     *
+     * @param channel of the file holding the grid, open for reading.
+     * @return snapshot holding the loaded Generation, its index and rule set.
+     * @throws IOException when the file can't be read or InvalidUserInputException when it doesn't start with a valid grid.
+     */
+    public GridSnapshot getGrid(FileChannel channel) throws IOException {
+        ByteBuffer header = readHeader(channel);
+        int height = header.getInt(8);
+        int width = header.getInt(12);
+        MappedByteBuffer[] mappedRows = mapRows(channel, FileChannel.MapMode.READ_ONLY, 0, height, width);
+        return new GridSnapshot(wrapRows(mappedRows, height, width), header.getLong(16), header.getShort(24), header.getShort(26));
+    }
+
+    /**
+     * Method responsible for validating the header of the grid at the start of a file, without reading its rows.
+     * The rows start at HEADER_SIZE, as getWordsPerRow(width) little-endian words each.
+     *
+     * @param channel of the file holding the grid, open for reading.
+     * @return array with the height of the grid at index 0 and the width at index 1.
+     * @throws IOException when the file can't be read or InvalidUserInputException when it doesn't start with a valid grid.
+     */
+    public int[] getGridSize(FileChannel channel) throws IOException {
+        ByteBuffer header = readHeader(channel);
+        return new int[]{header.getInt(8), header.getInt(12)};
+    }
+
+    /**
+     * Method responsible for mapping a range of rows of the grid at the start of a file, in chunks of whole rows of up to 2 GB -
+     * getRowsPerBuffer(width) rows per chunk, counted from the first mapped row, as Generation.wrapOffHeap() expects them.
+     *
+     * @param channel  of the file holding the grid.
+     * @param mapMode  of the mappings - READ_ONLY needs a channel open for reading, the other modes for writing as well.
+     * @param fromRow  first mapped row.
+     * @param toRow    row after the last mapped row.
+     * @param width    of the grid.
+     * @return little-endian mappings of the rows.
+     * @throws IOException when the file can't be mapped.
+     */
+    public MappedByteBuffer[] mapRows(FileChannel channel, FileChannel.MapMode mapMode, int fromRow, int toRow, int width) throws IOException {
+        int rowsPerBuffer = Generation.getRowsPerBuffer(width);
+        long rowBytes = (long) Generation.getWordsPerRow(width) * Long.BYTES;
+        MappedByteBuffer[] mappedRows = new MappedByteBuffer[(toRow - fromRow + rowsPerBuffer - 1) / rowsPerBuffer];
+        for (int i = 0; i < mappedRows.length; i++) {
+            long firstRow = fromRow + (long) i * rowsPerBuffer;
+            int bufferRows = (int) Math.min(rowsPerBuffer, toRow - firstRow);
+            mappedRows[i] = channel.map(mapMode, HEADER_SIZE + firstRow * rowBytes, bufferRows * rowBytes);
+            mappedRows[i].order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return mappedRows;
+    }
+
+    /**
+     * Static method responsible for the creation of an off-heap Generation held by mapped rows, without copying them.
+     *
+     * @param mappedRows returned by mapRows() for a range of rows.
+     * @param height     number of mapped rows.
+     * @param width      of the grid.
+     * @return Generation of the mapped rows - writes to it go to the mappings, when they are writable.
+     */
+    public static Generation wrapRows(MappedByteBuffer[] mappedRows, int height, int width) {
+        LongBuffer[] rowBuffers = new LongBuffer[mappedRows.length];
+        for (int i = 0; i < mappedRows.length; i++) {
+            rowBuffers[i] = mappedRows[i].asLongBuffer();
+        }
+        return Generation.wrapOffHeap(height, width, rowBuffers);
+    }
+
+    /**
+     * Method responsible for writing a grid at the start of a file - the header, then a bulk copy of the rows into their mappings.
+     * The rows are forced to the storage device before the method returns.
+     *
+     * @param channel  of the file, open for reading and writing.
+     * @param snapshot holding the Generation to be written, its index and rule set.
+     * @throws IOException when the file can't be written.
+     */
+    public void putGrid(FileChannel channel, GridSnapshot snapshot) throws IOException {
+        Generation generation = snapshot.getGeneration();
+        int height = generation.getHeight();
+        int width = generation.getWidth();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC)
+                .putShort(VERSION)
+                .putShort((short) 0)
+                .putInt(height)
+                .putInt(width)
+                .putLong(snapshot.getGenerationIndex())
+                .putShort((short) snapshot.getBirthMask())
+                .putShort((short) snapshot.getSurviveMask())
+                .putInt(0)
+                .flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+        MappedByteBuffer[] mappedRows = mapRows(channel, FileChannel.MapMode.READ_WRITE, 0, height, width);
+        wrapRows(mappedRows, height, width).copyFrom(generation);
+        for (MappedByteBuffer mappedRow : mappedRows) {
+            mappedRow.force();
+        }
+    }
+
+    /**
+     * Method responsible for reading and validating the header of the grid at the start of a file.
+     *
+     * @return little-endian buffer of the header.
+     * @throws InvalidUserInputException when the header isn't valid or the file is too short for the grid.
+     */
+    private ByteBuffer readHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                throw new InvalidUserInputException(INVALID_GRID_FILE_EXCEPTION_MESSAGE + "the header is incomplete!");
+            }
+        }
+        if (header.getInt(0) != MAGIC || header.getShort(4) != VERSION) {
+            throw new InvalidUserInputException(INVALID_GRID_FILE_EXCEPTION_MESSAGE + "unknown magic or version!");
+        }
+        int height = header.getInt(8);
+        int width = header.getInt(12);
+        if (height <= 0 || width <= 0 || channel.size() < getFileSize(height, width)) {
+            throw new InvalidUserInputException(INVALID_GRID_FILE_EXCEPTION_MESSAGE + "the size " + height + "," + width + " doesn't match the file!");
+        }
+        return header;
+    }
+
+    /**
+     * Static method responsible for the calculation of the size of a grid file.
+     *
+     * @param height of the grid.
+     * @param width  of the grid.
+     * @return size of the file in bytes.
+     */
+    public static long getFileSize(int height, int width) {
+        return HEADER_SIZE + (long) height * Generation.getWordsPerRow(width) * Long.BYTES;
+    }
+
+}
@@ -0,0 +1,200 @@
+package engine.service;
+
+import exception.InvalidUserInputException;
+import model.Generation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParsePosition;
+import java.util.Optional;
+
+/**
+ * Class (Service) responsible for loading a whole grid at once from a file or a byte stream.
+ * The input has the same format as the user input - a grid size line ( height,width ) followed by the grid rows of 0 - Red or 1 - Green.
+ * The rows are validated and decoded in a single pass over the bytes, straight into the bit-packed grid.
+ * A stream is read a row at a time, so only the grid and a single row of input are held at once.
+ *
+ * @author - Viktor Kurtev
+ */
+public final class GridLoaderService {
+
+    /**
+     * Constant for the maximum length of a grid size line read from a stream, past which the line is invalid.
+     */
+    private static final int MAX_GRID_SIZE_LINE_LENGTH = 256;
+
+    private final String INVALID_GRID_SIZE_INPUT_EXCEPTION_MESSAGE = "Invalid grid size input - expected height,width ( ";
+    private final String INVALID_GRID_VALUE_INPUT_EXCEPTION_MESSAGE = "Invalid grid value input at row ";
+    private final String INVALID_TRAILING_INPUT_EXCEPTION_MESSAGE = "Invalid grid input - unexpected input after the last row!";
+
+    /**
+     * Variable used to access validation methods for the grid input.
+     */
+    private final ValidatorService validatorService;
+
+    public GridLoaderService() {
+        this(new ValidatorService());
+    }
+
+    /**
+     * @param validatorService with the bounds of the loaded grids - the classic ones, or those of the large-grid mode.
+     */
+    public GridLoaderService(ValidatorService validatorService) {
+        this.validatorService = validatorService;
+    }
+
+    /**
+     * Method responsible for loading a grid from a file.
+     *
+     * @param gridFile holding the grid.
+     * @return new Generation holding the loaded grid.
+     * @throws IOException when the file can't be read or InvalidUserInputException when the grid isn't valid.
+     */
+    public Generation loadGrid(Path gridFile) throws IOException {
+        return loadGrid(gridFile, false);
+    }
+
+    /**
+     * Method responsible for loading a grid from a file.
+     *
+     * @param gridFile holding the grid.
+     * @param offHeap  True to hold the grid off the heap, in direct buffers.
+     * @return new Generation holding the loaded grid.
+     * @throws IOException when the file can't be read or InvalidUserInputException when the grid isn't valid.
+     */
+    public Generation loadGrid(Path gridFile, boolean offHeap) throws IOException {
+        try (InputStream gridInput = Files.newInputStream(gridFile)) {
+            return loadGrid(gridInput, offHeap);
+        }
+    }
+
+    /**
+     * Method responsible for loading a grid from a byte stream.
+     * Reads the whole stream, so it should hold a single grid.
+     *
+     * @param gridInput holding the grid, ASCII encoded.
+     * @return new Generation holding the loaded grid.
+     * @throws IOException when the stream can't be read or InvalidUserInputException when the grid isn't valid.
+     */
+    public Generation loadGrid(InputStream gridInput) throws IOException {
+        return loadGrid(gridInput, false);
+    }
+
+    /**
+     * Method responsible for loading a grid from a byte stream, a row at a time - every row is decoded straight into the grid once it is read.
+     * Reads the whole stream, so it should hold a single grid. Rows may end with \n or \r\n, the last row may have no line ending.
+     *
+     * @param gridInput holding the grid, ASCII encoded.
+     * @param offHeap   True to hold the grid off the heap, in direct buffers.
+     * @return new Generation holding the loaded grid.
+     * @throws IOException when the stream can't be read or InvalidUserInputException when the grid isn't valid.
+     */
+    public Generation loadGrid(InputStream gridInput, boolean offHeap) throws IOException {
+        LineReader lineReader = new LineReader(gridInput);
+        if (!lineReader.readLine(MAX_GRID_SIZE_LINE_LENGTH)) {
+            throw new InvalidUserInputException(INVALID_GRID_SIZE_INPUT_EXCEPTION_MESSAGE + validatorService.getGridBoundsDescription() + " )!");
+        }
+        Optional<int[]> gridSize = validatorService.validateInputSize(lineReader.getLine());
+        if (gridSize.isEmpty()) {
+            throw new InvalidUserInputException(INVALID_GRID_SIZE_INPUT_EXCEPTION_MESSAGE + validatorService.getGridBoundsDescription() + " )!");
+        }
+        int height = gridSize.get()[0]; // gridSize[0] holds height, gridSize[1] holds width
+        int width = gridSize.get()[1];
+        Generation grid = offHeap ? Generation.allocateOffHeap(height, width) : new Generation(height, width);
+        for (int i = 0; i < height; i++) {
+            if (!lineReader.readLine(width) || lineReader.getLineLength() != width
+                    || !validatorService.validateGridValuesInput(lineReader.getBuffer(), lineReader.getLineStart(), grid, i)) {
+                throw new InvalidUserInputException(INVALID_GRID_VALUE_INPUT_EXCEPTION_MESSAGE + i + "!");
+            }
+        }
+        if (!lineReader.skipWhitespace()) {
+            throw new InvalidUserInputException(INVALID_TRAILING_INPUT_EXCEPTION_MESSAGE);
+        }
+        return grid;
+    }
+
+    /**
+     * Method responsible for loading a grid from a byte buffer.
+     * Rows may end with \n or \r\n, the last row may have no line ending.
+     *
+     * @param gridInput holding the grid, ASCII encoded.
+     * @return new Generation holding the loaded grid.
+     * @throws InvalidUserInputException when the grid isn't valid.
+     */
+    public Generation loadGrid(byte[] gridInput) throws InvalidUserInputException {
+        ParsePosition position = new ParsePosition(0);
+        Generation grid = loadGrid(gridInput, position);
+        for (int i = position.getIndex(); i < gridInput.length; i++) {
+            if (!Character.isWhitespace(gridInput[i])) {
+                throw new InvalidUserInputException(INVALID_TRAILING_INPUT_EXCEPTION_MESSAGE);
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Method responsible for loading a grid that starts at a position of a byte buffer and may be followed by other input,
+     * e.g. the observed cells of a file of scenarios.
+     *
+     * @param gridInput holding the grid, ASCII encoded.
+     * @param position  index of the grid size line - moved to the start of the line after the last row once the grid is loaded,
+     *                  or given the index of the invalid line as its error index when it isn't.
+     * @return new Generation holding the loaded grid.
+     * @throws InvalidUserInputException when the grid isn't valid.
+     */
+    public Generation loadGrid(byte[] gridInput, ParsePosition position) throws InvalidUserInputException {
+        int lineStart = position.getIndex();
+        int lineEnd = findLineEnd(gridInput, lineStart);
+        Optional<int[]> gridSize = validatorService.validateInputSize(new String(gridInput, lineStart, lineEnd - lineStart, StandardCharsets.US_ASCII));
+        if (gridSize.isEmpty()) {
+            position.setErrorIndex(lineStart);
+            throw new InvalidUserInputException(INVALID_GRID_SIZE_INPUT_EXCEPTION_MESSAGE + validatorService.getGridBoundsDescription() + " )!");
+        }
+        Generation grid = new Generation(gridSize.get()[0], gridSize.get()[1]); // gridSize[0] holds height, gridSize[1] holds width
+        for (int i = 0; i < grid.getHeight(); i++) {
+            lineStart = skipLineEnding(gridInput, lineEnd);
+            lineEnd = findLineEnd(gridInput, lineStart);
+            if (lineEnd - lineStart != grid.getWidth() || !validatorService.validateGridValuesInput(gridInput, lineStart, grid, i)) {
+                position.setErrorIndex(lineStart);
+                throw new InvalidUserInputException(INVALID_GRID_VALUE_INPUT_EXCEPTION_MESSAGE + i + "!");
+            }
+        }
+        position.setIndex(skipLineEnding(gridInput, lineEnd));
+        return grid;
+    }
+
+    /**
+     * Method responsible for finding the end of the line that starts at the given position.
+     *
+     * @param gridInput holding the grid.
+     * @param position  of the start of the line.
+     * @return index of the \r or \n that ends the line, or the length of the input for the last line.
+     */
+    public static int findLineEnd(byte[] gridInput, int position) {
+        while (position < gridInput.length && gridInput[position] != '\n' && gridInput[position] != '\r') {
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * Method responsible for skipping the line ending at the given position.
+     *
+     * @param gridInput holding the grid.
+     * @param lineEnd   index returned by findLineEnd.
+     * @return index of the start of the next line.
+     */
+    public static int skipLineEnding(byte[] gridInput, int lineEnd) {
+        if (lineEnd < gridInput.length && gridInput[lineEnd] == '\r') {
+            lineEnd++;
+        }
+        if (lineEnd < gridInput.length && gridInput[lineEnd] == '\n') {
+            lineEnd++;
+        }
+        return lineEnd;
+    }
+
+}
@@ -0,0 +1,184 @@
+package engine.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Class responsible for reading the lines of a byte stream ( ASCII ) into a reusable buffer, which grows to the longest line read,
+ * so grid rows can be validated and decoded straight from the bytes of the stream ( see ValidatorService ) without a String per row.
+ * A line ends with \n, \r or \r\n, as in GridLoaderService.findLineEnd() and skipLineEnding().
+ *
+ * @author - Viktor Kurtev
+ */
+public final class LineReader {
+
+    /**
+     * Constant for the initial size of the buffer, and the most bytes read from the stream at once while it isn't full.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Variable containing the stream of the lines.
+     */
+    private final InputStream input;
+
+    /**
+     * Variable containing the bytes read from the stream - the last line read, then the bytes read after it.
+     */
+    private byte[] buffer = new byte[BUFFER_SIZE];
+
+    /**
+     * Variable containing the index of the first byte after the last line read.
+     */
+    private int position;
+
+    /**
+     * Variable containing the index after the last byte read from the stream.
+     */
+    private int limit;
+
+    /**
+     * Variable containing the index of the first byte of the last line read.
+     */
+    private int lineStart;
+
+    /**
+     * Variable containing the index of the line ending of the last line read.
+     */
+    private int lineEnd;
+
+    /**
+     * Variable containing whether the last line read ended with \r, so a \n right after it belongs to its line ending.
+     */
+    private boolean skipLineFeed;
+
+    public LineReader(InputStream input) {
+        this.input = input;
+    }
+
+    /**
+     * Method responsible for reading the next line into the buffer.
+     *
+     * @param maxLength of a valid line - a longer line is cut once more than maxLength bytes of it are read, so it doesn't grow the buffer further.
+     * @return True if a line was read or False if the stream had ended.
+     */
+    public boolean readLine(int maxLength) throws IOException {
+        if (skipLineFeed) {
+            skipLineFeed = false;
+            if (position == limit && !fill()) {
+                return false;
+            }
+            if (buffer[position] == '\n') {
+                position++;
+            }
+        }
+        int length = 0;
+        while (true) {
+            while (position + length < limit) {
+                byte lineByte = buffer[position + length];
+                if (lineByte == '\n' || lineByte == '\r') {
+                    setLine(length);
+                    position++;
+                    skipLineFeed = lineByte == '\r';
+                    return true;
+                }
+                length++;
+            }
+            if (length > maxLength) {
+                setLine(length);
+                return true;
+            }
+            if (!fill()) {
+                setLine(length);
+                return length > 0;
+            }
+        }
+    }
+
+    /**
+     * Method responsible for skipping the rest of the stream while it is whitespace.
+     *
+     * @return True if the stream has ended or False if it holds anything but whitespace.
+     */
+    public boolean skipWhitespace() throws IOException {
+        do {
+            while (position < limit) {
+                if (!Character.isWhitespace(buffer[position++])) {
+                    return false;
+                }
+            }
+        } while (fill());
+        return true;
+    }
+
+    /**
+     * Method responsible for checking whether the last line read holds nothing but whitespace.
+     *
+     * @return True if the line is blank or False otherwise.
+     */
+    public boolean isBlank() {
+        for (int i = lineStart; i < lineEnd; i++) {
+            if (!Character.isWhitespace(buffer[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return buffer holding the last line read from getLineStart() on - valid until the next read.
+     */
+    public byte[] getBuffer() {
+        return buffer;
+    }
+
+    public int getLineStart() {
+        return lineStart;
+    }
+
+    public int getLineLength() {
+        return lineEnd - lineStart;
+    }
+
+    /**
+     * @return the last line read, without its line ending.
+     */
+    public String getLine() {
+        return new String(buffer, lineStart, lineEnd - lineStart, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Method responsible for marking the line of the given length at the position as the last line read, and moving past it.
+     */
+    private void setLine(int length) {
+        lineStart = position;
+        lineEnd = position + length;
+        position = lineEnd;
+    }
+
+    /**
+     * Method responsible for reading more of the stream after the read bytes - the bytes before the position are dropped first,
+     * and the buffer grows when it is full of bytes of the current line.
+     *
+     * @return True if bytes were read or False if the stream had ended.
+     */
+    private boolean fill() throws IOException {
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+        if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, (int) Math.min(2L * buffer.length, Integer.MAX_VALUE - 8));
+        }
+        int read = input.read(buffer, limit, buffer.length - limit);
+        if (read < 0) {
+            return false;
+        }
+        limit += read;
+        return true;
+    }
+
+}
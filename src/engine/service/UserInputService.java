@@ -38,6 +38,7 @@ public final class UserInputService {
     /**
      * Method responsible for closing the buffered reader.
      * Prevents memory leaks.
+     * The next call of getUserInput() opens a new reader, so System.in can be replaced between games.
      */
     public static void closeBFReader() {
         if (br != null) {
@@ -46,6 +47,7 @@ public final class UserInputService {
             } catch (IOException e) {
                 e.printStackTrace();
             }
+            br = null;
         }
     }
 
@@ -1,18 +1,16 @@
 package engine.service;
 
-import engine.enumeration.CellTypeEnum;
-import model.Cell;
-import model.GenerationZero;
+import model.Generation;
 import model.ObservedCellInfo;
+import model.RuleSet;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
  * Class (Service) responsible for validating user input coming from UserInputService.
+ * The regex patterns are compiled once, and grid rows are validated and decoded without regex, straight into bit-packed words.
  *
  * @author - Viktor Kurtev
  */
@@ -29,24 +27,80 @@ public final class ValidatorService {
     private final int MIN_WIDTH = 0;
 
     /**
-     * Constant for the maximum width of a grid.
+     * Constant for the maximum width of a grid ( exclusive ) in the classic mode.
      */
-    private final int MAX_WIDTH = 1000;
+    private static final int MAX_WIDTH = 1000;
 
     /**
      * Constant regex pattern responsible for the validation of grid size input.
+     * The numbers are parsed as longs and only then compared to the bounds, so no input can overflow them.
      */
-    private final String gridSizeInputPattern = "\\s*([0-9]{1,4})\\s*,\\s*([0-9]{1,4})\\s*";
+    private static final Pattern gridSizeInputPattern = Pattern.compile("\\s*([0-9]{1,10})\\s*,\\s*([0-9]{1,10})\\s*");
 
     /**
-     * Constant regex pattern responsible for the validation of each individual grid value.
+     * Constant regex pattern responsible for the validation of observed cell info.
      */
-    private final String gridValuesInputPattern = "([0-1])";
+    private static final Pattern observedCellInfoInputPattern = Pattern.compile("\\s*([0-9]{1,10})\\s*,\\s*([0-9]{1,10})\\s*,\\s*([0-9]{1,18})\\s*");
 
     /**
-     * Constant regex pattern responsible for the validation of observed cell info.
+     * Constant regex pattern responsible for the validation of rules in the "B36/S236" notation.
+     */
+    private static final Pattern rulesInputPattern = Pattern.compile("\\s*[Bb]([0-8]*)\\s*/\\s*[Ss]([0-8]*)\\s*");
+
+    /**
+     * Constant for the row of every thread into which the rows of off-heap grids are decoded.
+     */
+    private static final ThreadLocal<long[]> DECODED_ROW = ThreadLocal.withInitial(() -> new long[0]);
+
+    /**
+     * Variable containing the maximum height of a grid ( inclusive ).
+     */
+    private final int maxHeight;
+
+    /**
+     * Variable containing the maximum width of a grid ( inclusive ).
+     */
+    private final int maxWidth;
+
+    /**
+     * Variable containing whether the height of a grid has to be less than or equal to its width, as in the classic mode.
+     */
+    private final boolean heightUpToWidth;
+
+    /**
+     * Creates a validator for the classic mode - 0 < height <= width < 1000.
      */
-    private final String observedCellInfoInputPattern = "\\s*([0-9]{1,4})\\s*,\\s*([0-9]{1,4})\\s*,\\s*([0-9]*)\\s*";
+    public ValidatorService() {
+        this(MAX_WIDTH - 1, MAX_WIDTH - 1, true);
+    }
+
+    /**
+     * Creates a validator for the large-grid mode - 0 < height <= maxHeight and 0 < width <= maxWidth, in any proportion.
+     *
+     * @param maxHeight maximum height of a grid ( inclusive ).
+     * @param maxWidth  maximum width of a grid ( inclusive ).
+     */
+    public ValidatorService(int maxHeight, int maxWidth) {
+        this(maxHeight, maxWidth, false);
+    }
+
+    private ValidatorService(int maxHeight, int maxWidth, boolean heightUpToWidth) {
+        this.maxHeight = maxHeight;
+        this.maxWidth = maxWidth;
+        this.heightUpToWidth = heightUpToWidth;
+    }
+
+    /**
+     * Method responsible for the description of the bounds of a grid, used in prompts and error messages.
+     *
+     * @return the bounds of the height and width of a grid.
+     */
+    public String getGridBoundsDescription() {
+        if (heightUpToWidth) {
+            return "0 < height <= width < " + (maxWidth + 1);
+        }
+        return "0 < height <= " + maxHeight + ", 0 < width <= " + maxWidth;
+    }
 
     /**
      * Method responsible for the validation of the size of a grid, provided by the user input.
@@ -55,13 +109,12 @@ public final class ValidatorService {
      * @return Optional of an array, containing the validated height - x, width - y or an empty Optional if the validation has failed.
      */
     public Optional<int[]> validateInputSize(String gridSizeInput) {
-        Pattern pattern = Pattern.compile(gridSizeInputPattern);
-        Matcher matcher = pattern.matcher(gridSizeInput);
+        Matcher matcher = gridSizeInputPattern.matcher(gridSizeInput);
         if (matcher.matches()) {
-            int height = Integer.parseInt(matcher.group(1));
-            int width = Integer.parseInt(matcher.group(2));
+            long height = Long.parseLong(matcher.group(1));
+            long width = Long.parseLong(matcher.group(2));
             if (validateGridSize(height, width)) {
-                int[] validatedGridSize = new int[]{height, width};
+                int[] validatedGridSize = new int[]{(int) height, (int) width};
                 return Optional.of(validatedGridSize);
             }
         }
@@ -69,41 +122,141 @@ public final class ValidatorService {
     }
 
     /**
-     * Method responsible for the validation of the grid values, provided by the user input.
+     * Method responsible for the validation of the grid values of a row, decoding them straight into a row of a grid.
      *
-     * @param gridValuesInput raw String representation of the grid values.
-     * @return Optional of a List of Cells, containing the validated Cell values for a row of a grid or an empty Optional if the validation has failed.
-     */
-    public Optional<List<Cell>> validateGridValuesInput(String gridValuesInput) {
-        Pattern pattern = Pattern.compile(gridValuesInputPattern);
-        Matcher matcher = pattern.matcher(gridValuesInput);
-        List<Cell> validatedGridRowValues = new ArrayList<>();
-        byte matchedGridRowValue;
-        while (matcher.find()) { // matcher.find() iterates through the provided String : Example input String - "031" for pattern ([0-1]) -> matcher.find() -> "0" ->  matcher.find() -> "" ->  matcher.find() -> "1".
-            matchedGridRowValue = Byte.parseByte(matcher.group(0)); // Each group consists of a single character matched by the regex pattern for the input String, which then transforms into a byte.
-            validatedGridRowValues.add(new Cell(CellTypeEnum.getType(matchedGridRowValue)));
+     * @param gridValuesInput raw representation of the grid values.
+     * @param grid            into which the row is decoded.
+     * @param x               height coordinate of the row.
+     * @return True if the row is valid or False if the validation has failed, in which case the row is left partially decoded.
+     */
+    public boolean validateGridValuesInput(CharSequence gridValuesInput, Generation grid, int x) {
+        int width = grid.getWidth();
+        if (gridValuesInput.length() != width) {
+            return false;
+        }
+        long[] words = getDecodedRow(grid, x);
+        for (int from = 0; from < width; from += Generation.CELLS_PER_WORD) {
+            int to = Math.min(from + Generation.CELLS_PER_WORD, width);
+            long word = 0;
+            for (int j = from; j < to; j++) {
+                int cell = gridValuesInput.charAt(j) - '0';
+                if ((cell & ~1) != 0) {
+                    return false;
+                }
+                word |= (long) cell << j; // Shifts by j % 64.
+            }
+            words[from >>> 6] = word;
         }
-        if (validatedGridRowValues.size() != GenerationZero.getInstance().getGridWidth()) {
-            return Optional.empty();
+        putDecodedRow(grid, x, words);
+        return true;
+    }
+
+    /**
+     * Method responsible for the validation of the grid values of a row held in a byte buffer ( ASCII ), decoding them straight into a row of a grid.
+     *
+     * @param gridValuesInput buffer holding the grid values.
+     * @param from            index of the first grid value of the row in the buffer.
+     * @param grid            into which the row is decoded.
+     * @param x               height coordinate of the row.
+     * @return True if the row is valid or False if the validation has failed, in which case the row is left partially decoded.
+     */
+    public boolean validateGridValuesInput(byte[] gridValuesInput, int from, Generation grid, int x) {
+        int width = grid.getWidth();
+        if (from + width > gridValuesInput.length) {
+            return false;
+        }
+        long[] words = getDecodedRow(grid, x);
+        for (int wordFrom = 0; wordFrom < width; wordFrom += Generation.CELLS_PER_WORD) {
+            int wordTo = Math.min(wordFrom + Generation.CELLS_PER_WORD, width);
+            long word = 0;
+            for (int j = wordFrom; j < wordTo; j++) {
+                int cell = gridValuesInput[from + j] - '0';
+                if ((cell & ~1) != 0) {
+                    return false;
+                }
+                word |= (long) cell << j; // Shifts by j % 64.
+            }
+            words[wordFrom >>> 6] = word;
+        }
+        putDecodedRow(grid, x, words);
+        return true;
+    }
+
+    /**
+     * Method responsible for the words into which a row of grid values is decoded - 1 for a GREEN cell, 0 for a RED cell.
+     * Every word of the row is assigned, so the row doesn't need to be cleared beforehand.
+     * An off-heap row has no array, so it is decoded into a row of the thread and copied by putDecodedRow() once it is complete.
+     *
+     * @param grid into which the row is decoded.
+     * @param x    height coordinate of the row.
+     * @return the row of the grid, or the row of the thread for an off-heap grid.
+     */
+    private static long[] getDecodedRow(Generation grid, int x) {
+        if (!grid.isOffHeap()) {
+            grid.setRowChanged(x, true);
+            return grid.getRow(x);
+        }
+        long[] words = DECODED_ROW.get();
+        if (words.length < grid.getWordsPerRow()) {
+            words = new long[grid.getWordsPerRow()];
+            DECODED_ROW.set(words);
+        }
+        return words;
+    }
+
+    /**
+     * Method responsible for copying a decoded row into an off-heap grid - a row of a grid on the heap is decoded in place.
+     */
+    private static void putDecodedRow(Generation grid, int x, long[] words) {
+        if (grid.isOffHeap()) {
+            grid.writeWords(x, 0, words, 0, grid.getWordsPerRow());
+        }
+    }
+
+    /**
+     * Method responsible for the validation of rules, provided in the "B36/S236" notation - the green neighbours counts for Birth and Survival.
+     *
+     * @param rulesInput raw String representation of the rules.
+     * @return Optional of RuleSet, containing the validated rules, or an empty Optional if the validation has failed.
+     */
+    public Optional<RuleSet> validateRulesInput(String rulesInput) {
+        Matcher matcher = rulesInputPattern.matcher(rulesInput);
+        if (matcher.matches()) {
+            return Optional.of(new RuleSet(getCountsMask(matcher.group(1)), getCountsMask(matcher.group(2))));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Method responsible for the conversion of green neighbours count digits into a mask.
+     *
+     * @param counts digits of the counts, 0 to 8 each.
+     * @return mask with bit k set for every digit k.
+     */
+    private static int getCountsMask(String counts) {
+        int countsMask = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            countsMask |= 1 << (counts.charAt(i) - '0');
         }
-        return Optional.of(validatedGridRowValues);
+        return countsMask;
     }
 
     /**
      * Method responsible for the validation of the Observed Cell Info, provided by the user input.
      *
      * @param observedCellInfoInput raw String representation of the Observed Cell Info.
+     * @param height                of the grid in which the cell is observed.
+     * @param width                 of the grid in which the cell is observed.
      * @return Optional of ObservedCellInfo object, containing the validated Observed Cell Info, or an empty Optional if the validation has failed.
      */
-    public Optional<ObservedCellInfo> validateObservedCellInfoInput(String observedCellInfoInput) {
-        Pattern pattern = Pattern.compile(observedCellInfoInputPattern);
-        Matcher matcher = pattern.matcher(observedCellInfoInput);
+    public Optional<ObservedCellInfo> validateObservedCellInfoInput(String observedCellInfoInput, int height, int width) {
+        Matcher matcher = observedCellInfoInputPattern.matcher(observedCellInfoInput);
         if (matcher.matches()) {
-            int x = Integer.parseInt(matcher.group(1));
-            int y = Integer.parseInt(matcher.group(2));
+            long x = Long.parseLong(matcher.group(1));
+            long y = Long.parseLong(matcher.group(2));
             long n = Long.parseLong(matcher.group(3));
-            if (validateCoordinates(x, y)) {
-                ObservedCellInfo validatedObservedCellInfo = new ObservedCellInfo(x, y, n);
+            if (validateCoordinates(x, y, height, width)) {
+                ObservedCellInfo validatedObservedCellInfo = new ObservedCellInfo((int) x, (int) y, n);
                 return Optional.of(validatedObservedCellInfo);
             }
         }
@@ -112,26 +265,28 @@ public final class ValidatorService {
 
     /**
      * Method responsible for the validation of height and width bounds of a grid.
-     * MIN_HEIGHT (0) < height <= width < MAX_WIDTH (1000)
+     * MIN_HEIGHT (0) < height <= maxHeight and MIN_WIDTH (0) < width <= maxWidth, with height <= width in the classic mode.
      *
      * @param height of a grid, provided by the user to be validated.
      * @param width  of a grid, provided by the user to be validated.
      * @return True if the height and width are in bounds or False if they aren't.
      */
-    private boolean validateGridSize(int height, int width) {
-        return height > MIN_HEIGHT && width < MAX_WIDTH && height <= width;
+    private boolean validateGridSize(long height, long width) {
+        return height > MIN_HEIGHT && height <= maxHeight && width > MIN_WIDTH && width <= maxWidth && (!heightUpToWidth || height <= width);
     }
 
     /**
      * Method responsible for the validation of coordinates, provided by the user input.
      *
-     * @param x is height coordinate of a grid.
-     * @param y is width coordinate of a grid.
+     * @param x      is height coordinate of a grid.
+     * @param y      is width coordinate of a grid.
+     * @param height of the grid.
+     * @param width  of the grid.
      * @return True if the coordinates are in bounds of the size of a grid or False if they aren't.
      */
-    private boolean validateCoordinates(int x, int y) {
-        int maxGridX = GenerationZero.getInstance().getGridHeight() - 1;
-        int maxGridY = GenerationZero.getInstance().getGridWidth() - 1;
+    private boolean validateCoordinates(long x, long y, int height, int width) {
+        int maxGridX = height - 1;
+        int maxGridY = width - 1;
         return x >= MIN_HEIGHT && x <= maxGridX && y >= MIN_WIDTH && y <= maxGridY;
     }
 
@@ -0,0 +1,185 @@
+package engine.stream;
+
+import model.Generation;
+
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Class responsible for holding a streamed generation - a key frame holds every row of the generation,
+ * any other frame the rows that changed since the last frame, each as a mask of the changed cells ( the XOR of both rows ).
+ * Frames are pooled by their GenerationPublisher and refilled for later generations, so a subscriber releases every frame it received once it is done with it.
+ * A frame shouldn't be used after it is released.
+ *
+ * @author - Viktor Kurtev
+ */
+public final class GenerationFrame {
+
+    /**
+     * Variable containing the pool of free frames into which the frame is released.
+     */
+    private final BlockingQueue<GenerationFrame> pool;
+
+    private final int height;
+    private final int width;
+    private final int wordsPerRow;
+
+    /**
+     * Variable containing the words of the rows of the frame, row after row - wordsPerRow words per row.
+     */
+    private final long[] words;
+
+    /**
+     * Variable containing the height coordinates of the rows of the frame.
+     */
+    private final int[] rowIndexes;
+
+    /**
+     * Variable containing a row of words, used while the frame is applied to a Generation.
+     */
+    private final long[] rowWords;
+
+    private int rowsCount;
+    private long generationIndex;
+    private long generationsCount;
+    private boolean keyFrame;
+    private boolean inUse;
+
+    GenerationFrame(BlockingQueue<GenerationFrame> pool, int height, int width) {
+        this.pool = pool;
+        this.height = height;
+        this.width = width;
+        this.wordsPerRow = Generation.getWordsPerRow(width);
+        this.words = new long[height * wordsPerRow];
+        this.rowIndexes = new int[height];
+        this.rowWords = new long[wordsPerRow];
+    }
+
+    /**
+     * Method responsible for applying the frame to a Generation - a key frame replaces its rows, any other frame flips the changed cells.
+     * Applying every frame of a game in order to a Generation of the same bounds recreates every streamed generation.
+     *
+     * @param generation to which the frame is applied.
+     * @throws IllegalArgumentException when the Generation has other bounds than the frame.
+     */
+    public void applyTo(Generation generation) {
+        if (generation.getHeight() != height || generation.getWidth() != width) {
+            throw new IllegalArgumentException("The generation should have the bounds of the frame - " + height + "," + width + "!");
+        }
+        if (keyFrame) {
+            generation.clear();
+        }
+        for (int row = 0; row < rowsCount; row++) {
+            int offset = row * wordsPerRow;
+            if (keyFrame) {
+                generation.writeWords(rowIndexes[row], 0, words, offset, wordsPerRow);
+                continue;
+            }
+            generation.readWords(rowIndexes[row], 0, rowWords, 0, wordsPerRow);
+            for (int w = 0; w < wordsPerRow; w++) {
+                rowWords[w] ^= words[offset + w];
+            }
+            generation.writeWords(rowIndexes[row], 0, rowWords, 0, wordsPerRow);
+        }
+    }
+
+    /**
+     * Method responsible for returning the frame to the pool of its publisher, once the subscriber is done with it.
+     *
+     * @throws IllegalStateException when the frame was already released.
+     */
+    public void release() {
+        if (!inUse) {
+            throw new IllegalStateException("The frame was already released!");
+        }
+        inUse = false;
+        pool.offer(this);
+    }
+
+    /**
+     * Method responsible for returning the frame to the pool for a subscriber that failed while holding it.
+     */
+    void releaseIfInUse() {
+        if (inUse) {
+            release();
+        }
+    }
+
+    /**
+     * Method responsible for taking the frame out of the pool, to be filled with the next generation.
+     */
+    void acquire(long generationIndex, long generationsCount, boolean keyFrame) {
+        this.inUse = true;
+        this.generationIndex = generationIndex;
+        this.generationsCount = generationsCount;
+        this.keyFrame = keyFrame;
+        this.rowsCount = 0;
+    }
+
+    /**
+     * Method responsible for adding the row whose words were written at the next row of the frame.
+     */
+    void addRow(int x) {
+        rowIndexes[rowsCount++] = x;
+    }
+
+    /**
+     * Method responsible for the offset in the words of the next row of the frame.
+     */
+    int getNextRowOffset() {
+        return rowsCount * wordsPerRow;
+    }
+
+    long[] getWords() {
+        return words;
+    }
+
+    /**
+     * Method responsible for reading a word of a row of the frame.
+     *
+     * @param row index of the row in the frame - 0 to getRowsCount() - 1.
+     * @param w   index of the word in the row.
+     * @return the cells of the word for a key frame, the changed cells of the word otherwise.
+     */
+    public long getWord(int row, int w) {
+        return words[row * wordsPerRow + w];
+    }
+
+    /**
+     * @param row index of the row in the frame - 0 to getRowsCount() - 1.
+     * @return height coordinate of the row in the grid.
+     */
+    public int getRowIndex(int row) {
+        return rowIndexes[row];
+    }
+
+    public int getRowsCount() {
+        return rowsCount;
+    }
+
+    public long getGenerationIndex() {
+        return generationIndex;
+    }
+
+    /**
+     * @return number of generations N of the game - the frame of generation N is the last one of the game.
+     */
+    public long getGenerationsCount() {
+        return generationsCount;
+    }
+
+    public boolean isKeyFrame() {
+        return keyFrame;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getWordsPerRow() {
+        return wordsPerRow;
+    }
+}
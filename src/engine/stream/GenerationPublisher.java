@@ -0,0 +1,365 @@
+package engine.stream;
+
+import engine.enumeration.StreamModeEnum;
+import model.Generation;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Class responsible for streaming the generations of the games played by a single "GreenVsRed" instance to a subscriber, as they are created.
+ * The generations are copied into a fixed pool of frames, which the subscriber releases after use - so a streamed generation allocates nothing.
+ * Backpressure - the frames are delivered on a thread of the subscription as the subscriber requests them.
+ * When every frame of the pool is waiting for delivery or held by the subscriber, the game either waits for a released frame or drops the generation.
+ * A single subscriber at a time - a frame is released by the subscriber it was delivered to.
+ *
+ * @author - Viktor Kurtev
+ */
+public final class GenerationPublisher implements Flow.Publisher<GenerationFrame> {
+
+    /**
+     * Constant for the default number of frames of the pool.
+     */
+    public static final int DEFAULT_POOL_SIZE = 8;
+
+    /**
+     * Constant for the interval at which a waiting game checks whether the subscription has ended.
+     */
+    private static final long FRAME_POLL_MILLIS = 10;
+
+    private final StreamModeEnum streamMode;
+    private final int poolSize;
+    private final boolean dropFrames;
+
+    private final AtomicLong publishedFramesCount = new AtomicLong();
+    private final AtomicLong droppedFramesCount = new AtomicLong();
+
+    /**
+     * Variable containing the free frames, for the bounds of the running game.
+     */
+    private BlockingQueue<GenerationFrame> freeFrames;
+
+    /**
+     * Variable containing the rows of the last published generation, from which the diffs are created.
+     */
+    private long[] publishedWords;
+
+    private int height;
+    private int width;
+    private long generationsCount;
+
+    private volatile GenerationSubscription subscription;
+    private volatile boolean closed;
+
+    public GenerationPublisher(StreamModeEnum streamMode) {
+        this(streamMode, DEFAULT_POOL_SIZE, false);
+    }
+
+    /**
+     * @param streamMode in which the generations are streamed.
+     * @param poolSize   number of frames that can be waiting for delivery or held by the subscriber at once.
+     * @param dropFrames True if the generations are dropped when the pool has no free frame, False if the game waits for one.
+     */
+    public GenerationPublisher(StreamModeEnum streamMode, int poolSize, boolean dropFrames) {
+        if (poolSize <= 0) {
+            throw new IllegalArgumentException("The size of the pool should be positive, got " + poolSize + "!");
+        }
+        this.streamMode = streamMode;
+        this.poolSize = poolSize;
+        this.dropFrames = dropFrames;
+    }
+
+    /**
+     * Method responsible for subscribing a subscriber, whose frames are delivered on a new daemon thread.
+     * A subscriber that subscribes while another one is subscribed, or after the publisher is closed, receives an IllegalStateException.
+     *
+     * @param subscriber to which the frames are delivered.
+     */
+    @Override
+    public synchronized void subscribe(Flow.Subscriber<? super GenerationFrame> subscriber) {
+        if (closed || (subscription != null && !subscription.isDone())) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException(closed ? "The publisher is closed!" : "The publisher already has a subscriber!"));
+            return;
+        }
+        subscription = new GenerationSubscription(subscriber);
+        Thread deliveryThread = new Thread(subscription, "gvr-generation-stream");
+        deliveryThread.setDaemon(true);
+        deliveryThread.start();
+    }
+
+    /**
+     * Method responsible for closing the publisher - the subscriber is completed once the frames waiting for delivery are delivered.
+     */
+    public synchronized void close() {
+        closed = true;
+        if (subscription != null) {
+            subscription.complete();
+        }
+    }
+
+    /**
+     * Method responsible for preparing the stream for a game, on the thread of the game.
+     * The frames of the last game are reused when the grid bounds are the same, otherwise a new pool is created -
+     * frames of the last game that are still held by the subscriber are released into the old pool.
+     *
+     * @param height           of the grid.
+     * @param width            of the grid.
+     * @param generationsCount number of generations N.
+     */
+    public void onGameStart(int height, int width, long generationsCount) {
+        if (freeFrames == null || this.height != height || this.width != width) {
+            if ((long) height * Generation.getWordsPerRow(width) > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("The grid is too large to be streamed!");
+            }
+            freeFrames = new ArrayBlockingQueue<>(poolSize);
+            for (int i = 0; i < poolSize; i++) {
+                freeFrames.add(new GenerationFrame(freeFrames, height, width));
+            }
+            publishedWords = streamMode == StreamModeEnum.DIFFS ? new long[height * Generation.getWordsPerRow(width)] : null;
+            this.height = height;
+            this.width = width;
+        }
+        this.generationsCount = generationsCount;
+        GenerationSubscription subscription = this.subscription;
+        if (subscription != null) {
+            subscription.keyFrameNeeded = true;
+        }
+    }
+
+    /**
+     * Method responsible for checking whether a subscriber currently receives the published generations,
+     * so a game without one is played at full speed instead of creating every generation for the stream.
+     *
+     * @return True if there is a subscription that hasn't ended.
+     */
+    public boolean hasSubscriber() {
+        GenerationSubscription subscription = this.subscription;
+        return subscription != null && !subscription.isDone();
+    }
+
+    /**
+     * Method responsible for publishing a generation, on the thread of the game.
+     * Does nothing when there is no subscriber.
+     *
+     * @param generationIndex index of the generation.
+     * @param generation      to be published, which is left unchanged.
+     */
+    public void onGeneration(long generationIndex, Generation generation) {
+        GenerationSubscription subscription = this.subscription;
+        if (subscription == null || subscription.isDone()) {
+            return;
+        }
+        GenerationFrame frame = takeFreeFrame(subscription);
+        if (frame == null) {
+            droppedFramesCount.lazySet(droppedFramesCount.get() + 1);
+            return;
+        }
+        boolean keyFrame = subscription.keyFrameNeeded || streamMode == StreamModeEnum.GENERATIONS;
+        subscription.keyFrameNeeded = false;
+        frame.acquire(generationIndex, generationsCount, keyFrame);
+        fillFrame(frame, generation, keyFrame);
+        subscription.publish(frame);
+        publishedFramesCount.lazySet(publishedFramesCount.get() + 1);
+    }
+
+    /**
+     * Method responsible for taking a free frame - waits until a frame is released, unless the frames are dropped or the subscription ends.
+     *
+     * @return the free frame, or null when the generation is dropped.
+     */
+    private GenerationFrame takeFreeFrame(GenerationSubscription subscription) {
+        if (dropFrames) {
+            return freeFrames.poll();
+        }
+        try {
+            GenerationFrame frame;
+            while (!subscription.isDone()) {
+                frame = freeFrames.poll(FRAME_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (frame != null) {
+                    return frame;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    /**
+     * Method responsible for copying the rows of a generation into a frame - every row for a key frame,
+     * the masks of the rows that changed since the last published generation otherwise.
+     */
+    private void fillFrame(GenerationFrame frame, Generation generation, boolean keyFrame) {
+        long[] words = frame.getWords();
+        int wordsPerRow = generation.getWordsPerRow();
+        for (int x = 0; x < height; x++) {
+            int offset = frame.getNextRowOffset();
+            generation.readWords(x, 0, words, offset, wordsPerRow);
+            if (publishedWords == null) {
+                frame.addRow(x);
+                continue;
+            }
+            int publishedOffset = x * wordsPerRow;
+            if (keyFrame) {
+                System.arraycopy(words, offset, publishedWords, publishedOffset, wordsPerRow);
+                frame.addRow(x);
+                continue;
+            }
+            long changedCells = 0;
+            long word;
+            for (int w = 0; w < wordsPerRow; w++) {
+                word = words[offset + w];
+                words[offset + w] = word ^ publishedWords[publishedOffset + w];
+                publishedWords[publishedOffset + w] = word;
+                changedCells |= words[offset + w];
+            }
+            if (changedCells != 0) {
+                frame.addRow(x);
+            }
+        }
+    }
+
+    public StreamModeEnum getStreamMode() {
+        return streamMode;
+    }
+
+    public long getPublishedFramesCount() {
+        return publishedFramesCount.get();
+    }
+
+    /**
+     * @return number of generations that weren't published since the pool had no free frame.
+     */
+    public long getDroppedFramesCount() {
+        return droppedFramesCount.get();
+    }
+
+    /**
+     * Class responsible for delivering the published frames to a subscriber, in order, as the subscriber requests them.
+     */
+    private final class GenerationSubscription implements Flow.Subscription, Runnable {
+
+        private final Flow.Subscriber<? super GenerationFrame> subscriber;
+        private final ArrayDeque<GenerationFrame> publishedFrames = new ArrayDeque<>();
+        private long demand;
+        private boolean cancelled;
+        private boolean completed;
+        private IllegalArgumentException invalidRequest;
+        private volatile boolean done;
+
+        /**
+         * Variable containing whether the next frame of the subscription should be a key frame - at its start and at the start of a game.
+         * Read and written by the thread of the game only, so a new subscription always starts with a key frame.
+         */
+        private boolean keyFrameNeeded = true;
+
+        private GenerationSubscription(Flow.Subscriber<? super GenerationFrame> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public synchronized void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("The number of requested frames should be positive, got " + n + "!");
+            } else {
+                demand = demand + n < 0 ? Long.MAX_VALUE : demand + n; // Unbounded once it overflows.
+            }
+            notifyAll();
+        }
+
+        @Override
+        public synchronized void cancel() {
+            cancelled = true;
+            done = true;
+            notifyAll();
+        }
+
+        private synchronized void complete() {
+            completed = true;
+            notifyAll();
+        }
+
+        private synchronized void publish(GenerationFrame frame) {
+            if (done) {
+                frame.release(); // The subscription ended after the frame was taken.
+                return;
+            }
+            publishedFrames.add(frame);
+            notifyAll();
+        }
+
+        private boolean isDone() {
+            return done;
+        }
+
+        /**
+         * Method responsible for the delivery loop - takes a published frame whenever there is demand for it, and delivers it outside the lock,
+         * so the game publishes while the subscriber processes. Releases the undelivered frames once the subscription ends.
+         */
+        @Override
+        public void run() {
+            subscriber.onSubscribe(this);
+            Throwable error = null;
+            GenerationFrame frame = null;
+            try {
+                while (true) {
+                    synchronized (this) {
+                        while (!cancelled && invalidRequest == null && (publishedFrames.isEmpty() ? !completed : demand == 0)) {
+                            wait();
+                        }
+                        if (cancelled) {
+                            break;
+                        }
+                        if (invalidRequest != null) {
+                            error = invalidRequest;
+                            break;
+                        }
+                        if (publishedFrames.isEmpty()) {
+                            break; // Completed, with every frame delivered.
+                        }
+                        frame = publishedFrames.poll();
+                        if (demand != Long.MAX_VALUE) {
+                            demand--;
+                        }
+                    }
+                    subscriber.onNext(frame);
+                    frame = null;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancel();
+            } catch (RuntimeException e) {
+                cancel(); // The subscriber broke the contract by throwing, so it receives nothing more.
+                if (frame != null) {
+                    frame.releaseIfInUse(); // Unless the subscriber released it before throwing, the frame would be lost to the pool.
+                }
+            }
+            boolean delivered;
+            synchronized (this) {
+                done = true;
+                delivered = !cancelled;
+                while (!publishedFrames.isEmpty()) {
+                    publishedFrames.poll().release();
+                }
+            }
+            if (error != null) {
+                subscriber.onError(error);
+            } else if (delivered) {
+                subscriber.onComplete();
+            }
+        }
+    }
+}
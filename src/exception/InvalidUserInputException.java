@@ -10,6 +10,9 @@ import java.io.IOException;
  * @author - Viktor Kurtev
  */
 public final class InvalidUserInputException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
     public InvalidUserInputException(String message) {
         super(message);
     }
@@ -0,0 +1,58 @@
+package model;
+
+/**
+ * Class responsible for storing the state of a game at a given generation, from which the game can be resumed.
+ *
+ * @author - Viktor Kurtev
+ */
+public final class Checkpoint {
+    /**
+     * Variable containing the generation the game had reached, with its index and rule set.
+     */
+    private final GridSnapshot snapshot;
+    /**
+     * Variable containing the number of generations N of the game.
+     */
+    private final long generationsCount;
+    /**
+     * Variable containing the height coordinates of the observed cells, or null when every cell of the grid is observed.
+     */
+    private final int[] observedCellsX;
+    /**
+     * Variable containing the width coordinates of the observed cells, or null when every cell of the grid is observed.
+     */
+    private final int[] observedCellsY;
+    /**
+     * Variable containing the number of generations, up to the snapshot one included, in which each observed cell was green.
+     */
+    private final long[] observedCellsGreenCounts;
+
+    public Checkpoint(GridSnapshot snapshot, long generationsCount, int[] observedCellsX, int[] observedCellsY, long[] observedCellsGreenCounts) {
+        this.snapshot = snapshot;
+        this.generationsCount = generationsCount;
+        this.observedCellsX = observedCellsX;
+        this.observedCellsY = observedCellsY;
+        this.observedCellsGreenCounts = observedCellsGreenCounts;
+    }
+
+    public GridSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public long getGenerationsCount() {
+        return generationsCount;
+    }
+
+    public int[] getObservedCellsX() {
+        return observedCellsX;
+    }
+
+    public int[] getObservedCellsY() {
+        return observedCellsY;
+    }
+
+    public long[] getObservedCellsGreenCounts() {
+        return observedCellsGreenCounts;
+    }
+
+}
@@ -1,23 +1,509 @@
 package model;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+
 /**
  * Class responsible for holding the generation state in a grid.
  * Each new object is referred to by "Next/New Generation".
+ * The grid is bit-packed - every cell takes a single bit (1 - GREEN, 0 - RED) of a long array ( words ) per row,
+ * so rows can be accessed independently and the size of a grid isn't limited by the maximum length of a single array.
+ * Bits past the width of the grid are always 0.
+ * The rows are either long arrays on the heap, or words of direct buffers off the heap ( see allocateOffHeap ) - which may also be
+ * the mappings of a file ( see wrapOffHeap ), so the heap taken by a huge grid doesn't grow with its size. The rows of an off-heap generation have no arrays -
+ * they are accessed through getWord(), readWords() and writeWords() instead of getRow().
  *
  * @author - Viktor Kurtev
  */
 public final class Generation {
 
     /**
-     * Variable containing the generation grid.
+     * Constant for the number of cells stored in a single word of the grid.
+     */
+    public static final int CELLS_PER_WORD = Long.SIZE;
+
+    /**
+     * Constant for the maximum number of words of a single direct buffer - a buffer is indexed by int, so it holds up to 2 GB.
+     */
+    private static final int MAX_WORDS_PER_BUFFER = Integer.MAX_VALUE / Long.BYTES;
+
+    /**
+     * Variable containing the height of the grid.
+     */
+    private final int height;
+
+    /**
+     * Variable containing the width of the grid.
+     */
+    private final int width;
+
+    /**
+     * Variable containing the number of words used by a single row of the grid.
+     */
+    private final int wordsPerRow;
+
+    /**
+     * Variable containing the bit-packed rows of the generation grid, or null when the grid is off the heap.
+     */
+    private final long[][] rows;
+
+    /**
+     * Variable containing the bit-packed rows of an off-heap grid, rowsPerBuffer whole rows per direct buffer, or null when the grid is on the heap.
+     */
+    private final LongBuffer[] rowBuffers;
+
+    /**
+     * Variable containing the number of rows held by a single buffer of an off-heap grid.
+     */
+    private final int rowsPerBuffer;
+
+    /**
+     * Variable containing for every row whether it differs from the same row of the generation this one was created from.
+     * Written by the step kernels for the rows they create - any other write marks the written rows as changed,
+     * so rows are only ever treated as unchanged when a kernel has compared them.
+     */
+    private final boolean[] changedRows;
+
+    public Generation(int height, int width) {
+        this(height, width, false);
+    }
+
+    private Generation(int height, int width, boolean offHeap) {
+        this(height, width, offHeap ? allocateRowBuffers(height, width) : null);
+    }
+
+    /**
+     * @param rowBuffers of an off-heap grid, getRowsPerBuffer(width) rows per buffer, or null for a grid on the heap.
+     */
+    private Generation(int height, int width, LongBuffer[] rowBuffers) {
+        this.height = height;
+        this.width = width;
+        this.wordsPerRow = getWordsPerRow(width);
+        if (rowBuffers != null) {
+            this.rows = null;
+            this.rowsPerBuffer = getRowsPerBuffer(width);
+            this.rowBuffers = rowBuffers;
+        } else {
+            this.rows = new long[height][wordsPerRow];
+            this.rowsPerBuffer = 0;
+            this.rowBuffers = null;
+        }
+        this.changedRows = new boolean[height];
+        Arrays.fill(changedRows, true);
+    }
+
+    /**
+     * Static method responsible for the allocation of the direct buffers of an off-heap grid.
+     */
+    private static LongBuffer[] allocateRowBuffers(int height, int width) {
+        int rowsPerBuffer = getRowsPerBuffer(width);
+        LongBuffer[] rowBuffers = new LongBuffer[(height + rowsPerBuffer - 1) / rowsPerBuffer];
+        for (int i = 0; i < rowBuffers.length; i++) {
+            int bufferRows = Math.min(rowsPerBuffer, height - i * rowsPerBuffer);
+            // Native order, so a word is a plain load or store. Direct buffers start zeroed - all cells RED.
+            rowBuffers[i] = ByteBuffer.allocateDirect(bufferRows * getWordsPerRow(width) * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer();
+        }
+        return rowBuffers;
+    }
+
+    /**
+     * Static method responsible for the creation of an empty generation held off the heap, in direct buffers.
+     * The memory is freed once the generation is garbage collected.
+     *
+     * @param height of the grid.
+     * @param width  of the grid.
+     * @return new off-heap Generation of RED cells.
+     * @throws IllegalArgumentException when the bounds aren't positive.
+     */
+    public static Generation allocateOffHeap(int height, int width) {
+        validateBounds(height, width);
+        return new Generation(height, width, true);
+    }
+
+    /**
+     * Static method responsible for the creation of an off-heap generation held by the given buffers, without copying them -
+     * e.g. the mappings of a grid file, in the byte order of the file. Writes to the generation go straight to the buffers.
+     *
+     * @param height     of the grid.
+     * @param width      of the grid.
+     * @param rowBuffers getRowsPerBuffer(width) whole rows of getWordsPerRow(width) words per buffer, the last buffer holding the remaining rows.
+     * @return new off-heap Generation held by the buffers.
+     * @throws IllegalArgumentException when the bounds aren't positive or the buffers don't hold exactly the rows of the grid.
      */
-    private final Cell[][] grid;
+    public static Generation wrapOffHeap(int height, int width, LongBuffer[] rowBuffers) {
+        validateBounds(height, width);
+        int rowsPerBuffer = getRowsPerBuffer(width);
+        if (rowBuffers.length != (height + rowsPerBuffer - 1) / rowsPerBuffer) {
+            throw new IllegalArgumentException("The grid should be held by " + ((height + rowsPerBuffer - 1) / rowsPerBuffer) + " buffers, got " + rowBuffers.length + "!");
+        }
+        for (int i = 0; i < rowBuffers.length; i++) {
+            if (rowBuffers[i].capacity() != Math.min(rowsPerBuffer, height - i * rowsPerBuffer) * getWordsPerRow(width)) {
+                throw new IllegalArgumentException("The buffer " + i + " doesn't hold whole rows of the grid!");
+            }
+        }
+        return new Generation(height, width, rowBuffers.clone());
+    }
 
-    public Generation(Cell[][] grid) {
-        this.grid = grid;
+    /**
+     * Static method responsible for the calculation of the number of rows held by a single buffer of an off-heap grid - a buffer holds up to 2 GB.
+     *
+     * @param width of the grid.
+     * @return number of whole rows per buffer.
+     */
+    public static int getRowsPerBuffer(int width) {
+        return Math.max(1, MAX_WORDS_PER_BUFFER / Math.max(1, getWordsPerRow(width)));
     }
 
-    public Cell[][] getGrid() {
-        return grid;
+    /**
+     * Static method responsible for the creation of an empty generation with the same bounds and storage as another one.
+     *
+     * @param generation whose bounds and storage are used.
+     * @return new Generation of RED cells.
+     */
+    public static Generation allocateLike(Generation generation) {
+        return new Generation(generation.height, generation.width, generation.isOffHeap());
+    }
+
+    /**
+     * Static method responsible for the creation of a generation from one byte per cell.
+     *
+     * @param height of the grid.
+     * @param width  of the grid.
+     * @param cells  row after row, 1 for a GREEN cell or 0 for a RED cell.
+     * @return new Generation holding the given cells.
+     * @throws IllegalArgumentException when the bounds aren't positive, the number of cells doesn't match them or a cell isn't 0 or 1.
+     */
+    public static Generation of(int height, int width, byte[] cells) {
+        validateBounds(height, width);
+        if (cells.length != (long) height * width) {
+            throw new IllegalArgumentException("Expected " + (long) height * width + " cells, got " + cells.length + "!");
+        }
+        Generation generation = new Generation(height, width);
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                byte cell = cells[i * width + j];
+                if (cell != 0 && cell != 1) {
+                    throw new IllegalArgumentException("Cell " + i + "," + j + " should be 0 - RED or 1 - GREEN, got " + cell + "!");
+                }
+                generation.setGreen(i, j, cell == 1);
+            }
+        }
+        return generation;
+    }
+
+    /**
+     * Static method responsible for the creation of a generation from a bit set.
+     *
+     * @param height of the grid.
+     * @param width  of the grid.
+     * @param cells  with the bit at x * width + y set for every GREEN cell, bits past the grid are ignored.
+     * @return new Generation holding the given cells.
+     * @throws IllegalArgumentException when the bounds aren't positive.
+     */
+    public static Generation of(int height, int width, BitSet cells) {
+        validateBounds(height, width);
+        Generation generation = new Generation(height, width);
+        long cellsCount = (long) height * width;
+        for (int index = cells.nextSetBit(0); index >= 0 && index < cellsCount; index = cells.nextSetBit(index + 1)) {
+            generation.setGreen(index / width, index % width, true);
+        }
+        return generation;
+    }
+
+    /**
+     * Static method responsible for the validation of the bounds of a grid created through the API.
+     *
+     * @param height of the grid.
+     * @param width  of the grid.
+     * @throws IllegalArgumentException when the height or the width isn't positive.
+     */
+    private static void validateBounds(int height, int width) {
+        if (height <= 0 || width <= 0) {
+            throw new IllegalArgumentException("The grid size should be positive, got " + height + "," + width + "!");
+        }
+    }
+
+    /**
+     * Method responsible for the calculation of the number of words needed to store a row.
+     *
+     * @param width of the row.
+     * @return number of words needed to store the given number of cells.
+     */
+    public static int getWordsPerRow(int width) {
+        return (width + CELLS_PER_WORD - 1) / CELLS_PER_WORD;
+    }
+
+    /**
+     * Method responsible for checking the type of a cell.
+     *
+     * @param x height coordinate.
+     * @param y width coordinate.
+     * @return True if the cell is GREEN or False if the cell is RED.
+     */
+    public boolean isGreen(int x, int y) {
+        return (getWord(x, y >>> 6) & (1L << y)) != 0; // y >>> 6 is y / 64, 1L << y shifts by y % 64.
+    }
+
+    /**
+     * Method responsible for checking whether coordinates are in bounds of the grid.
+     *
+     * @param x height coordinate.
+     * @param y width coordinate.
+     * @return True if the cell is in the grid or False if it isn't.
+     */
+    public boolean isInBounds(int x, int y) {
+        return x >= 0 && x < height && y >= 0 && y < width;
+    }
+
+    /**
+     * Method responsible for setting the type of a cell.
+     *
+     * @param x     height coordinate.
+     * @param y     width coordinate.
+     * @param green True for a GREEN cell or False for a RED cell.
+     */
+    public void setGreen(int x, int y, boolean green) {
+        long word = getWord(x, y >>> 6);
+        putWord(x, y >>> 6, green ? word | 1L << y : word & ~(1L << y));
+        changedRows[x] = true;
+    }
+
+    /**
+     * Method responsible for the assignment of a whole row of bit-packed cells.
+     *
+     * @param x        height coordinate of the row.
+     * @param rowWords bit-packed cells of the row, containing wordsPerRow words.
+     */
+    public void setRow(int x, long[] rowWords) {
+        writeWords(x, 0, rowWords, 0, wordsPerRow);
+    }
+
+    /**
+     * Method responsible for reading a word of bit-packed cells, on the heap or off it.
+     *
+     * @param x height coordinate of the row.
+     * @param w index of the word in the row.
+     * @return the word, holding the cells w * 64 to w * 64 + 63 of the row.
+     */
+    public long getWord(int x, int w) {
+        if (rows != null) {
+            return rows[x][w];
+        }
+        return rowBuffers[x / rowsPerBuffer].get((x % rowsPerBuffer) * wordsPerRow + w);
+    }
+
+    /**
+     * Method responsible for writing a word of bit-packed cells, without marking the row as changed.
+     */
+    private void putWord(int x, int w, long word) {
+        if (rows != null) {
+            rows[x][w] = word;
+        } else {
+            rowBuffers[x / rowsPerBuffer].put((x % rowsPerBuffer) * wordsPerRow + w, word);
+        }
+    }
+
+    /**
+     * Method responsible for copying consecutive words of a row into an array - a bulk copy, on the heap or off it.
+     *
+     * @param x        height coordinate of the row.
+     * @param fromWord index of the first word in the row.
+     * @param words    array to copy the words into.
+     * @param offset   index in the array of the first word.
+     * @param length   number of words to copy.
+     */
+    public void readWords(int x, int fromWord, long[] words, int offset, int length) {
+        if (rows != null) {
+            System.arraycopy(rows[x], fromWord, words, offset, length);
+        } else {
+            rowBuffers[x / rowsPerBuffer].get((x % rowsPerBuffer) * wordsPerRow + fromWord, words, offset, length);
+        }
+    }
+
+    /**
+     * Method responsible for copying consecutive words of an array into a row - a bulk copy, on the heap or off it.
+     * Marks the row as changed.
+     *
+     * @param x        height coordinate of the row.
+     * @param fromWord index of the first word in the row.
+     * @param words    array to copy the words from.
+     * @param offset   index in the array of the first word.
+     * @param length   number of words to copy.
+     */
+    public void writeWords(int x, int fromWord, long[] words, int offset, int length) {
+        if (rows != null) {
+            System.arraycopy(words, offset, rows[x], fromWord, length);
+        } else {
+            rowBuffers[x / rowsPerBuffer].put((x % rowsPerBuffer) * wordsPerRow + fromWord, words, offset, length);
+        }
+        changedRows[x] = true;
+    }
+
+    /**
+     * Method responsible for setting every cell of the generation to RED.
+     */
+    public void clear() {
+        if (rows != null) {
+            for (long[] row : rows) {
+                Arrays.fill(row, 0);
+            }
+        } else {
+            for (LongBuffer rowBuffer : rowBuffers) {
+                for (int i = 0; i < rowBuffer.capacity(); i++) {
+                    rowBuffer.put(i, 0);
+                }
+            }
+        }
+        Arrays.fill(changedRows, true);
+    }
+
+    /**
+     * Method responsible for copying the cells of another generation with the same bounds into this one.
+     * The generations may use different storages.
+     *
+     * @param generation from which the cells will be copied.
+     */
+    public void copyFrom(Generation generation) {
+        if (rows != null && generation.rows != null) {
+            for (int i = 0; i < height; i++) {
+                System.arraycopy(generation.rows[i], 0, rows[i], 0, wordsPerRow);
+            }
+        } else if (rows != null) {
+            for (int i = 0; i < height; i++) {
+                generation.readWords(i, 0, rows[i], 0, wordsPerRow);
+            }
+        } else if (generation.rows != null) {
+            for (int i = 0; i < height; i++) {
+                writeWords(i, 0, generation.rows[i], 0, wordsPerRow);
+            }
+        } else {
+            for (int i = 0; i < rowBuffers.length; i++) {
+                rowBuffers[i].put(0, generation.rowBuffers[i], 0, rowBuffers[i].capacity());
+            }
+        }
+        Arrays.fill(changedRows, true);
+    }
+
+    /**
+     * Method responsible for the calculation of a hash of the cells of the generation.
+     * Used as a cheap pre-check before comparing two generations cell by cell.
+     * The hash doesn't depend on the storage of the generation.
+     *
+     * @return hash of the bit-packed grid.
+     */
+    public int getCellsHash() {
+        int cellsHash = 1;
+        if (rows != null) {
+            for (long[] row : rows) {
+                cellsHash = 31 * cellsHash + Arrays.hashCode(row);
+            }
+            return cellsHash;
+        }
+        int rowHash;
+        long word;
+        for (int i = 0; i < height; i++) {
+            rowHash = 1;
+            for (int w = 0; w < wordsPerRow; w++) {
+                word = getWord(i, w);
+                rowHash = 31 * rowHash + Long.hashCode(word); // The same hash as Arrays.hashCode() of the row.
+            }
+            cellsHash = 31 * cellsHash + rowHash;
+        }
+        return cellsHash;
+    }
+
+    /**
+     * Method responsible for comparing the cells of two generations.
+     *
+     * @param generation to compare with.
+     * @return True if both generations contain exactly the same cells or False if they don't.
+     */
+    public boolean hasSameCells(Generation generation) {
+        for (int i = 0; i < height; i++) {
+            if (!hasSameRow(i, generation)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Method responsible for comparing a row of two generations with the same bounds.
+     *
+     * @param x          height coordinate of the row.
+     * @param generation to compare with.
+     * @return True if the row contains exactly the same cells in both generations or False if it doesn't.
+     */
+    public boolean hasSameRow(int x, Generation generation) {
+        if (rows != null && generation.rows != null) {
+            return Arrays.equals(rows[x], generation.rows[x]);
+        }
+        for (int w = 0; w < wordsPerRow; w++) {
+            if (getWord(x, w) != generation.getWord(x, w)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Method responsible for checking where the cells of the generation are held.
+     *
+     * @return True if the grid is held off the heap, in direct buffers, or False if it is held in long arrays.
+     */
+    public boolean isOffHeap() {
+        return rows == null;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getWordsPerRow() {
+        return wordsPerRow;
+    }
+
+    /**
+     * Method responsible for checking whether a row differs from the same row of the generation this one was created from.
+     *
+     * @param x height coordinate of the row.
+     * @return True if the row changed or might have changed, False if a step kernel found it unchanged.
+     */
+    public boolean isRowChanged(int x) {
+        return changedRows[x];
+    }
+
+    /**
+     * Method responsible for marking whether a row differs from the same row of the generation this one was created from.
+     * Used by the step kernels, and by anyone who writes a row through getRow().
+     *
+     * @param x       height coordinate of the row.
+     * @param changed True if the row changed or False if it is the same as in the last generation.
+     */
+    public void setRowChanged(int x, boolean changed) {
+        changedRows[x] = changed;
+    }
+
+    /**
+     * Method responsible for the access to a whole row of bit-packed cells, for reading and writing.
+     * Writes through the returned array aren't tracked - rows written this way should be marked with setRowChanged().
+     * The rows of an off-heap generation have no arrays - use readWords() and writeWords() for them.
+     *
+     * @param x height coordinate of the row.
+     * @return words of the row, wordsPerRow long.
+     * @throws UnsupportedOperationException when the generation is off the heap.
+     */
+    public long[] getRow(int x) {
+        if (rows == null) {
+            throw new UnsupportedOperationException("The rows of an off-heap generation have no arrays!");
+        }
+        return rows[x];
     }
 }
@@ -1,51 +1,42 @@
 package model;
 
 /**
- * Class responsible to hold a single instance for the so called "Generation Zero".
+ * Class responsible to hold the so called "Generation Zero".
  * Used to begin the "GreenVsRed" game.
  * Holds the first generation of cells in a grid.
- * Implements Singleton Design Pattern.
+ * Every game owns its own instance, so many games can run concurrently in one JVM.
  *
  * @author - Viktor Kurtev
  */
 public final class GenerationZero {
 
-    /**
-     * Static GenerationZero variable that will be instanced one time only.
-     */
-    private static GenerationZero generationZero = null;
-
     /**
      * Variable that contains all the cells.
      */
-    private Cell[][] grid;
-
-    private GenerationZero() {
-    }
+    private Generation grid;
 
     /**
-     * Static method responsible for getting the only instance of GenerationZero.
+     * Method responsible for the assignment of boundaries to the grid.
      *
-     * @return new GenerationZero object at first call of the method or an already existing GenerationZero object after the first call.
+     * @param height - vertical boundary for the grid.
+     * @param width  - horizontal boundary for the grid.
      */
-    public static GenerationZero getInstance() {
-        if (generationZero == null) {
-            generationZero = new GenerationZero();
-        }
-        return generationZero;
+    public void initGrid(int height, int width) {
+        initGrid(height, width, false);
     }
 
     /**
-     * Method responsible for the assignment of boundaries to the grid.
+     * Method responsible for the assignment of boundaries to the grid, held on the heap or off it.
      *
-     * @param height - vertical boundary for the grid.
-     * @param width  - horizontal boundary for the grid.
+     * @param height  - vertical boundary for the grid.
+     * @param width   - horizontal boundary for the grid.
+     * @param offHeap - True to hold the grid off the heap, in direct buffers.
      */
-    public void initGrid(int height, int width) {
-        this.grid = new Cell[height][width];
+    public void initGrid(int height, int width, boolean offHeap) {
+        this.grid = offHeap ? Generation.allocateOffHeap(height, width) : new Generation(height, width);
     }
 
-    public Cell[][] getGrid() {
+    public Generation getGrid() {
         return grid;
     }
 
@@ -55,7 +46,7 @@ public final class GenerationZero {
      * @return height of the grid.
      */
     public int getGridHeight() {
-        return grid.length;
+        return grid.getHeight();
     }
 
     /**
@@ -64,7 +55,7 @@ public final class GenerationZero {
      * @return width of the grid.
      */
     public int getGridWidth() {
-        return grid[0].length;
+        return grid.getWidth();
     }
 
 }
@@ -0,0 +1,49 @@
+package model;
+
+/**
+ * Class responsible for storing a generation loaded from or written to a binary grid file, together with where it stands in a game.
+ *
+ * @author - Viktor Kurtev
+ */
+public final class GridSnapshot {
+    /**
+     * Variable containing the cells of the generation.
+     */
+    private final Generation generation;
+    /**
+     * Variable containing the index of the generation in its game, 0 for Generation Zero.
+     */
+    private final long generationIndex;
+    /**
+     * Variable containing the rule set with which the generation was created, as a mask of green neighbours counts for which a RED cell becomes GREEN.
+     */
+    private final int birthMask;
+    /**
+     * Variable containing the rule set with which the generation was created, as a mask of green neighbours counts for which a GREEN cell stays GREEN.
+     */
+    private final int surviveMask;
+
+    public GridSnapshot(Generation generation, long generationIndex, int birthMask, int surviveMask) {
+        this.generation = generation;
+        this.generationIndex = generationIndex;
+        this.birthMask = birthMask;
+        this.surviveMask = surviveMask;
+    }
+
+    public Generation getGeneration() {
+        return generation;
+    }
+
+    public long getGenerationIndex() {
+        return generationIndex;
+    }
+
+    public int getBirthMask() {
+        return birthMask;
+    }
+
+    public int getSurviveMask() {
+        return surviveMask;
+    }
+
+}
@@ -0,0 +1,110 @@
+package model;
+
+/**
+ * Class responsible for storing the rules that form the next generation as data, written "B36/S236" -
+ * a RED cell becomes GREEN with 3 or 6 green neighbours ( Birth ), a GREEN cell stays GREEN with 2, 3 or 6 green neighbours ( Survival ), every other cell is RED.
+ * The rules are compiled into a lookup table of 18 bits - bit greenNeighbours + 9 * cellState is set when the cell is GREEN in the next generation,
+ * so applying them is a shift and a mask, with no branches.
+ *
+ * @author - Viktor Kurtev
+ */
+public final class RuleSet {
+
+    /**
+     * Constant for the number of entries per cell state in the lookup table - 0 to 8 green neighbours.
+     */
+    public static final int COUNTS_PER_STATE = 9;
+
+    /**
+     * Constant for the rules of the "GreenVsRed" game.
+     */
+    public static final RuleSet GREEN_VS_RED = new RuleSet(1 << 3 | 1 << 6, 1 << 2 | 1 << 3 | 1 << 6);
+
+    /**
+     * Variable containing the mask of green neighbours counts for which a RED cell becomes GREEN.
+     */
+    private final int birthMask;
+    /**
+     * Variable containing the mask of green neighbours counts for which a GREEN cell stays GREEN.
+     */
+    private final int surviveMask;
+    /**
+     * Variable containing the lookup table - the birth mask followed by the survive mask.
+     */
+    private final int lookupTable;
+
+    /**
+     * @param birthMask   with bit k set if a RED cell with k green neighbours becomes GREEN.
+     * @param surviveMask with bit k set if a GREEN cell with k green neighbours stays GREEN.
+     * @throws IllegalArgumentException when a mask has bits past 8 green neighbours.
+     */
+    public RuleSet(int birthMask, int surviveMask) {
+        int countsMask = (1 << COUNTS_PER_STATE) - 1;
+        if ((birthMask & ~countsMask) != 0 || (surviveMask & ~countsMask) != 0) {
+            throw new IllegalArgumentException("The rule masks should only hold 0 to 8 green neighbours, got " + birthMask + "," + surviveMask + "!");
+        }
+        this.birthMask = birthMask;
+        this.surviveMask = surviveMask;
+        this.lookupTable = birthMask | surviveMask << COUNTS_PER_STATE;
+    }
+
+    /**
+     * Method responsible for the application of the rules to a single cell.
+     *
+     * @param greenNeighbours number of green neighbours of the cell, 0 to 8.
+     * @param cellState       1 for a GREEN cell or 0 for a RED cell.
+     * @return 1 if the cell is GREEN in the next generation or 0 if it is RED.
+     */
+    public int getNextCellState(int greenNeighbours, int cellState) {
+        return lookupTable >>> (greenNeighbours + COUNTS_PER_STATE * cellState) & 1;
+    }
+
+    public int getBirthMask() {
+        return birthMask;
+    }
+
+    public int getSurviveMask() {
+        return surviveMask;
+    }
+
+    public int getLookupTable() {
+        return lookupTable;
+    }
+
+    /**
+     * @return the rules in the "B36/S236" notation.
+     */
+    @Override
+    public String toString() {
+        StringBuilder rules = new StringBuilder("B");
+        appendCounts(rules, birthMask);
+        rules.append("/S");
+        appendCounts(rules, surviveMask);
+        return rules.toString();
+    }
+
+    private static void appendCounts(StringBuilder rules, int countsMask) {
+        for (int count = 0; count < COUNTS_PER_STATE; count++) {
+            if ((countsMask >>> count & 1) != 0) {
+                rules.append(count);
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RuleSet)) {
+            return false;
+        }
+        return lookupTable == ((RuleSet) o).lookupTable;
+    }
+
+    @Override
+    public int hashCode() {
+        return lookupTable;
+    }
+
+}
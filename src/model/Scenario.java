@@ -0,0 +1,41 @@
+package model;
+
+/**
+ * Class responsible for storing a single scenario of a batch - the Generation Zero to start from and the cell to be observed.
+ * Scenarios of the same seed share the same Generation Zero, which is never changed by the games.
+ *
+ * @author - Viktor Kurtev
+ */
+public final class Scenario {
+    /**
+     * Variable containing the index of the seed ( Generation Zero ) in the batch, starting from 0.
+     */
+    private final int seedIndex;
+    /**
+     * Variable containing the first generation of the game.
+     */
+    private final Generation generationZero;
+    /**
+     * Variable containing the cell to be observed and the number of generations.
+     */
+    private final ObservedCellInfo observedCellInfo;
+
+    public Scenario(int seedIndex, Generation generationZero, ObservedCellInfo observedCellInfo) {
+        this.seedIndex = seedIndex;
+        this.generationZero = generationZero;
+        this.observedCellInfo = observedCellInfo;
+    }
+
+    public int getSeedIndex() {
+        return seedIndex;
+    }
+
+    public Generation getGenerationZero() {
+        return generationZero;
+    }
+
+    public ObservedCellInfo getObservedCellInfo() {
+        return observedCellInfo;
+    }
+
+}
@@ -0,0 +1,96 @@
+import engine.enumeration.StepKernelEnum;
+import engine.impl.BatchGreenVsRed;
+import engine.impl.GreenVsRed;
+import model.Generation;
+import model.ObservedCellInfo;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class BatchGreenVsRedTest {
+    @Test
+    public void execute_ShouldWriteResultPerScenarioInOrder() throws Exception {
+        // Arrange
+        final String scenarios = "# seed 0\n"
+                + "3,3\n000\n111\n000\n"
+                + "1,0,10\n"
+                + "1,1,10\n"
+                + "\n"
+                + "4,4\n1001\n1111\n0100\n1010\n"
+                + "2,2,15\n";
+        final String expectedResults = "0,1,0,10,6\n0,1,1,10,11\n1,2,2,15,14\n";
+        Path scenariosFile = Files.createTempFile("scenarios", ".txt");
+        Files.writeString(scenariosFile, scenarios);
+        ByteArrayOutputStream results = new ByteArrayOutputStream();
+        BatchGreenVsRed batch = new BatchGreenVsRed(scenariosFile, new PrintStream(results, true, StandardCharsets.US_ASCII), StepKernelEnum.SCALAR, 2);
+        // Act
+        batch.execute();
+        Files.delete(scenariosFile);
+        // Assert
+        Assert.assertEquals(expectedResults, results.toString(StandardCharsets.US_ASCII).replace(System.lineSeparator(), "\n"));
+    }
+
+    @Test
+    public void execute_ShouldMatchSingleGamesWhenScenariosShareSeedAndN() throws Exception {
+        // Arrange
+        final byte[] cells = {
+                1, 0, 0, 1,
+                1, 1, 1, 1,
+                0, 1, 0, 0,
+                1, 0, 1, 0};
+        final long[][] observedCells = {{2, 2, 15}, {0, 3, 15}, {1, 1, 40}, {3, 0, 15}, {2, 2, 40}};
+        StringBuilder scenarios = new StringBuilder("4,4\n1001\n1111\n0100\n1010\n");
+        StringBuilder expectedResults = new StringBuilder();
+        for (long[] observedCell : observedCells) {
+            ObservedCellInfo observedCellInfo = new ObservedCellInfo((int) observedCell[0], (int) observedCell[1], observedCell[2]);
+            long greenCount = new GreenVsRed().simulate(Generation.of(4, 4, cells), observedCellInfo);
+            scenarios.append(observedCell[0]).append(',').append(observedCell[1]).append(',').append(observedCell[2]).append('\n');
+            expectedResults.append("0,").append(observedCell[0]).append(',').append(observedCell[1]).append(',').append(observedCell[2])
+                    .append(',').append(greenCount).append('\n');
+        }
+        Path scenariosFile = Files.createTempFile("scenarios", ".txt");
+        Files.writeString(scenariosFile, scenarios);
+        ByteArrayOutputStream results = new ByteArrayOutputStream();
+        BatchGreenVsRed batch = new BatchGreenVsRed(scenariosFile, new PrintStream(results, true, StandardCharsets.US_ASCII), StepKernelEnum.SWAR, 3);
+        // Act
+        batch.execute();
+        Files.delete(scenariosFile);
+        // Assert
+        Assert.assertEquals(expectedResults.toString(), results.toString(StandardCharsets.US_ASCII).replace(System.lineSeparator(), "\n"));
+    }
+
+    @Test
+    public void execute_ShouldWriteNoResultsAndReportLineWhenScenarioIsInvalid() throws Exception {
+        // Arrange
+        final String[] invalidScenarios = {
+                "3,3\n000\n111\n000\n1,0,10\n3,3\n000\n121\n000\n1,1,10\n",
+                "3,3\n000\n111\n000\n1,0,10\n3,3\n000\n111\n000\n3,1,10\n",
+                "3,3\n000\n111\n"};
+        final String[] expectedLines = {"line 8", "line 10", "line 3"};
+        PrintStream systemOut = System.out;
+        for (int i = 0; i < invalidScenarios.length; i++) {
+            Path scenariosFile = Files.createTempFile("scenarios", ".txt");
+            Files.writeString(scenariosFile, invalidScenarios[i]);
+            ByteArrayOutputStream results = new ByteArrayOutputStream();
+            ByteArrayOutputStream messages = new ByteArrayOutputStream();
+            BatchGreenVsRed batch = new BatchGreenVsRed(scenariosFile, new PrintStream(results, true, StandardCharsets.US_ASCII), StepKernelEnum.SCALAR, 2);
+            // Act
+            System.setOut(new PrintStream(messages, true, StandardCharsets.US_ASCII));
+            try {
+                batch.execute();
+            } finally {
+                System.setOut(systemOut);
+                Files.delete(scenariosFile);
+            }
+            // Assert
+            Assert.assertEquals(invalidScenarios[i], 0, results.size());
+            Assert.assertTrue(messages.toString(StandardCharsets.US_ASCII), messages.toString(StandardCharsets.US_ASCII).contains(expectedLines[i]));
+        }
+    }
+
+}
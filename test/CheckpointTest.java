@@ -0,0 +1,105 @@
+import engine.enumeration.StepKernelEnum;
+import engine.enumeration.StepModeEnum;
+import engine.impl.GreenVsRed;
+import exception.InvalidUserInputException;
+import model.Generation;
+import model.ObservedCellInfo;
+import model.RuleSet;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class CheckpointTest {
+    @Test
+    public void resume_ShouldReturnSameGreenCountsAsUninterruptedGame() throws Exception {
+        // Arrange
+        final long n = 300;
+        Random random = new Random(11);
+        byte[] cells = new byte[30 * 90];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = (byte) (random.nextInt(3) == 0 ? 1 : 0);
+        }
+        Generation generationZero = Generation.of(30, 90, cells);
+        List<ObservedCellInfo> observedCellsInfo = List.of(new ObservedCellInfo(0, 0, n), new ObservedCellInfo(15, 45, n), new ObservedCellInfo(29, 89, n));
+        long[] expectedGreenCounts = new GreenVsRed().simulate(generationZero, observedCellsInfo);
+        Path checkpointFile = Files.createTempFile("checkpoint", ".gvrc");
+        GreenVsRed checkpointedGreenVsRed = new GreenVsRed();
+        checkpointedGreenVsRed.enableCheckpoints(checkpointFile, 7);
+        checkpointedGreenVsRed.simulate(generationZero, observedCellsInfo);
+        // Act
+        long[] resultGreenCounts = new GreenVsRed().resume(checkpointFile);
+        Files.delete(checkpointFile);
+        // Assert
+        Assert.assertArrayEquals(expectedGreenCounts, resultGreenCounts);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void resume_ShouldThrowWhenCheckpointHasDifferentRules() throws Exception {
+        // Arrange
+        Path checkpointFile = createCheckpoint();
+        GreenVsRed conwayGreenVsRed = new GreenVsRed(StepModeEnum.SEQUENTIAL, StepKernelEnum.SCALAR, ForkJoinPool.commonPool(), new RuleSet(1 << 3, 1 << 2 | 1 << 3));
+        // Act
+        try {
+            conwayGreenVsRed.resume(checkpointFile);
+        } finally {
+            Files.delete(checkpointFile);
+        }
+    }
+
+    @Test
+    public void resume_ShouldThrowWhenCheckpointIsTruncatedOrCorrupt() throws Exception {
+        // Arrange
+        Path checkpointFile = createCheckpoint();
+        byte[] checkpoint = Files.readAllBytes(checkpointFile);
+        int checkpointSectionStart = checkpoint.length - Integer.BYTES * 2 - Long.BYTES - (Integer.BYTES * 2 + Long.BYTES) * 2;
+        byte[] corruptMagic = checkpoint.clone();
+        ByteBuffer.wrap(corruptMagic).order(ByteOrder.LITTLE_ENDIAN).putInt(checkpointSectionStart, 0);
+        byte[] corruptObservedCell = checkpoint.clone();
+        ByteBuffer.wrap(corruptObservedCell).order(ByteOrder.LITTLE_ENDIAN).putInt(checkpointSectionStart + Integer.BYTES * 2 + Long.BYTES, 1_000);
+        byte[][] invalidCheckpoints = {
+                new byte[0],
+                Arrays.copyOf(checkpoint, 20),
+                Arrays.copyOf(checkpoint, 100),
+                Arrays.copyOf(checkpoint, checkpointSectionStart),
+                Arrays.copyOf(checkpoint, checkpoint.length - 1),
+                corruptMagic,
+                corruptObservedCell};
+        for (int i = 0; i < invalidCheckpoints.length; i++) {
+            Files.write(checkpointFile, invalidCheckpoints[i]);
+            try {
+                // Act
+                new GreenVsRed().resume(checkpointFile);
+                Assert.fail("checkpoint " + i + " was resumed");
+            } catch (InvalidUserInputException e) {
+                // Assert
+                Assert.assertTrue(e.getMessage(), e.getMessage().startsWith("Invalid"));
+            }
+        }
+        Files.delete(checkpointFile);
+    }
+
+    /**
+     * Plays a game with two observed cells on a 10x70 grid, checkpointing it every 5 generations.
+     */
+    private static Path createCheckpoint() throws Exception {
+        Random random = new Random(3);
+        byte[] cells = new byte[10 * 70];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = (byte) (random.nextInt(3) == 0 ? 1 : 0);
+        }
+        Path checkpointFile = Files.createTempFile("checkpoint", ".gvrc");
+        GreenVsRed greenVsRed = new GreenVsRed();
+        greenVsRed.enableCheckpoints(checkpointFile, 5);
+        greenVsRed.simulate(Generation.of(10, 70, cells), List.of(new ObservedCellInfo(1, 2, 12), new ObservedCellInfo(9, 69, 12)));
+        return checkpointFile;
+    }
+
+}
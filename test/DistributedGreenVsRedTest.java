@@ -0,0 +1,101 @@
+import engine.distributed.DistributedGreenVsRed;
+import engine.enumeration.StepKernelEnum;
+import engine.enumeration.StepModeEnum;
+import engine.impl.GreenVsRed;
+import engine.service.GridFileService;
+import model.Generation;
+import model.GridSnapshot;
+import model.ObservedCellInfo;
+import model.RuleSet;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+public class DistributedGreenVsRedTest {
+
+    @Test
+    public void simulate_ShouldMatchGreenVsRedForAnyNumberOfStrips() {
+        // Arrange
+        GreenVsRed greenVsRed = new GreenVsRed(StepModeEnum.SEQUENTIAL, StepKernelEnum.SWAR);
+        int[][] boundsAndWorkers = {{1, 9, 3}, {5, 70, 2}, {37, 130, 4}, {100, 64, 7}, {23, 23, 23}};
+        for (int[] boundAndWorkers : boundsAndWorkers) {
+            int height = boundAndWorkers[0];
+            int width = boundAndWorkers[1];
+            Generation generationZero = GenerationFixtures.createRandomGeneration(height, width, height * 31L + width);
+            List<ObservedCellInfo> observedCellsInfo = new ArrayList<>();
+            for (int i = 0; i < height; i += 3) {
+                observedCellsInfo.add(new ObservedCellInfo(i, (i * 7) % width, 203));
+            }
+            DistributedGreenVsRed distributedGreenVsRed = new DistributedGreenVsRed(
+                    null, List.of(), System.out, boundAndWorkers[2], false, RuleSet.GREEN_VS_RED);
+            // Act
+            long[] expectedGreenCounts = greenVsRed.simulate(generationZero, observedCellsInfo);
+            long[] resultGreenCounts = distributedGreenVsRed.simulate(generationZero, observedCellsInfo);
+            // Assert
+            Assert.assertArrayEquals(height + "," + width, expectedGreenCounts, resultGreenCounts);
+        }
+    }
+
+    @Test
+    public void execute_ShouldMatchGreenVsRedWithWorkerProcesses() throws Exception {
+        // Arrange
+        Generation generationZero = GenerationFixtures.createRandomGeneration(60, 200, 13);
+        List<ObservedCellInfo> observedCellsInfo = List.of(
+                new ObservedCellInfo(0, 0, 1_000), new ObservedCellInfo(19, 100, 1_000),
+                new ObservedCellInfo(20, 100, 1_000), new ObservedCellInfo(59, 199, 1_000));
+        Path gridFile = Files.createTempFile("gvr", ".grid");
+        ByteArrayOutputStream results = new ByteArrayOutputStream();
+        try {
+            new GridFileService().writeGrid(gridFile, new GridSnapshot(generationZero, 0,
+                    RuleSet.GREEN_VS_RED.getBirthMask(), RuleSet.GREEN_VS_RED.getSurviveMask()));
+            DistributedGreenVsRed distributedGreenVsRed = new DistributedGreenVsRed(gridFile, observedCellsInfo,
+                    new PrintStream(results, true, StandardCharsets.US_ASCII), 3, true, RuleSet.GREEN_VS_RED);
+            // Act
+            distributedGreenVsRed.execute();
+        } finally {
+            Files.deleteIfExists(gridFile);
+        }
+        // Assert
+        long[] expectedGreenCounts = new GreenVsRed(StepModeEnum.SEQUENTIAL, StepKernelEnum.SWAR).simulate(generationZero, observedCellsInfo);
+        StringBuilder expectedResults = new StringBuilder();
+        for (int i = 0; i < observedCellsInfo.size(); i++) {
+            ObservedCellInfo observedCellInfo = observedCellsInfo.get(i);
+            expectedResults.append(observedCellInfo.getX()).append(',').append(observedCellInfo.getY()).append(',')
+                    .append(observedCellInfo.getN()).append(',').append(expectedGreenCounts[i]).append(System.lineSeparator());
+        }
+        Assert.assertEquals(expectedResults.toString(), results.toString(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void simulate_ShouldFailWhenWorkersDoNotAnswerInTime() {
+        // Arrange
+        Generation generationZero = GenerationFixtures.createRandomGeneration(512, 512, 17);
+        List<ObservedCellInfo> observedCellsInfo = List.of(new ObservedCellInfo(0, 0, 1_000_000_000L));
+        DistributedGreenVsRed distributedGreenVsRed = new DistributedGreenVsRed(
+                null, List.of(), System.out, 2, false, RuleSet.GREEN_VS_RED, 1);
+        long startNanos = System.nanoTime();
+        try {
+            // Act
+            distributedGreenVsRed.simulate(generationZero, observedCellsInfo);
+            Assert.fail("the workers answered within 1 ms");
+        } catch (UncheckedIOException e) {
+            // Assert
+            Assert.assertTrue(e.getCause() instanceof SocketTimeoutException);
+            Assert.assertTrue(System.nanoTime() - startNanos < TimeUnit.SECONDS.toNanos(30));
+            // The worker threads are cancelled and joined, not left playing the rest of the N generations.
+            Assert.assertTrue(Thread.getAllStackTraces().keySet().stream()
+                    .noneMatch(thread -> thread.getName().equals("gvr-strip-worker") && thread.isAlive()));
+        }
+    }
+}
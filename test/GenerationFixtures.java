@@ -0,0 +1,31 @@
+import model.Generation;
+
+import java.util.Random;
+
+/**
+ * Class responsible for the generations shared by the tests.
+ */
+final class GenerationFixtures {
+
+    private GenerationFixtures() {
+    }
+
+    /**
+     * Static method responsible for the creation of a heap generation of random cells - the same cells for the same seed.
+     *
+     * @param height of the grid.
+     * @param width  of the grid.
+     * @param seed   of the random cells.
+     * @return new Generation with every cell GREEN or RED at random.
+     */
+    static Generation createRandomGeneration(int height, int width, long seed) {
+        Random random = new Random(seed);
+        Generation generation = new Generation(height, width);
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                generation.setGreen(i, j, random.nextBoolean());
+            }
+        }
+        return generation;
+    }
+}
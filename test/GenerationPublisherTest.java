@@ -0,0 +1,249 @@
+import engine.cache.ResultCache;
+import engine.enumeration.StepKernelEnum;
+import engine.enumeration.StepModeEnum;
+import engine.enumeration.StreamModeEnum;
+import engine.impl.GreenVsRed;
+import engine.metrics.SimulationMetrics;
+import engine.stream.GenerationFrame;
+import engine.stream.GenerationPublisher;
+import model.Generation;
+import model.ObservedCellInfo;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+public class GenerationPublisherTest {
+
+    @Test
+    public void onGeneration_ShouldStreamEveryGenerationAsDiffsFromPooledFrames() throws Exception {
+        // Arrange
+        int height = 40;
+        int width = 150;
+        long n = 300;
+        Generation generationZero = GenerationFixtures.createRandomGeneration(height, width, 3);
+        GenerationPublisher generationPublisher = new GenerationPublisher(StreamModeEnum.DIFFS, 4, false);
+        GreenVsRed greenVsRed = new GreenVsRed(StepModeEnum.SEQUENTIAL, StepKernelEnum.TILED);
+        greenVsRed.enableGenerationStream(generationPublisher);
+        RecordingSubscriber subscriber = new RecordingSubscriber(height, width, 1);
+        generationPublisher.subscribe(subscriber);
+        // Act
+        long[] greenCounts = greenVsRed.simulate(generationZero, List.of(new ObservedCellInfo(0, 0, n), new ObservedCellInfo(20, 77, n)));
+        generationPublisher.close();
+        // Assert
+        Assert.assertTrue(subscriber.completed.await(10, TimeUnit.SECONDS));
+        Assert.assertNull(subscriber.error);
+        Assert.assertEquals(n + 1, subscriber.generationIndexes.size());
+        for (int i = 0; i <= n; i++) {
+            Assert.assertEquals(i, (long) subscriber.generationIndexes.get(i));
+        }
+        Assert.assertEquals(greenCounts[0], subscriber.greenCounts[0]);
+        Assert.assertEquals(greenCounts[1], subscriber.greenCounts[1]);
+        Assert.assertEquals(1, subscriber.keyFramesCount);
+        Assert.assertTrue(subscriber.frames.size() <= 4);
+        Assert.assertEquals(0, generationPublisher.getDroppedFramesCount());
+    }
+
+    @Test
+    public void onGeneration_ShouldDropGenerationsWithoutDemandWhenFramesAreDropped() throws Exception {
+        // Arrange
+        long n = 1_000;
+        Generation generationZero = GenerationFixtures.createRandomGeneration(30, 30, 5);
+        GenerationPublisher generationPublisher = new GenerationPublisher(StreamModeEnum.GENERATIONS, 2, true);
+        GreenVsRed greenVsRed = new GreenVsRed(StepModeEnum.HASHLIFE);
+        greenVsRed.enableGenerationStream(generationPublisher);
+        RecordingSubscriber subscriber = new RecordingSubscriber(30, 30, 0); // Requests nothing, so at most the pool is published.
+        generationPublisher.subscribe(subscriber);
+        // Act
+        greenVsRed.simulate(generationZero, new ObservedCellInfo(0, 0, n));
+        // Assert
+        Assert.assertEquals(n + 1, generationPublisher.getPublishedFramesCount() + generationPublisher.getDroppedFramesCount());
+        Assert.assertTrue(generationPublisher.getPublishedFramesCount() <= 2);
+        Assert.assertTrue(subscriber.generationIndexes.isEmpty());
+    }
+
+    @Test
+    public void subscribe_ShouldStartWithKeyFrameWhenResubscribedDuringDiffsGame() throws Exception {
+        // Arrange
+        int height = 40;
+        int width = 150;
+        long n = 300;
+        Generation generationZero = GenerationFixtures.createRandomGeneration(height, width, 3);
+        List<ObservedCellInfo> observedCellsInfo = List.of(new ObservedCellInfo(0, 0, n));
+        GenerationPublisher referencePublisher = new GenerationPublisher(StreamModeEnum.DIFFS);
+        GreenVsRed referenceGreenVsRed = new GreenVsRed(StepModeEnum.SEQUENTIAL, StepKernelEnum.SWAR);
+        referenceGreenVsRed.enableGenerationStream(referencePublisher);
+        RecordingSubscriber referenceSubscriber = new RecordingSubscriber(height, width, 1);
+        referencePublisher.subscribe(referenceSubscriber);
+        referenceGreenVsRed.simulate(generationZero, observedCellsInfo);
+        referencePublisher.close();
+        Assert.assertTrue(referenceSubscriber.completed.await(10, TimeUnit.SECONDS));
+        GenerationPublisher generationPublisher = new GenerationPublisher(StreamModeEnum.DIFFS, 4, false);
+        GreenVsRed greenVsRed = new GreenVsRed(StepModeEnum.SEQUENTIAL, StepKernelEnum.SWAR);
+        greenVsRed.enableGenerationStream(generationPublisher);
+        RecordingSubscriber secondSubscriber = new RecordingSubscriber(height, width, 1);
+        RecordingSubscriber firstSubscriber = new RecordingSubscriber(height, width, 1, 50, () -> generationPublisher.subscribe(secondSubscriber));
+        generationPublisher.subscribe(firstSubscriber);
+        // Act
+        greenVsRed.simulate(generationZero, observedCellsInfo);
+        generationPublisher.close();
+        // Assert
+        Assert.assertTrue(secondSubscriber.completed.await(10, TimeUnit.SECONDS));
+        Assert.assertNull(secondSubscriber.error);
+        Assert.assertEquals(50, firstSubscriber.generationIndexes.size());
+        Assert.assertEquals(1, secondSubscriber.keyFramesCount);
+        Assert.assertFalse(secondSubscriber.generationIndexes.isEmpty());
+        Assert.assertEquals(n, (long) secondSubscriber.generationIndexes.get(secondSubscriber.generationIndexes.size() - 1));
+        for (int i = 0; i < secondSubscriber.generationIndexes.size(); i++) {
+            long generationIndex = secondSubscriber.generationIndexes.get(i);
+            Assert.assertEquals("generation " + generationIndex,
+                    referenceSubscriber.cellsHashes.get((int) generationIndex), secondSubscriber.cellsHashes.get(i));
+        }
+    }
+
+    @Test(timeout = 30_000)
+    public void onNext_ShouldReturnFrameToPoolWhenSubscriberThrows() throws Exception {
+        // Arrange
+        long n = 100;
+        Generation generationZero = GenerationFixtures.createRandomGeneration(40, 150, 5);
+        GenerationPublisher generationPublisher = new GenerationPublisher(StreamModeEnum.DIFFS, 1, false);
+        GreenVsRed greenVsRed = new GreenVsRed(StepModeEnum.SEQUENTIAL, StepKernelEnum.SWAR);
+        greenVsRed.enableGenerationStream(generationPublisher);
+        CountDownLatch thrown = new CountDownLatch(1);
+        generationPublisher.subscribe(new Flow.Subscriber<GenerationFrame>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(GenerationFrame frame) {
+                thrown.countDown();
+                throw new IllegalStateException("The subscriber failed without releasing the frame!");
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        greenVsRed.simulate(generationZero, new ObservedCellInfo(0, 0, n));
+        Assert.assertTrue(thrown.await(10, TimeUnit.SECONDS));
+        RecordingSubscriber subscriber = new RecordingSubscriber(40, 150, 1);
+        generationPublisher.subscribe(subscriber);
+        // Act
+        greenVsRed.simulate(generationZero, new ObservedCellInfo(0, 0, n));
+        generationPublisher.close();
+        // Assert
+        Assert.assertTrue(subscriber.completed.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(n + 1, subscriber.generationIndexes.size());
+    }
+
+    @Test
+    public void simulate_ShouldFastForwardAndCacheWithoutSubscriber() {
+        // Arrange
+        long n = 1_000_000;
+        Generation generationZero = new Generation(20, 20);
+        generationZero.setGreen(10, 9, true); // A horizontal line of three green cells, which repeats every 2 generations.
+        generationZero.setGreen(10, 10, true);
+        generationZero.setGreen(10, 11, true);
+        GreenVsRed greenVsRed = new GreenVsRed(StepModeEnum.SEQUENTIAL, StepKernelEnum.TILED);
+        SimulationMetrics metrics = new SimulationMetrics();
+        greenVsRed.enableMetrics(metrics);
+        greenVsRed.enableResultCache(new ResultCache());
+        GenerationPublisher generationPublisher = new GenerationPublisher(StreamModeEnum.DIFFS);
+        greenVsRed.enableGenerationStream(generationPublisher);
+        // Act
+        long greenCount = greenVsRed.simulate(generationZero, new ObservedCellInfo(10, 10, n));
+        long createdGenerations = metrics.getTotalCreatedGenerations();
+        long cachedGreenCount = greenVsRed.simulate(generationZero, new ObservedCellInfo(10, 10, n));
+        // Assert
+        Assert.assertEquals(n + 1, greenCount);
+        Assert.assertEquals(greenCount, cachedGreenCount);
+        Assert.assertTrue(createdGenerations < 100);
+        Assert.assertEquals(createdGenerations, metrics.getTotalCreatedGenerations());
+        Assert.assertEquals(0, generationPublisher.getPublishedFramesCount() + generationPublisher.getDroppedFramesCount());
+    }
+
+    /**
+     * Subscriber that recreates every streamed generation, counting the cells observed by the tests, and requests a frame at a time.
+     */
+    private static final class RecordingSubscriber implements Flow.Subscriber<GenerationFrame> {
+
+        private final Generation generation;
+        private final long initialRequest;
+        private final long cancelAfterFrames;
+        private final Runnable onCancel;
+        private final List<Long> generationIndexes = Collections.synchronizedList(new ArrayList<>());
+        private final List<Integer> cellsHashes = Collections.synchronizedList(new ArrayList<>());
+        private final Set<GenerationFrame> frames = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final long[] greenCounts = new long[2];
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private Flow.Subscription subscription;
+        private int keyFramesCount;
+        private volatile Throwable error;
+
+        private RecordingSubscriber(int height, int width, long initialRequest) {
+            this(height, width, initialRequest, Long.MAX_VALUE, null);
+        }
+
+        /**
+         * @param cancelAfterFrames number of frames after which the subscriber cancels its subscription.
+         * @param onCancel          run once the subscription is cancelled.
+         */
+        private RecordingSubscriber(int height, int width, long initialRequest, long cancelAfterFrames, Runnable onCancel) {
+            this.generation = new Generation(height, width);
+            this.initialRequest = initialRequest;
+            this.cancelAfterFrames = cancelAfterFrames;
+            this.onCancel = onCancel;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (initialRequest > 0) {
+                subscription.request(initialRequest);
+            }
+        }
+
+        @Override
+        public void onNext(GenerationFrame frame) {
+            frames.add(frame);
+            frame.applyTo(generation);
+            generationIndexes.add(frame.getGenerationIndex());
+            cellsHashes.add(generation.getCellsHash());
+            keyFramesCount += frame.isKeyFrame() ? 1 : 0;
+            greenCounts[0] += generation.isGreen(0, 0) ? 1 : 0;
+            greenCounts[1] += generation.isGreen(20, 77) ? 1 : 0;
+            frame.release();
+            if (generationIndexes.size() == cancelAfterFrames) {
+                subscription.cancel();
+                onCancel.run();
+                return;
+            }
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            completed.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+    }
+}
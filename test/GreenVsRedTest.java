@@ -1,8 +1,19 @@
 import engine.enumeration.CellTypeEnum;
+import engine.enumeration.StepKernelEnum;
+import engine.enumeration.StepModeEnum;
 import engine.impl.GreenVsRed;
+import model.Generation;
+import model.ObservedCellInfo;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 public class GreenVsRedTest {
     @Test
     public void executeNextGenerationRules_ShouldReturnSameTypeWhenNeighboursAreTwo() {
@@ -42,4 +53,150 @@ public class GreenVsRedTest {
         Assert.assertEquals(expectedCellType, resultCellType);
     }
 
+    @Test
+    public void simulate_ShouldReturnGreenCountWithoutUserInput() {
+        // Arrange
+        final byte[] cells = {
+                1, 0, 0, 1,
+                1, 1, 1, 1,
+                0, 1, 0, 0,
+                1, 0, 1, 0};
+        final ObservedCellInfo observedCellInfo = new ObservedCellInfo(2, 2, 15);
+        final long expectedGreenCount = 14;
+        GreenVsRed greenVsRed = new GreenVsRed();
+        // Act
+        long resultGreenCount = greenVsRed.simulate(Generation.of(4, 4, cells), observedCellInfo);
+        // Assert
+        Assert.assertEquals(expectedGreenCount, resultGreenCount);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void simulate_ShouldThrowWhenObservedCellIsOutOfBounds() {
+        // Arrange
+        final ObservedCellInfo observedCellInfo = new ObservedCellInfo(3, 0, 1);
+        GreenVsRed greenVsRed = new GreenVsRed();
+        // Act
+        greenVsRed.simulate(Generation.of(3, 3, new byte[9]), observedCellInfo);
+    }
+
+    @Test
+    public void simulate_ShouldReturnSameResultsWhenGamesRunConcurrently() throws Exception {
+        // Arrange
+        final int games = 16;
+        final ObservedCellInfo observedCellInfo = new ObservedCellInfo(20, 30, 500);
+        List<Generation> generationsZero = new ArrayList<>();
+        long[] expectedGreenCounts = new long[games];
+        for (int i = 0; i < games; i++) {
+            Random random = new Random(i);
+            byte[] cells = new byte[40 * 60];
+            for (int j = 0; j < cells.length; j++) {
+                cells[j] = (byte) (random.nextInt(3) == 0 ? 1 : 0);
+            }
+            generationsZero.add(Generation.of(40, 60, cells));
+            expectedGreenCounts[i] = new GreenVsRed().simulate(generationsZero.get(i), observedCellInfo);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        // Act
+        List<Future<Long>> resultGreenCounts = new ArrayList<>();
+        for (Generation generationZero : generationsZero) {
+            resultGreenCounts.add(executor.submit(() -> new GreenVsRed().simulate(generationZero, observedCellInfo)));
+        }
+        // Assert
+        for (int i = 0; i < games; i++) {
+            Assert.assertEquals(expectedGreenCounts[i], (long) resultGreenCounts.get(i).get());
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    public void simulateHeatmap_ShouldMatchSimulateForEveryCell() {
+        // Arrange
+        final int height = 8;
+        final int width = 70;
+        final long n = 200;
+        Random random = new Random(7);
+        byte[] cells = new byte[height * width];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = (byte) (random.nextInt(3) == 0 ? 1 : 0);
+        }
+        Generation generationZero = Generation.of(height, width, cells);
+        List<ObservedCellInfo> observedCellsInfo = new ArrayList<>();
+        long[] expectedGreenCounts = new long[height * width];
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                observedCellsInfo.add(new ObservedCellInfo(i, j, n));
+                expectedGreenCounts[i * width + j] = new GreenVsRed().simulate(generationZero, new ObservedCellInfo(i, j, n));
+            }
+        }
+        GreenVsRed greenVsRed = new GreenVsRed();
+        // Act
+        long[] resultHeatmap = greenVsRed.simulateHeatmap(generationZero, n);
+        long[] resultGreenCounts = greenVsRed.simulate(generationZero, observedCellsInfo);
+        // Assert
+        Assert.assertArrayEquals(expectedGreenCounts, resultHeatmap);
+        Assert.assertArrayEquals(expectedGreenCounts, resultGreenCounts);
+    }
+
+    @Test
+    public void simulate_ShouldMatchBruteForceForRandomSeedsAndKernelsOnReusedInstances() {
+        // Arrange
+        final int[][] gridSizes = {{6, 6}, {12, 70}, {20, 130}, {12, 70}};
+        final long[] ns = {5_000, 1_500, 400, 1_500}; // The small grids enter a cycle long before N, so the fast-forward is compared.
+        for (StepModeEnum stepMode : new StepModeEnum[]{StepModeEnum.SEQUENTIAL, StepModeEnum.PARALLEL}) {
+            for (StepKernelEnum stepKernel : StepKernelEnum.values()) {
+                GreenVsRed greenVsRed = new GreenVsRed(stepMode, stepKernel); // A single instance, so the generation buffers are reused.
+                for (int game = 0; game < gridSizes.length * 2; game++) {
+                    int height = gridSizes[game % gridSizes.length][0];
+                    int width = gridSizes[game % gridSizes.length][1];
+                    long n = ns[game % ns.length];
+                    Random random = new Random(game % gridSizes.length); // The second round repeats the games of the first one.
+                    byte[] cells = new byte[height * width];
+                    for (int i = 0; i < cells.length; i++) {
+                        cells[i] = (byte) (random.nextInt(3) == 0 ? 1 : 0);
+                    }
+                    ObservedCellInfo observedCellInfo = new ObservedCellInfo(height / 2, width - 1, n);
+                    // Act
+                    long resultGreenCount = greenVsRed.simulate(Generation.of(height, width, cells), observedCellInfo);
+                    // Assert
+                    Assert.assertEquals(stepMode + " " + stepKernel + " game " + game,
+                            simulateBruteForce(cells, height, width, observedCellInfo), resultGreenCount);
+                }
+            }
+        }
+    }
+
+    /**
+     * Plays every one of the N generations cell by cell, with the default rules - B36/S236.
+     */
+    private static long simulateBruteForce(byte[] cells, int height, int width, ObservedCellInfo observedCellInfo) {
+        byte[] currentCells = cells.clone();
+        byte[] nextCells = new byte[cells.length];
+        long greenCount = currentCells[observedCellInfo.getX() * width + observedCellInfo.getY()];
+        for (long generation = 1; generation <= observedCellInfo.getN(); generation++) {
+            for (int i = 0; i < height; i++) {
+                for (int j = 0; j < width; j++) {
+                    int greenNeighbours = 0;
+                    for (int di = -1; di <= 1; di++) {
+                        for (int dj = -1; dj <= 1; dj++) {
+                            int ni = i + di;
+                            int nj = j + dj;
+                            if ((di != 0 || dj != 0) && ni >= 0 && ni < height && nj >= 0 && nj < width) {
+                                greenNeighbours += currentCells[ni * width + nj];
+                            }
+                        }
+                    }
+                    boolean green = currentCells[i * width + j] == 1
+                            ? greenNeighbours == 2 || greenNeighbours == 3 || greenNeighbours == 6
+                            : greenNeighbours == 3 || greenNeighbours == 6;
+                    nextCells[i * width + j] = (byte) (green ? 1 : 0);
+                }
+            }
+            byte[] swappedCells = currentCells;
+            currentCells = nextCells;
+            nextCells = swappedCells;
+            greenCount += currentCells[observedCellInfo.getX() * width + observedCellInfo.getY()];
+        }
+        return greenCount;
+    }
+
 }
@@ -0,0 +1,48 @@
+import engine.impl.GreenVsRed;
+import engine.service.GridFileService;
+import exception.InvalidUserInputException;
+import model.Generation;
+import model.GridSnapshot;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class GridFileServiceTest {
+    @Test
+    public void loadGrid_ShouldReturnWrittenSnapshot() throws Exception {
+        // Arrange
+        Generation generation = GenerationFixtures.createRandomGeneration(37, 130, 3);
+        GreenVsRed rules = new GreenVsRed();
+        GridSnapshot snapshot = new GridSnapshot(generation, 123_456_789_012L, rules.getRuleSet().getBirthMask(), rules.getRuleSet().getSurviveMask());
+        Path gridFile = Files.createTempFile("grid", ".gvrg");
+        GridFileService gridFileService = new GridFileService();
+        // Act
+        gridFileService.writeGrid(gridFile, snapshot);
+        GridSnapshot resultSnapshot = gridFileService.loadGrid(gridFile);
+        Files.delete(gridFile);
+        // Assert
+        Assert.assertEquals(32 + 37 * 3 * 8, GridFileService.getFileSize(37, 130));
+        Assert.assertTrue(resultSnapshot.getGeneration().isOffHeap()); // Held by the mapped rows, not copied into the heap.
+        Assert.assertTrue(generation.hasSameCells(resultSnapshot.getGeneration()));
+        Assert.assertEquals(snapshot.getGenerationIndex(), resultSnapshot.getGenerationIndex());
+        Assert.assertEquals(0b1001000, resultSnapshot.getBirthMask()); // B36
+        Assert.assertEquals(0b1001100, resultSnapshot.getSurviveMask()); // S236
+    }
+
+    @Test(expected = InvalidUserInputException.class)
+    public void loadGrid_ShouldThrowWhenFileIsNotAGridFile() throws Exception {
+        // Arrange
+        Path gridFile = Files.createTempFile("grid", ".gvrg");
+        Files.writeString(gridFile, "3,3\n000\n111\n000\n".repeat(4));
+        GridFileService gridFileService = new GridFileService();
+        // Act
+        try {
+            gridFileService.loadGrid(gridFile);
+        } finally {
+            Files.delete(gridFile);
+        }
+    }
+
+}
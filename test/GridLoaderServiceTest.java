@@ -0,0 +1,82 @@
+import engine.service.GridLoaderService;
+import engine.service.ValidatorService;
+import exception.InvalidUserInputException;
+import model.Generation;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+public class GridLoaderServiceTest {
+    @Test
+    public void loadGrid_ShouldDecodeRowsWithAnyLineEnding() throws Exception {
+        // Arrange
+        final String gridInput = "4,70\r\n"
+                + "1".repeat(70) + "\r\n"
+                + "0".repeat(69) + "1\n"
+                + "10".repeat(35) + "\n"
+                + "0".repeat(70);
+        byte[] cells = new byte[4 * 70];
+        for (int j = 0; j < 70; j++) {
+            cells[j] = 1;
+            cells[2 * 70 + j] = (byte) (j % 2 == 0 ? 1 : 0);
+        }
+        cells[70 + 69] = 1;
+        Generation expectedGrid = Generation.of(4, 70, cells);
+        GridLoaderService gridLoaderService = new GridLoaderService();
+        // Act
+        Generation resultGrid = gridLoaderService.loadGrid(new ByteArrayInputStream(gridInput.getBytes(StandardCharsets.US_ASCII)));
+        // Assert
+        Assert.assertTrue(expectedGrid.hasSameCells(resultGrid));
+    }
+
+    @Test
+    public void loadGrid_ShouldStreamRowsLongerThanTheBufferIntoAnOffHeapGrid() throws Exception {
+        // Arrange
+        final int width = 150_000;
+        Generation expectedGrid = GenerationFixtures.createRandomGeneration(3, width, 7);
+        StringBuilder gridInput = new StringBuilder("3,").append(width).append("\r\n");
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < width; j++) {
+                gridInput.append(expectedGrid.isGreen(i, j) ? '1' : '0');
+            }
+            gridInput.append(i == 0 ? "\r\n" : "\n");
+        }
+        // Every read returns at most 1000 bytes, so the lines and their \r\n endings are split across reads.
+        InputStream slowInput = new FilterInputStream(new ByteArrayInputStream(gridInput.toString().getBytes(StandardCharsets.US_ASCII))) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return super.read(b, off, Math.min(len, 1000));
+            }
+        };
+        GridLoaderService gridLoaderService = new GridLoaderService(new ValidatorService(10, width));
+        // Act
+        Generation resultGrid = gridLoaderService.loadGrid(slowInput, true);
+        // Assert
+        Assert.assertTrue(resultGrid.isOffHeap());
+        Assert.assertTrue(expectedGrid.hasSameCells(resultGrid));
+    }
+
+    @Test(expected = InvalidUserInputException.class)
+    public void loadGrid_ShouldThrowWhenStreamHasInputAfterTheLastRow() throws Exception {
+        // Arrange
+        final String gridInput = "2,3\n010\n011\n\n1,1\n";
+        GridLoaderService gridLoaderService = new GridLoaderService();
+        // Act
+        gridLoaderService.loadGrid(new ByteArrayInputStream(gridInput.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    @Test(expected = InvalidUserInputException.class)
+    public void loadGrid_ShouldThrowWhenCellValueIsInvalid() throws Exception {
+        // Arrange
+        final String gridInput = "2,3\n010\n021\n";
+        GridLoaderService gridLoaderService = new GridLoaderService();
+        // Act
+        gridLoaderService.loadGrid(gridInput.getBytes(StandardCharsets.US_ASCII));
+    }
+
+}
@@ -0,0 +1,133 @@
+import engine.IStepKernel;
+import engine.enumeration.StepKernelEnum;
+import engine.enumeration.StepModeEnum;
+import engine.impl.GreenVsRed;
+import engine.impl.HashLifeUniverse;
+import engine.impl.SwarStepKernel;
+import model.Generation;
+import model.ObservedCellInfo;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class HashLifeTest {
+
+    @Test
+    public void simulate_ShouldMatchSequentialModeForGridsOfAnyBounds() {
+        // Arrange
+        GreenVsRed sequentialGreenVsRed = new GreenVsRed(StepModeEnum.SEQUENTIAL, StepKernelEnum.SWAR);
+        GreenVsRed hashLifeGreenVsRed = new GreenVsRed(StepModeEnum.HASHLIFE);
+        int[][] bounds = {{1, 1}, {1, 9}, {3, 3}, {5, 64}, {17, 40}, {33, 33}};
+        for (int[] bound : bounds) {
+            Generation generationZero = GenerationFixtures.createRandomGeneration(bound[0], bound[1], bound[0] * 31L + bound[1]);
+            List<ObservedCellInfo> observedCellsInfo = new ArrayList<>();
+            for (int i = 0; i < bound[0]; i += 2) {
+                observedCellsInfo.add(new ObservedCellInfo(i, bound[1] - 1 - i % bound[1], 500));
+            }
+            // Act
+            long[] expectedGreenCounts = sequentialGreenVsRed.simulate(generationZero, observedCellsInfo);
+            long[] resultGreenCounts = hashLifeGreenVsRed.simulate(generationZero, observedCellsInfo);
+            long[] expectedHeatmap = sequentialGreenVsRed.simulateHeatmap(generationZero, 100);
+            long[] resultHeatmap = hashLifeGreenVsRed.simulateHeatmap(generationZero, 100);
+            // Assert
+            Assert.assertArrayEquals(bound[0] + "," + bound[1], expectedGreenCounts, resultGreenCounts);
+            Assert.assertArrayEquals(bound[0] + "," + bound[1], expectedHeatmap, resultHeatmap);
+        }
+    }
+
+    @Test
+    public void createNextGeneration_ShouldMatchKernelWhenNodeTableIsRebuilt() {
+        // Arrange
+        Generation generationZero = GenerationFixtures.createRandomGeneration(40, 70, 3);
+        IStepKernel stepKernel = new SwarStepKernel(new GreenVsRed());
+        HashLifeUniverse hashLifeUniverse = new HashLifeUniverse(new GreenVsRed(), 64);
+        Generation currentGeneration = new Generation(40, 70);
+        currentGeneration.copyFrom(generationZero);
+        Generation nextGeneration = new Generation(40, 70);
+        Generation resultGeneration = new Generation(40, 70);
+        hashLifeUniverse.load(generationZero);
+        for (int i = 0; i < 60; i++) {
+            // Act
+            stepKernel.createNewCells(currentGeneration, nextGeneration, 0, 40);
+            Generation swappedGeneration = currentGeneration;
+            currentGeneration = nextGeneration;
+            nextGeneration = swappedGeneration;
+            hashLifeUniverse.createNextGeneration();
+            hashLifeUniverse.copyTo(resultGeneration);
+            // Assert
+            Assert.assertTrue("generation " + (i + 1), currentGeneration.hasSameCells(resultGeneration));
+        }
+    }
+
+    @Test
+    public void createNextGenerations_ShouldMatchKernelForJumpsWithAndWithoutEvictions() {
+        // Arrange
+        int height = 50;
+        int width = 90;
+        long n = 700;
+        int[] observedCellsX = {0, 25, 49, 7};
+        int[] observedCellsY = {0, 45, 89, 60};
+        Generation generationZero = GenerationFixtures.createRandomGeneration(height, width, 13);
+        IStepKernel stepKernel = new SwarStepKernel(new GreenVsRed());
+        for (int maxNodes : new int[]{64, HashLifeUniverse.DEFAULT_MAX_NODES}) {
+            HashLifeUniverse hashLifeUniverse = new HashLifeUniverse(new GreenVsRed(), maxNodes);
+            hashLifeUniverse.load(generationZero);
+            Generation currentGeneration = new Generation(height, width);
+            currentGeneration.copyFrom(generationZero);
+            Generation nextGeneration = new Generation(height, width);
+            Generation resultGeneration = new Generation(height, width);
+            long[] expectedGreenCounts = new long[observedCellsX.length];
+            long[] resultGreenCounts = new long[observedCellsX.length];
+            long generationIndex = 0;
+            int jumpsCount = 0;
+            while (generationIndex < n) {
+                // Act
+                int generations = hashLifeUniverse.createNextGenerations(n - generationIndex, observedCellsX, observedCellsY, resultGreenCounts);
+                for (int g = 0; g < generations; g++) {
+                    stepKernel.createNewCells(currentGeneration, nextGeneration, 0, height);
+                    Generation swappedGeneration = currentGeneration;
+                    currentGeneration = nextGeneration;
+                    nextGeneration = swappedGeneration;
+                    for (int i = 0; i < observedCellsX.length; i++) {
+                        expectedGreenCounts[i] += currentGeneration.isGreen(observedCellsX[i], observedCellsY[i]) ? 1 : 0;
+                    }
+                }
+                for (int i = 0; i < observedCellsX.length; i++) {
+                    resultGreenCounts[i] += hashLifeUniverse.isGreen(observedCellsX[i], observedCellsY[i]) ? 1 : 0;
+                }
+                generationIndex += generations;
+                jumpsCount++;
+                hashLifeUniverse.copyTo(resultGeneration);
+                // Assert
+                Assert.assertTrue("generation " + generationIndex, currentGeneration.hasSameCells(resultGeneration));
+                Assert.assertArrayEquals("generation " + generationIndex, expectedGreenCounts, resultGreenCounts);
+            }
+            Assert.assertEquals(n, generationIndex);
+            if (maxNodes == HashLifeUniverse.DEFAULT_MAX_NODES) {
+                Assert.assertTrue(jumpsCount < n / 10);
+            }
+        }
+    }
+
+    @Test
+    public void simulate_ShouldAnswerHugeNForLargeStructuredGrid() {
+        // Arrange
+        final long n = 1_000_000_000_000_000L;
+        Generation generationZero = new Generation(4_000, 4_000);
+        for (int i = 100; i < 4_000; i += 100) {
+            for (int j = 100; j < 4_000; j += 100) {
+                generationZero.setGreen(i, j - 1, true); // A horizontal line of three green cells is green at its middle in every generation.
+                generationZero.setGreen(i, j, true);
+                generationZero.setGreen(i, j + 1, true);
+            }
+        }
+        GreenVsRed greenVsRed = new GreenVsRed(StepModeEnum.HASHLIFE);
+        // Act
+        long[] resultGreenCounts = greenVsRed.simulate(generationZero, List.of(new ObservedCellInfo(100, 100, n), new ObservedCellInfo(100, 101, n)));
+        // Assert
+        Assert.assertArrayEquals(new long[]{n + 1, n / 2 + 1}, resultGreenCounts);
+    }
+}
@@ -0,0 +1,91 @@
+import engine.enumeration.StepKernelEnum;
+import engine.enumeration.StepModeEnum;
+import engine.impl.BatchGreenVsRed;
+import engine.impl.GreenVsRed;
+import engine.service.GridLoaderService;
+import engine.service.ValidatorService;
+import exception.InvalidUserInputException;
+import model.Generation;
+import model.ObservedCellInfo;
+import model.RuleSet;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class LargeGridTest {
+    @Test
+    public void validateInputSize_ShouldAcceptLargeGridsOfAnyProportionInLargeGridMode() {
+        // Arrange
+        ValidatorService classicValidatorService = new ValidatorService();
+        ValidatorService largeValidatorService = new ValidatorService(200_000, 200_000);
+        // Act & Assert
+        Assert.assertTrue(classicValidatorService.validateInputSize("999,999").isPresent());
+        Assert.assertFalse(classicValidatorService.validateInputSize("100000,100000").isPresent());
+        Assert.assertFalse(classicValidatorService.validateInputSize("10,5").isPresent());
+        Assert.assertArrayEquals(new int[]{100_000, 150_000}, largeValidatorService.validateInputSize("100000,150000").orElseThrow());
+        Assert.assertArrayEquals(new int[]{150_000, 10}, largeValidatorService.validateInputSize("150000,10").orElseThrow());
+        Assert.assertFalse(largeValidatorService.validateInputSize("200001,10").isPresent());
+        Assert.assertFalse(largeValidatorService.validateInputSize("9999999999,10").isPresent());
+        Assert.assertTrue(largeValidatorService.validateObservedCellInfoInput("149999,9,1000000000000", 150_000, 10).isPresent());
+    }
+
+    @Test
+    public void simulate_ShouldStepGridWithMoreCellsThanAnArrayOfCellObjectsCouldHold() {
+        // Arrange - 1 000 x 1 000 000 cells, a blinker in the far corner and one at the top left.
+        final int height = 1_000;
+        final int width = 1_000_000;
+        Generation generationZero = new Generation(height, width);
+        for (int j = width - 4; j < width - 1; j++) {
+            generationZero.setGreen(height - 2, j, true);
+        }
+        for (int j = 0; j < 3; j++) {
+            generationZero.setGreen(1, j, true);
+        }
+        List<ObservedCellInfo> observedCellsInfo = List.of(
+                new ObservedCellInfo(height - 2, width - 4, 1_000_000_000_000L),
+                new ObservedCellInfo(height - 2, width - 3, 1_000_000_000_000L),
+                new ObservedCellInfo(0, 1, 1_000_000_000_000L));
+        GreenVsRed greenVsRed = new GreenVsRed(StepModeEnum.PARALLEL, StepKernelEnum.SWAR);
+        // Act
+        long[] resultGreenCounts = greenVsRed.simulate(generationZero, observedCellsInfo);
+        // Assert - the end of a blinker is green in the even generations, its centre always and the cell above the centre in the odd ones.
+        Assert.assertEquals(500_000_000_001L, resultGreenCounts[0]);
+        Assert.assertEquals(1_000_000_000_001L, resultGreenCounts[1]);
+        Assert.assertEquals(500_000_000_000L, resultGreenCounts[2]);
+    }
+
+    @Test
+    public void loadGrid_ShouldLoadSeedsWithinBoundsOfLargeGridMode() throws Exception {
+        // Arrange - 3 rows of 1 500 cells, wider than the classic bounds allow.
+        final String seed = "3,1500\n" + "0".repeat(1_500) + "\n" + "1".repeat(1_500) + "\n" + "0".repeat(1_500) + "\n";
+        final String scenarios = seed + "1,0,10\n1,700,10\n";
+        ValidatorService largeValidatorService = new ValidatorService(2_000, 2_000);
+        Path scenariosFile = Files.createTempFile("scenarios", ".txt");
+        Files.writeString(scenariosFile, scenarios);
+        ByteArrayOutputStream results = new ByteArrayOutputStream();
+        BatchGreenVsRed batch = new BatchGreenVsRed(scenariosFile, new PrintStream(results, true, StandardCharsets.US_ASCII),
+                StepKernelEnum.SWAR, 2, RuleSet.GREEN_VS_RED, largeValidatorService);
+        // Act
+        Generation resultGrid = new GridLoaderService(largeValidatorService).loadGrid(seed.getBytes(StandardCharsets.US_ASCII));
+        batch.execute();
+        Files.delete(scenariosFile);
+        // Assert
+        Assert.assertTrue(resultGrid.isGreen(1, 1_499));
+        long[] expectedGreenCounts = new GreenVsRed().simulate(resultGrid, List.of(new ObservedCellInfo(1, 0, 10), new ObservedCellInfo(1, 700, 10)));
+        Assert.assertEquals("0,1,0,10," + expectedGreenCounts[0] + "\n0,1,700,10," + expectedGreenCounts[1] + "\n",
+                results.toString(StandardCharsets.US_ASCII).replace(System.lineSeparator(), "\n"));
+        try {
+            new GridLoaderService().loadGrid(seed.getBytes(StandardCharsets.US_ASCII));
+            Assert.fail("the classic bounds accepted a grid of width 1500");
+        } catch (InvalidUserInputException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains(new ValidatorService().getGridBoundsDescription()));
+        }
+    }
+
+}
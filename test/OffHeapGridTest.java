@@ -0,0 +1,118 @@
+import engine.IStepKernel;
+import engine.enumeration.StepKernelEnum;
+import engine.enumeration.StepModeEnum;
+import engine.impl.ActiveRowsStepKernel;
+import engine.impl.GreenVsRed;
+import engine.impl.ParallelStepKernel;
+import engine.impl.ScalarStepKernel;
+import engine.impl.SwarStepKernel;
+import engine.impl.TiledStepKernel;
+import model.Generation;
+import model.ObservedCellInfo;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class OffHeapGridTest {
+
+    private static final int GENERATIONS = 20;
+
+    @Test
+    public void offHeapGeneration_ShouldHoldTheSameCellsAsHeapGeneration() {
+        // Arrange
+        Generation heapGeneration = GenerationFixtures.createRandomGeneration(45, 150, 3);
+        Generation offHeapGeneration = Generation.allocateOffHeap(45, 150);
+        // Act
+        offHeapGeneration.copyFrom(heapGeneration);
+        Generation copiedGeneration = Generation.allocateLike(offHeapGeneration);
+        copiedGeneration.copyFrom(offHeapGeneration);
+        // Assert
+        Assert.assertTrue(offHeapGeneration.isOffHeap());
+        Assert.assertTrue(copiedGeneration.isOffHeap());
+        Assert.assertTrue(heapGeneration.hasSameCells(offHeapGeneration));
+        Assert.assertTrue(offHeapGeneration.hasSameCells(copiedGeneration));
+        Assert.assertEquals(heapGeneration.getCellsHash(), offHeapGeneration.getCellsHash());
+        for (int i = 0; i < 45; i++) {
+            for (int j = 0; j < 150; j++) {
+                Assert.assertEquals(heapGeneration.isGreen(i, j), offHeapGeneration.isGreen(i, j));
+            }
+        }
+        offHeapGeneration.clear();
+        Assert.assertTrue(offHeapGeneration.hasSameCells(new Generation(45, 150)));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void getRow_ShouldThrowForOffHeapGeneration() {
+        // Act
+        Generation.allocateOffHeap(3, 3).getRow(0);
+    }
+
+    @Test
+    public void createNewCells_ShouldMatchHeapGenerationsForEveryKernel() {
+        // Arrange
+        Generation generationZero = GenerationFixtures.createRandomGeneration(70, 200, 9);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        IStepKernel[] stepKernels = {
+                new ScalarStepKernel(new GreenVsRed()),
+                new SwarStepKernel(new GreenVsRed()),
+                new ActiveRowsStepKernel(new SwarStepKernel(new GreenVsRed())),
+                new ParallelStepKernel(new ActiveRowsStepKernel(new SwarStepKernel(new GreenVsRed())), pool),
+                new TiledStepKernel(new GreenVsRed())};
+        for (IStepKernel stepKernel : stepKernels) {
+            // Act
+            Generation expectedGeneration = createGenerations(stepKernel, generationZero, false);
+            Generation resultGeneration = createGenerations(stepKernel, generationZero, true);
+            // Assert
+            Assert.assertTrue(stepKernel.getClass().getSimpleName(), resultGeneration.isOffHeap());
+            Assert.assertTrue(stepKernel.getClass().getSimpleName(), expectedGeneration.hasSameCells(resultGeneration));
+        }
+        pool.shutdown();
+    }
+
+    @Test
+    public void simulate_ShouldMatchHeapGridsWithOffHeapGrids() throws Exception {
+        // Arrange
+        Generation generationZero = GenerationFixtures.createRandomGeneration(120, 300, 17);
+        List<ObservedCellInfo> observedCellsInfo = List.of(new ObservedCellInfo(0, 0, 1_001), new ObservedCellInfo(60, 150, 1_001));
+        Path checkpointFile = Files.createTempFile("gvr", ".ckpt");
+        try {
+            for (StepKernelEnum stepKernel : StepKernelEnum.values()) {
+                GreenVsRed heapGreenVsRed = new GreenVsRed(StepModeEnum.SEQUENTIAL, stepKernel);
+                GreenVsRed offHeapGreenVsRed = new GreenVsRed(StepModeEnum.SEQUENTIAL, stepKernel);
+                offHeapGreenVsRed.enableOffHeapGrids();
+                offHeapGreenVsRed.enableCheckpoints(checkpointFile, 100);
+                // Act
+                long[] expectedGreenCounts = heapGreenVsRed.simulate(generationZero, observedCellsInfo);
+                long[] resultGreenCounts = offHeapGreenVsRed.simulate(generationZero, observedCellsInfo);
+                long[] expectedHeatmap = heapGreenVsRed.simulateHeatmap(generationZero, 99);
+                long[] resultHeatmap = offHeapGreenVsRed.simulateHeatmap(generationZero, 99);
+                // Assert
+                Assert.assertArrayEquals(stepKernel.name(), expectedGreenCounts, resultGreenCounts);
+                Assert.assertArrayEquals(stepKernel.name(), expectedHeatmap, resultHeatmap);
+            }
+        } finally {
+            Files.deleteIfExists(checkpointFile);
+        }
+    }
+
+    private static Generation createGenerations(IStepKernel stepKernel, Generation generationZero, boolean offHeap) {
+        Generation currentGeneration = offHeap
+                ? Generation.allocateOffHeap(generationZero.getHeight(), generationZero.getWidth())
+                : new Generation(generationZero.getHeight(), generationZero.getWidth());
+        currentGeneration.copyFrom(generationZero);
+        Generation nextGeneration = Generation.allocateLike(currentGeneration);
+        Generation swappedGeneration;
+        for (int i = 0; i < GENERATIONS; i++) {
+            stepKernel.createNewCells(currentGeneration, nextGeneration, 0, currentGeneration.getHeight());
+            swappedGeneration = currentGeneration;
+            currentGeneration = nextGeneration;
+            nextGeneration = swappedGeneration;
+        }
+        return currentGeneration;
+    }
+}
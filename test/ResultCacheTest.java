@@ -0,0 +1,111 @@
+import engine.cache.ResultCache;
+import engine.enumeration.StepKernelEnum;
+import engine.enumeration.StepModeEnum;
+import engine.impl.GreenVsRed;
+import engine.metrics.SimulationMetrics;
+import model.Generation;
+import model.ObservedCellInfo;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+public class ResultCacheTest {
+
+    @Test
+    public void simulate_ShouldMatchUncachedGamesForRepeatedSmallerLargerNAndNewCells() {
+        // Arrange
+        GreenVsRed greenVsRed = new GreenVsRed(StepModeEnum.SEQUENTIAL, StepKernelEnum.SWAR);
+        GreenVsRed cachedGreenVsRed = new GreenVsRed(StepModeEnum.SEQUENTIAL, StepKernelEnum.SWAR);
+        ResultCache resultCache = new ResultCache();
+        cachedGreenVsRed.enableResultCache(resultCache);
+        Generation generationZero = GenerationFixtures.createRandomGeneration(30, 40, 7);
+        long[] ns = {50, 50, 10, 500, 100_000, 3};
+        int[][] cells = {{0, 0}, {0, 0}, {0, 0}, {0, 0}, {29, 39}, {15, 20}};
+        for (int game = 0; game < ns.length; game++) {
+            List<ObservedCellInfo> observedCellsInfo = List.of(new ObservedCellInfo(cells[game][0], cells[game][1], ns[game]),
+                    new ObservedCellInfo(5, 5, ns[game]));
+            // Act
+            long[] cachedGreenCounts = cachedGreenVsRed.simulate(generationZero, observedCellsInfo);
+            // Assert
+            Assert.assertArrayEquals("game " + game, greenVsRed.simulate(generationZero, observedCellsInfo), cachedGreenCounts);
+        }
+        Assert.assertEquals(1, resultCache.getGamesCount());
+        Assert.assertTrue(resultCache.getHitsCount() > 0);
+    }
+
+    @Test
+    public void simulate_ShouldCreateNoGenerationsForCachedGame() {
+        // Arrange
+        GreenVsRed greenVsRed = new GreenVsRed(StepModeEnum.SEQUENTIAL, StepKernelEnum.SWAR);
+        SimulationMetrics metrics = new SimulationMetrics();
+        greenVsRed.enableMetrics(metrics);
+        greenVsRed.enableResultCache(new ResultCache());
+        Generation generationZero = GenerationFixtures.createRandomGeneration(50, 50, 11);
+        long[] greenCounts = greenVsRed.simulate(generationZero, List.of(new ObservedCellInfo(10, 20, 1_000)));
+        long createdGenerations = metrics.getTotalCreatedGenerations();
+        Generation sameGenerationZero = Generation.allocateLike(generationZero);
+        sameGenerationZero.copyFrom(generationZero);
+        // Act
+        long[] cachedGreenCounts = greenVsRed.simulate(sameGenerationZero, List.of(new ObservedCellInfo(10, 20, 1_000)));
+        // Assert
+        Assert.assertArrayEquals(greenCounts, cachedGreenCounts);
+        Assert.assertEquals(createdGenerations, metrics.getTotalCreatedGenerations());
+    }
+
+    @Test
+    public void simulate_ShouldMatchUncachedTiledGamesOnceRecordingStopsAtCacheBounds() {
+        // Arrange
+        GreenVsRed greenVsRed = new GreenVsRed(StepModeEnum.SEQUENTIAL, StepKernelEnum.SWAR);
+        GreenVsRed cachedGreenVsRed = new GreenVsRed(StepModeEnum.SEQUENTIAL, StepKernelEnum.TILED);
+        ResultCache resultCache = new ResultCache(64); // 256 generations of 2 cells, then the game goes on in blocks.
+        cachedGreenVsRed.enableResultCache(resultCache);
+        Generation generationZero = GenerationFixtures.createRandomGeneration(64, 64, 21);
+        List<ObservedCellInfo> observedCellsInfo = List.of(new ObservedCellInfo(3, 4, 5_000), new ObservedCellInfo(40, 63, 5_000));
+        // Act
+        long[] cachedGreenCounts = cachedGreenVsRed.simulate(generationZero, observedCellsInfo);
+        // Assert
+        Assert.assertArrayEquals(greenVsRed.simulate(generationZero, observedCellsInfo), cachedGreenCounts);
+    }
+
+    @Test(timeout = 60_000)
+    public void simulate_ShouldPlayHashLifeGamesWithJumpsWhenCacheIsEnabled() {
+        // Arrange
+        final long n = 1_000_000_000_000_000L;
+        Generation generationZero = new Generation(1_000, 1_000);
+        for (int i = 100; i < 1_000; i += 100) {
+            for (int j = 100; j < 1_000; j += 100) {
+                generationZero.setGreen(i, j - 1, true); // A horizontal line of three green cells is green at its middle in every generation.
+                generationZero.setGreen(i, j, true);
+                generationZero.setGreen(i, j + 1, true);
+            }
+        }
+        GreenVsRed greenVsRed = new GreenVsRed(StepModeEnum.HASHLIFE);
+        ResultCache resultCache = new ResultCache();
+        greenVsRed.enableResultCache(resultCache);
+        // Act
+        long[] resultGreenCounts = greenVsRed.simulate(generationZero, List.of(new ObservedCellInfo(100, 100, n), new ObservedCellInfo(100, 101, n)));
+        // Assert
+        Assert.assertArrayEquals(new long[]{n + 1, n / 2 + 1}, resultGreenCounts);
+        Assert.assertEquals(0, resultCache.getGamesCount());
+    }
+
+    @Test
+    public void put_ShouldEvictLeastRecentlyUsedGamesBeyondMaxBytes() {
+        // Arrange
+        long maxBytes = 4_096;
+        GreenVsRed greenVsRed = new GreenVsRed(StepModeEnum.SEQUENTIAL, StepKernelEnum.SWAR);
+        ResultCache resultCache = new ResultCache(maxBytes);
+        greenVsRed.enableResultCache(resultCache);
+        for (int seed = 0; seed < 20; seed++) {
+            // Act
+            greenVsRed.simulate(GenerationFixtures.createRandomGeneration(20, 20, seed), List.of(new ObservedCellInfo(1, 1, 100)));
+            // Assert
+            Assert.assertTrue(resultCache.getSizeBytes() <= maxBytes);
+        }
+        Assert.assertTrue(resultCache.getGamesCount() < 20);
+        Assert.assertNotNull(resultCache.get(GenerationFixtures.createRandomGeneration(20, 20, 19), greenVsRed.getRuleSet()));
+        Assert.assertNull(resultCache.get(GenerationFixtures.createRandomGeneration(20, 20, 0), greenVsRed.getRuleSet()));
+    }
+}
@@ -0,0 +1,68 @@
+import engine.enumeration.CellTypeEnum;
+import engine.enumeration.StepKernelEnum;
+import engine.enumeration.StepModeEnum;
+import engine.impl.GreenVsRed;
+import engine.service.ValidatorService;
+import model.Generation;
+import model.RuleSet;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class RuleSetTest {
+
+    @Test
+    public void validateRulesInput_ShouldParseBirthAndSurvivalCounts() {
+        // Arrange
+        ValidatorService validatorService = new ValidatorService();
+        // Act
+        RuleSet conwayRuleSet = validatorService.validateRulesInput(" b3/s23 ").orElseThrow();
+        RuleSet greenVsRedRuleSet = validatorService.validateRulesInput(RuleSet.GREEN_VS_RED.toString()).orElseThrow();
+        // Assert
+        Assert.assertEquals(0b1000, conwayRuleSet.getBirthMask());
+        Assert.assertEquals(0b1100, conwayRuleSet.getSurviveMask());
+        Assert.assertEquals("B3/S23", conwayRuleSet.toString());
+        Assert.assertEquals(RuleSet.GREEN_VS_RED, greenVsRedRuleSet);
+        Assert.assertEquals("B36/S236", greenVsRedRuleSet.toString());
+        Assert.assertFalse(validatorService.validateRulesInput("B39/S2").isPresent());
+        Assert.assertFalse(validatorService.validateRulesInput("S23/B3").isPresent());
+    }
+
+    @Test
+    public void executeNextGenerationRules_ShouldFollowRuleSet() {
+        // Arrange
+        GreenVsRed greenVsRed = new GreenVsRed(StepModeEnum.SEQUENTIAL, StepKernelEnum.SCALAR, ForkJoinPool.commonPool(), new RuleSet(0b1000, 0b1100));
+        // Act & Assert
+        Assert.assertEquals(CellTypeEnum.RED, greenVsRed.executeNextGenerationRules(6, CellTypeEnum.RED));
+        Assert.assertEquals(CellTypeEnum.GREEN, greenVsRed.executeNextGenerationRules(3, CellTypeEnum.RED));
+        Assert.assertEquals(CellTypeEnum.GREEN, greenVsRed.executeNextGenerationRules(2, CellTypeEnum.GREEN));
+        Assert.assertEquals(CellTypeEnum.RED, greenVsRed.executeNextGenerationRules(9, CellTypeEnum.GREEN));
+    }
+
+    @Test
+    public void simulateHeatmap_ShouldMatchAcrossKernelsForOtherRuleSets() {
+        // Arrange
+        Random random = new Random(19);
+        Generation generationZero = new Generation(30, 70);
+        for (int i = 0; i < 30; i++) {
+            for (int j = 0; j < 70; j++) {
+                generationZero.setGreen(i, j, random.nextInt(4) == 0);
+            }
+        }
+        RuleSet[] ruleSets = {new RuleSet(0b1000, 0b1100), new RuleSet(0b10101010, 0b10101010), new RuleSet(0b1, 0b100000000)};
+        for (RuleSet ruleSet : ruleSets) {
+            GreenVsRed scalarGreenVsRed = new GreenVsRed(StepModeEnum.SEQUENTIAL, StepKernelEnum.SCALAR, ForkJoinPool.commonPool(), ruleSet);
+            // Act
+            long[] expectedHeatmap = scalarGreenVsRed.simulateHeatmap(generationZero, 60);
+            // Assert
+            for (StepModeEnum stepMode : StepModeEnum.values()) {
+                for (StepKernelEnum stepKernel : StepKernelEnum.values()) {
+                    GreenVsRed greenVsRed = new GreenVsRed(stepMode, stepKernel, ForkJoinPool.commonPool(), ruleSet);
+                    Assert.assertArrayEquals(ruleSet + " " + stepMode + " " + stepKernel, expectedHeatmap, greenVsRed.simulateHeatmap(generationZero, 60));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+import engine.enumeration.StepKernelEnum;
+import engine.enumeration.StepModeEnum;
+import engine.impl.GreenVsRed;
+import engine.metrics.SimulationMetrics;
+import model.Generation;
+import model.ObservedCellInfo;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+public class SimulationMetricsTest {
+
+    @Test
+    public void simulate_ShouldRecordGameIntoMetrics() throws Exception {
+        // Arrange
+        final byte[] cells = {
+                1, 0, 0, 1,
+                1, 1, 1, 1,
+                0, 1, 0, 0,
+                1, 0, 1, 0};
+        SimulationMetrics metrics = new SimulationMetrics();
+        ObjectName objectName = metrics.register("simulate_ShouldRecordGameIntoMetrics");
+        GreenVsRed greenVsRed = new GreenVsRed();
+        greenVsRed.enableMetrics(metrics);
+        // Act
+        long resultGreenCount = greenVsRed.simulate(Generation.of(4, 4, cells), new ObservedCellInfo(2, 2, 1_000_000));
+        // Assert
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        Assert.assertEquals(1_000_000L, mBeanServer.getAttribute(objectName, "GenerationIndex"));
+        Assert.assertEquals(resultGreenCount, mBeanServer.getAttribute(objectName, "ObservedCellGreenCount"));
+        Assert.assertEquals(1L, mBeanServer.getAttribute(objectName, "GamesCount"));
+        Assert.assertEquals(false, mBeanServer.getAttribute(objectName, "Running"));
+        Assert.assertTrue(metrics.getCreatedGenerations() > 0 && metrics.getCreatedGenerations() < 1_000_000); // The rest is fast-forwarded from a cycle.
+        Assert.assertTrue(metrics.getGenerationsPerSecond() > 0);
+        Assert.assertEquals(metrics.getGenerationsPerSecond() * 16, metrics.getCellsPerSecond(), 1e-6 * metrics.getCellsPerSecond());
+        mBeanServer.unregisterMBean(objectName);
+    }
+
+    @Test
+    public void simulate_ShouldNotAllocatePerGenerationWithMetricsEnabled() {
+        // Arrange
+        Generation generationZero = GenerationFixtures.createRandomGeneration(200, 200, 1);
+        SimulationMetrics metrics = new SimulationMetrics();
+        GreenVsRed greenVsRed = new GreenVsRed(StepModeEnum.SEQUENTIAL, StepKernelEnum.SWAR);
+        greenVsRed.enableMetrics(metrics);
+        greenVsRed.simulate(generationZero, new ObservedCellInfo(0, 0, 200)); // Warms up the buffers.
+        // Act
+        greenVsRed.simulate(generationZero, new ObservedCellInfo(0, 0, 2_000));
+        // Assert
+        Assert.assertEquals(2_000, metrics.getCreatedGenerations());
+        Assert.assertTrue("allocated " + metrics.getAllocatedBytesPerStep() + " bytes per step", metrics.getAllocatedBytesPerStep() < 8);
+    }
+}
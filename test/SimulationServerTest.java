@@ -0,0 +1,135 @@
+import engine.enumeration.StepKernelEnum;
+import engine.enumeration.StepModeEnum;
+import engine.impl.GreenVsRed;
+import engine.server.SimulationServer;
+import model.Generation;
+import model.ObservedCellInfo;
+import model.RuleSet;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+public class SimulationServerTest {
+
+    private SimulationServer simulationServer;
+    private HttpClient httpClient;
+
+    @Before
+    public void startServer() {
+        simulationServer = new SimulationServer(0, StepKernelEnum.SWAR, RuleSet.GREEN_VS_RED, 2, 1, 16, 1_000_000, 1_000, 1_000);
+        simulationServer.execute();
+        httpClient = HttpClient.newHttpClient();
+    }
+
+    @After
+    public void stopServer() {
+        simulationServer.stop();
+    }
+
+    @Test
+    public void simulate_ShouldMatchGreenVsRedForSmallAndLargeGamesServedConcurrently() throws Exception {
+        // Arrange
+        GreenVsRed greenVsRed = new GreenVsRed(StepModeEnum.SEQUENTIAL, StepKernelEnum.SWAR);
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        List<String> expectedResults = new ArrayList<>();
+        for (int game = 0; game < 8; game++) {
+            int height = 20 + game * 5;
+            int width = 90 - game * 3;
+            long n = game % 2 == 0 ? 100 : 50_000; // Every other game is large - above 1 000 000 cell updates.
+            Generation generationZero = GenerationFixtures.createRandomGeneration(height, width, game);
+            List<ObservedCellInfo> observedCellsInfo = List.of(new ObservedCellInfo(0, 0, n), new ObservedCellInfo(height - 1, width / 2, n));
+            long[] greenCounts = greenVsRed.simulate(generationZero, observedCellsInfo);
+            StringBuilder request = new StringBuilder(height + "," + width + "\n");
+            for (int i = 0; i < height; i++) {
+                for (int j = 0; j < width; j++) {
+                    request.append(generationZero.isGreen(i, j) ? '1' : '0');
+                }
+                request.append('\n');
+            }
+            StringBuilder expectedResult = new StringBuilder();
+            for (int i = 0; i < observedCellsInfo.size(); i++) {
+                ObservedCellInfo observedCellInfo = observedCellsInfo.get(i);
+                request.append(observedCellInfo.getX()).append(',').append(observedCellInfo.getY()).append(',').append(n).append('\n');
+                expectedResult.append(observedCellInfo.getX()).append(',').append(observedCellInfo.getY()).append(',')
+                        .append(n).append(',').append(greenCounts[i]).append('\n');
+            }
+            expectedResults.add(expectedResult.toString());
+            // Act
+            responses.add(httpClient.sendAsync(createRequest(request.toString()), HttpResponse.BodyHandlers.ofString()));
+        }
+        // Assert
+        for (int game = 0; game < responses.size(); game++) {
+            HttpResponse<String> response = responses.get(game).get();
+            Assert.assertEquals("game " + game, 200, response.statusCode());
+            Assert.assertEquals("game " + game, expectedResults.get(game), response.body());
+        }
+    }
+
+    @Test
+    public void simulate_ShouldDecodeGamesWithCrlfAndBlankLines() throws Exception {
+        // Arrange
+        long expectedGreenCount = new GreenVsRed(StepModeEnum.SEQUENTIAL, StepKernelEnum.SWAR)
+                .simulate(Generation.of(3, 3, new byte[]{0, 1, 0, 0, 1, 0, 0, 1, 0}), new ObservedCellInfo(1, 0, 10));
+        // Act
+        HttpResponse<String> response = httpClient.send(createRequest("\r\n3,3\r\n010\r\n\r\n010\r\n010\r\n\r\n1,0,10\r\n"),
+                HttpResponse.BodyHandlers.ofString());
+        // Assert
+        Assert.assertEquals(200, response.statusCode());
+        Assert.assertEquals("1,0,10," + expectedGreenCount + "\n", response.body());
+    }
+
+    @Test
+    public void simulate_ShouldRejectInvalidGames() throws Exception {
+        // Arrange
+        String[] invalidGames = {"", "3,3\n010\n010\n", "3,3\n010\n012\n010\n1,1,10\n", "3,3\n010\n010\n010\n5,1,10\n", "3,3\n010\n010\n010\n1,1,10\n0,0,11\n"};
+        for (String invalidGame : invalidGames) {
+            // Act
+            HttpResponse<String> response = httpClient.send(createRequest(invalidGame), HttpResponse.BodyHandlers.ofString());
+            // Assert
+            Assert.assertEquals(invalidGame, 400, response.statusCode());
+        }
+        HttpResponse<String> getResponse = httpClient.send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + simulationServer.getPort() + "/simulate")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        Assert.assertEquals(405, getResponse.statusCode());
+    }
+
+    @Test
+    public void simulate_ShouldRejectRequestsLargerThanGridBoundsBeforeReadingThem() throws Exception {
+        // Arrange
+        try (Socket socket = new Socket("localhost", simulationServer.getPort())) {
+            socket.setSoTimeout(10_000);
+            Writer writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII);
+            // Act
+            writer.write("POST /simulate HTTP/1.1\r\nHost: localhost\r\nContent-Length: 1000000000000\r\n\r\n3,3\r\n");
+            writer.flush();
+            String statusLine = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII)).readLine();
+            // Assert
+            Assert.assertEquals("HTTP/1.1 413 Request Entity Too Large", statusLine);
+        }
+        HttpResponse<String> response = httpClient.send(createRequest("3,3\n010\n010\n010\n1,1,10\n"), HttpResponse.BodyHandlers.ofString());
+        Assert.assertEquals(200, response.statusCode());
+    }
+
+    private HttpRequest createRequest(String body) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + simulationServer.getPort() + "/simulate"))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
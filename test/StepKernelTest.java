@@ -0,0 +1,143 @@
+import engine.IStepKernel;
+import engine.enumeration.StepKernelEnum;
+import engine.enumeration.StepModeEnum;
+import engine.impl.ActiveRowsStepKernel;
+import engine.impl.GreenVsRed;
+import engine.impl.ParallelStepKernel;
+import engine.impl.ScalarStepKernel;
+import engine.impl.SwarStepKernel;
+import engine.impl.TiledStepKernel;
+import model.Generation;
+import model.ObservedCellInfo;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class StepKernelTest {
+
+    private static final int GENERATIONS = 20;
+
+    @Test
+    public void parallelCreateNewCells_ShouldMatchScalarWhenGridIsSplitIntoBands() {
+        // Arrange
+        Generation generationZero = GenerationFixtures.createRandomGeneration(101, 137, 42);
+        IStepKernel scalarStepKernel = new ScalarStepKernel(new GreenVsRed());
+        ForkJoinPool pool = new ForkJoinPool(4);
+        IStepKernel parallelStepKernel = new ParallelStepKernel(scalarStepKernel, pool);
+        // Act
+        Generation expectedGeneration = createGenerations(scalarStepKernel, generationZero);
+        Generation resultGeneration = createGenerations(parallelStepKernel, generationZero);
+        pool.shutdown();
+        // Assert
+        Assert.assertTrue(expectedGeneration.hasSameCells(resultGeneration));
+    }
+
+    @Test
+    public void swarCreateNewCells_ShouldMatchScalarForWidthsAroundWordBoundaries() {
+        // Arrange
+        IStepKernel scalarStepKernel = new ScalarStepKernel(new GreenVsRed());
+        IStepKernel swarStepKernel = new SwarStepKernel(new GreenVsRed());
+        int[] widths = {1, 2, 63, 64, 65, 128, 137, 999};
+        for (int width : widths) {
+            Generation generationZero = GenerationFixtures.createRandomGeneration(Math.min(width, 57), width, width);
+            // Act
+            Generation expectedGeneration = createGenerations(scalarStepKernel, generationZero);
+            Generation resultGeneration = createGenerations(swarStepKernel, generationZero);
+            // Assert
+            Assert.assertTrue("width " + width, expectedGeneration.hasSameCells(resultGeneration));
+        }
+    }
+
+    @Test
+    public void activeRowsCreateNewCells_ShouldMatchKernelWhenMostRowsAreStable() {
+        // Arrange
+        IStepKernel swarStepKernel = new SwarStepKernel(new GreenVsRed());
+        IStepKernel activeRowsStepKernel = new ActiveRowsStepKernel(swarStepKernel);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        IStepKernel parallelActiveRowsStepKernel = new ParallelStepKernel(activeRowsStepKernel, pool);
+        Generation randomGenerationZero = GenerationFixtures.createRandomGeneration(64, 130, 7);
+        Generation stableGenerationZero = new Generation(120, 130);
+        for (int i = 0; i < 128; i++) {
+            stableGenerationZero.setGreen(60, i, true); // A long line, far from the random band below it.
+        }
+        for (int i = 100; i < 110; i++) {
+            stableGenerationZero.setRow(i, randomGenerationZero.getRow(i - 100));
+        }
+        for (Generation generationZero : new Generation[]{randomGenerationZero, stableGenerationZero}) {
+            // Act
+            Generation expectedGeneration = createGenerations(swarStepKernel, generationZero);
+            Generation resultGeneration = createGenerations(activeRowsStepKernel, generationZero);
+            Generation parallelResultGeneration = createGenerations(parallelActiveRowsStepKernel, generationZero);
+            // Assert
+            Assert.assertTrue(expectedGeneration.hasSameCells(resultGeneration));
+            Assert.assertTrue(expectedGeneration.hasSameCells(parallelResultGeneration));
+        }
+        pool.shutdown();
+    }
+
+    @Test
+    public void tiledCreateNewCells_ShouldMatchSwarAndCountEveryGenerationOfTheBlock() {
+        // Arrange
+        IStepKernel swarStepKernel = new SwarStepKernel(new GreenVsRed());
+        TiledStepKernel tiledStepKernel = new TiledStepKernel(new GreenVsRed(), 5, 1, 3);
+        Generation generationZero = GenerationFixtures.createRandomGeneration(37, 200, 11);
+        Generation currentGeneration = new Generation(37, 200);
+        currentGeneration.copyFrom(generationZero);
+        Generation nextGeneration = new Generation(37, 200);
+        Generation resultGeneration = new Generation(37, 200);
+        long[] expectedGreenCounts = new long[37 * 200];
+        long[] resultGreenCounts = new long[37 * 200];
+        for (int i = 0; i < 3; i++) {
+            swarStepKernel.createNewCells(currentGeneration, nextGeneration, 0, 37);
+            Generation swappedGeneration = currentGeneration;
+            currentGeneration = nextGeneration;
+            nextGeneration = swappedGeneration;
+            if (i < 2) {
+                for (int x = 0; x < 37; x++) {
+                    for (int y = 0; y < 200; y++) {
+                        expectedGreenCounts[x * 200 + y] += currentGeneration.isGreen(x, y) ? 1 : 0;
+                    }
+                }
+            }
+        }
+        // Act
+        tiledStepKernel.createNewCells(generationZero, resultGeneration, 3, null, null, resultGreenCounts);
+        // Assert
+        Assert.assertTrue(currentGeneration.hasSameCells(resultGeneration));
+        Assert.assertArrayEquals(expectedGreenCounts, resultGreenCounts);
+    }
+
+    @Test
+    public void simulate_ShouldMatchSwarWithTiledKernel() {
+        // Arrange
+        GreenVsRed swarGreenVsRed = new GreenVsRed(StepModeEnum.SEQUENTIAL, StepKernelEnum.SWAR);
+        GreenVsRed tiledGreenVsRed = new GreenVsRed(StepModeEnum.SEQUENTIAL, StepKernelEnum.TILED);
+        Generation generationZero = GenerationFixtures.createRandomGeneration(150, 1100, 5);
+        List<ObservedCellInfo> observedCellsInfo = List.of(new ObservedCellInfo(0, 0, 1_001), new ObservedCellInfo(75, 640, 1_001), new ObservedCellInfo(149, 1099, 1_001));
+        // Act
+        long[] expectedGreenCounts = swarGreenVsRed.simulate(generationZero, observedCellsInfo);
+        long[] resultGreenCounts = tiledGreenVsRed.simulate(generationZero, observedCellsInfo);
+        long[] expectedHeatmap = swarGreenVsRed.simulateHeatmap(generationZero, 99);
+        long[] resultHeatmap = tiledGreenVsRed.simulateHeatmap(generationZero, 99);
+        // Assert
+        Assert.assertArrayEquals(expectedGreenCounts, resultGreenCounts);
+        Assert.assertArrayEquals(expectedHeatmap, resultHeatmap);
+    }
+
+    private static Generation createGenerations(IStepKernel stepKernel, Generation generationZero) {
+        Generation currentGeneration = new Generation(generationZero.getHeight(), generationZero.getWidth());
+        currentGeneration.copyFrom(generationZero);
+        Generation nextGeneration = new Generation(generationZero.getHeight(), generationZero.getWidth());
+        Generation swappedGeneration;
+        for (int i = 0; i < GENERATIONS; i++) {
+            stepKernel.createNewCells(currentGeneration, nextGeneration, 0, currentGeneration.getHeight());
+            swappedGeneration = currentGeneration;
+            currentGeneration = nextGeneration;
+            nextGeneration = swappedGeneration;
+        }
+        return currentGeneration;
+    }
+}